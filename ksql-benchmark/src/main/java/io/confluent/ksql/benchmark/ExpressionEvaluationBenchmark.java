@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.LongLiteral;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.util.ExpressionMetadata;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the per row cost of evaluating a compiled filter expression.
+ *
+ * <p>Compares evaluation with freshly allocated argument arrays, as the filter and projection
+ * used to do, against the thread local argument buffers of
+ * {@link ExpressionMetadata#evaluate(GenericRow, GenericRowValueTypeEnforcer)}. Run with the
+ * {@code -prof gc} option to also report the allocation rate of each.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class ExpressionEvaluationBenchmark {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("COL0", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COL1", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("COL2", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("COL3", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  private ExpressionMetadata expressionMetadata;
+  private GenericRowValueTypeEnforcer typeEnforcer;
+  private GenericRow row;
+
+  @Setup
+  public void setUp() throws Exception {
+    // COL0 > 100 AND LEN(COL2) = 5
+    final Expression filter = new LogicalBinaryExpression(
+        LogicalBinaryExpression.Type.AND,
+        new ComparisonExpression(
+            ComparisonExpression.Type.GREATER_THAN,
+            new QualifiedNameReference(QualifiedName.of("COL0")),
+            new LongLiteral(100)),
+        new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            new FunctionCall(
+                QualifiedName.of("LEN"),
+                ImmutableList.of(new QualifiedNameReference(QualifiedName.of("COL2")))),
+            new IntegerLiteral(5)));
+
+    final CodeGenRunner codeGenRunner = new CodeGenRunner(
+        SCHEMA, new KsqlConfig(Collections.emptyMap()), new InternalFunctionRegistry());
+    expressionMetadata = codeGenRunner.buildCodeGenFromParseTree(filter);
+    typeEnforcer = new GenericRowValueTypeEnforcer(SCHEMA);
+    row = new GenericRow(Arrays.asList(101L, "key", "hello", 1.5));
+  }
+
+  @Benchmark
+  public Object evaluateWithAllocatedArguments() throws Exception {
+    final int[] indexes = expressionMetadata.getIndexes();
+    final Kudf[] udfs = expressionMetadata.getUdfs();
+    final List<Object> columns = row.getColumns();
+    final Object[] parameters = new Object[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      if (indexes[i] < 0) {
+        parameters[i] = udfs[i];
+      } else {
+        parameters[i] = typeEnforcer.enforceFieldType(indexes[i], columns.get(indexes[i]));
+      }
+    }
+    return expressionMetadata.getExpressionEvaluator().evaluate(parameters);
+  }
+
+  @Benchmark
+  public Object evaluateWithThreadBuffers() throws Exception {
+    return expressionMetadata.evaluate(row, typeEnforcer);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(ExpressionEvaluationBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
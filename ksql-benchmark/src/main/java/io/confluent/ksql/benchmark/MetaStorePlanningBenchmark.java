@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.analyzer.AggregateAnalysis;
+import io.confluent.ksql.analyzer.Analysis;
+import io.confluent.ksql.analyzer.QueryAnalyzer;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.metastore.KsqlStream;
+import io.confluent.ksql.metastore.KsqlTopic;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.MetaStoreImpl;
+import io.confluent.ksql.parser.KsqlParser;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.planner.LogicalPlanner;
+import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the latency of planning a query against metastores holding more and more streams.
+ *
+ * <p>Planning a statement clones the metastore once when the engine takes its snapshot, once for
+ * the parser and once more for the logical planner, which this benchmark does too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class MetaStorePlanningBenchmark {
+
+  private static final String QUERY = "SELECT COL0, LEN(COL1) FROM STREAM_0 WHERE COL0 > 100;";
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("ROWTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ROWKEY", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("COL0", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COL1", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  @Param({"10", "1000", "10000"})
+  public int metaStoreSize;
+
+  private final KsqlParser parser = new KsqlParser();
+  private final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+  private InternalFunctionRegistry functionRegistry;
+  private MetaStore metaStore;
+
+  @Setup
+  public void setUp() {
+    functionRegistry = new InternalFunctionRegistry();
+    metaStore = new MetaStoreImpl(functionRegistry);
+    for (int i = 0; i < metaStoreSize; i++) {
+      final KsqlTopic topic =
+          new KsqlTopic("TOPIC_" + i, "topic_" + i, new KsqlJsonTopicSerDe());
+      metaStore.putTopic(topic);
+      metaStore.putSource(new KsqlStream(
+          "sqlexpression",
+          "STREAM_" + i,
+          SCHEMA,
+          SCHEMA.field("COL0"),
+          new MetadataTimestampExtractionPolicy(),
+          topic));
+      metaStore.updateForPersistentQuery(
+          "CSAS_STREAM_" + i, Collections.emptySet(), Collections.singleton("STREAM_" + i));
+    }
+  }
+
+  @Benchmark
+  public MetaStore cloneMetaStore() {
+    return metaStore.clone();
+  }
+
+  @Benchmark
+  public PlanNode planQuery() {
+    final MetaStore engineSnapshot = metaStore.clone();
+
+    final List<PreparedStatement> statements = parser.buildAst(QUERY, engineSnapshot.clone());
+    final Query query = (Query) statements.get(0).getStatement();
+
+    final QueryAnalyzer queryAnalyzer =
+        new QueryAnalyzer(engineSnapshot.clone(), functionRegistry, ksqlConfig);
+    final Analysis analysis = queryAnalyzer.analyze(QUERY, query);
+    final AggregateAnalysis aggregateAnalysis = queryAnalyzer.analyzeAggregate(query, analysis);
+    return new LogicalPlanner(analysis, aggregateAnalysis, functionRegistry).buildPlan();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(MetaStorePlanningBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
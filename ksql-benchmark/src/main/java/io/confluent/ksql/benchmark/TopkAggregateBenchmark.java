@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the per row cost of updating TOPK and TOPKDISTINCT aggregates of different sizes.
+ *
+ * <p>Random values mostly fall below the smallest value already held once the aggregate is
+ * full, while ascending values always enter at the head of the aggregate, which is the worst
+ * case for an update.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1)
+@State(Scope.Thread)
+public class TopkAggregateBenchmark {
+
+  private static final int RANDOM_VALUE_COUNT = 1 << 16;
+
+  @Param({"10", "100", "1000"})
+  public int topKSize;
+
+  private final Long[] randomValues = new Long[RANDOM_VALUE_COUNT];
+  private KsqlAggregateFunction<Long, List<Long>> topk;
+  private KsqlAggregateFunction<Long, List<Long>> topkDistinct;
+  private List<Long> topkAggregate;
+  private List<Long> topkDistinctAggregate;
+  private int nextRandomValue;
+  private long nextAscendingValue;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(42);
+    for (int i = 0; i < RANDOM_VALUE_COUNT; i++) {
+      randomValues[i] = (long) random.nextInt(RANDOM_VALUE_COUNT);
+    }
+
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    topk = createFunction(functionRegistry, "TOPK");
+    topkDistinct = createFunction(functionRegistry, "TOPKDISTINCT");
+    topkAggregate = new ArrayList<>();
+    topkDistinctAggregate = new ArrayList<>();
+  }
+
+  @Benchmark
+  public List<Long> topkRandomValues() {
+    return topk.aggregate(nextRandomValue(), topkAggregate);
+  }
+
+  @Benchmark
+  public List<Long> topkAscendingValues() {
+    return topk.aggregate(nextAscendingValue++, topkAggregate);
+  }
+
+  @Benchmark
+  public List<Long> topkDistinctRandomValues() {
+    return topkDistinct.aggregate(nextRandomValue(), topkDistinctAggregate);
+  }
+
+  @Benchmark
+  public List<Long> topkDistinctAscendingValues() {
+    return topkDistinct.aggregate(nextAscendingValue++, topkDistinctAggregate);
+  }
+
+  private Long nextRandomValue() {
+    nextRandomValue = (nextRandomValue + 1) & (RANDOM_VALUE_COUNT - 1);
+    return randomValues[nextRandomValue];
+  }
+
+  @SuppressWarnings("unchecked")
+  private KsqlAggregateFunction<Long, List<Long>> createFunction(
+      final InternalFunctionRegistry functionRegistry,
+      final String functionName) {
+    return functionRegistry
+        .getAggregate(functionName, Schema.OPTIONAL_INT64_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            Collections.singletonMap("COL0", 0),
+            Arrays.asList("COL0", String.valueOf(topKSize))));
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TopkAggregateBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The key of a row grouped by the values of one or more columns.
+ *
+ * <p>Keys are equal if their values are. The string form of a key, which is what is written to
+ * sink topics and returned to clients, is the string form of each value joined with
+ * {@link #SEPARATOR}.
+ */
+public final class GroupByKey {
+
+  public static final String SEPARATOR = "|+|";
+
+  private final List<Object> values;
+
+  public GroupByKey(final List<Object> values) {
+    this.values = Objects.requireNonNull(values, "values");
+  }
+
+  public List<Object> getValues() {
+    return values;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return values.equals(((GroupByKey) o).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return values.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    if (values.size() == 1) {
+      return String.valueOf(values.get(0));
+    }
+    final StringBuilder key = new StringBuilder();
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        key.append(SEPARATOR);
+      }
+      key.append(values.get(i));
+    }
+    return key.toString();
+  }
+}
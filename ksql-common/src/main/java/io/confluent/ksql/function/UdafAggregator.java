@@ -20,6 +20,6 @@ import io.confluent.ksql.GenericRow;
 import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Merger;
 
-public interface UdafAggregator extends Aggregator<String, GenericRow, GenericRow> {
-  Merger<String, GenericRow> getMerger();
+public interface UdafAggregator extends Aggregator<Object, GenericRow, GenericRow> {
+  Merger<Object, GenericRow> getMerger();
 }
@@ -102,11 +102,71 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
       + " VARCHAR SUBSTRING(str VARCHAR, pos INT, length INT), where pos is base-one indexed,"
       + " and the last argument is the length of the substring to extract.";
 
+  public static final String KSQL_FUSE_FILTER_PROJECT_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.fuse.filter.project";
+  private static final String KSQL_FUSE_FILTER_PROJECT_DOCS =
+      "Evaluate a WHERE clause and the SELECT expressions that follow it in a single compiled"
+      + " operator, rather than as separate filter and projection steps. Rows that fail the"
+      + " filter are rejected before any projected column is read or computed. Changing this"
+      + " setting changes the topology of new queries; existing queries keep the value they"
+      + " were created with.";
+
+  public static final String KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "internal.topic.binary.format";
+  private static final String KSQL_INTERNAL_TOPIC_BINARY_FORMAT_DOCS =
+      "Write the rows of internal topics, i.e. repartition topics and state store changelogs, in"
+      + " a compact positional binary format rather than the format of the source topic. This"
+      + " avoids JSON encoding and parsing on each internal hop, and registering internal schemas"
+      + " in the Schema Registry for Avro sources. Existing queries keep the format they were"
+      + " created with.";
+
+  public static final String KSQL_GROUP_BY_BINARY_KEY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.group.by.binary.key";
+  private static final String KSQL_GROUP_BY_BINARY_KEY_DOCS =
+      "Key the repartition topic and state store of a GROUP BY on columns other than the key"
+      + " with the binary encoding of the grouping column values, rather than their string"
+      + " values joined with '|+|'. The key written to the sink topic is unchanged. Existing"
+      + " queries keep the key they were created with.";
+
+  public static final String KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.group.by.partial.aggregate";
+  private static final String KSQL_GROUP_BY_PARTIAL_AGGREGATE_DOCS =
+      "Combine the rows of each group into a partial aggregate before a GROUP BY on columns other"
+      + " than the key repartitions them, so that only one row per group is written to the"
+      + " repartition topic every flush, rather than every input row. Only applies to"
+      + " non-windowed aggregations. Existing queries keep the value they were created with.";
+  public static final String KSQL_GROUP_BY_PARTIAL_AGGREGATE_MAX_KEYS_CONFIG =
+      KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG + ".max.keys";
+  public static final String KSQL_GROUP_BY_PARTIAL_AGGREGATE_FLUSH_MS_CONFIG =
+      KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG + ".flush.ms";
+
   public static final String
       defaultSchemaRegistryUrl = "http://localhost:8081";
 
   public static final String KSQL_STREAMS_PREFIX = "ksql.streams.";
 
+  public static final String KSQL_QUERY_STREAM_BATCH_SIZE_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.stream.batch.size";
+  public static final String KSQL_QUERY_STREAM_LINGER_MS_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.stream.linger.ms";
+
+  public static final String KSQL_SHARED_PRODUCER_POOL_SIZE_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.shared.producer.pool.size";
+
+  public static final String KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "topic.metadata.cache.ttl.ms";
+
+  public static final String KSQL_PARSER_CACHE_SIZE_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "parser.cache.size";
+
+  public static final String KSQL_TRANSIENT_QUERY_MULTICAST_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.multicast";
+
+  public static final String KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.queue.capacity";
+  public static final String KSQL_TRANSIENT_QUERY_QUEUE_FULL_POLICY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.queue.full.policy";
+
   public static final String KSQL_COLLECT_UDF_METRICS = "ksql.udf.collect.metrics";
   public static final String KSQL_UDF_SECURITY_MANAGER_ENABLED = "ksql.udf.enable.security.manager";
 
@@ -137,7 +197,35 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
               true,
               false,
               ConfigDef.Importance.LOW,
-              KSQL_FUNCTIONS_SUBSTRING_LEGACY_ARGS_DOCS)
+              KSQL_FUNCTIONS_SUBSTRING_LEGACY_ARGS_DOCS),
+          new CompatibilityBreakingConfigDef(
+              KSQL_FUSE_FILTER_PROJECT_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_FUSE_FILTER_PROJECT_DOCS),
+          new CompatibilityBreakingConfigDef(
+              KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_INTERNAL_TOPIC_BINARY_FORMAT_DOCS),
+          new CompatibilityBreakingConfigDef(
+              KSQL_GROUP_BY_BINARY_KEY_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_GROUP_BY_BINARY_KEY_DOCS),
+          new CompatibilityBreakingConfigDef(
+              KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_GROUP_BY_PARTIAL_AGGREGATE_DOCS)
   );
 
   private static class CompatibilityBreakingConfigDef {
@@ -252,6 +340,106 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
             "Whether or not metrics should be collected for custom udfs. Default is false. Note: "
                 + "this will add some overhead to udf invocation. It is recommended that this "
                 + " be set to false in production."
+        ).define(
+            KSQL_QUERY_STREAM_BATCH_SIZE_CONFIG,
+            ConfigDef.Type.INT,
+            1,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "The maximum number of rows a streamed query writes to the client before flushing "
+                + "the response. Default is 1, i.e. each row is flushed as soon as it is written. "
+                + "Larger values trade a little latency for much higher throughput on busy queries."
+        ).define(
+            KSQL_QUERY_STREAM_LINGER_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            0L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "The maximum time, in milliseconds, a streamed query waits for more rows to fill a "
+                + "batch of " + KSQL_QUERY_STREAM_BATCH_SIZE_CONFIG + " rows before flushing the "
+                + "rows it already has. Default is 0, i.e. only rows already queued are batched."
+        ).define(
+            KSQL_SHARED_PRODUCER_POOL_SIZE_CONFIG,
+            ConfigDef.Type.INT,
+            0,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "The number of producers shared by the queries running on this server. Each query "
+                + "still runs in its own Kafka Streams instance, but instead of creating a "
+                + "producer per stream thread, all threads with the same producer config write "
+                + "through one of this many shared producers. This reduces the memory, threads "
+                + "and broker connections used by each query. Producers are never shared with "
+                + "exactly-once processing. Default is 0, i.e. every stream thread has its own "
+                + "producer."
+        ).define(
+            KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            0L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "How long, in milliseconds, the names, descriptions and configs of Kafka topics are "
+                + "cached for, rather than fetched from the cluster each time a statement needs "
+                + "them. Topics KSQL creates, deletes or reconfigures are refreshed straight away, "
+                + "but changes made by other clients may take this long to show. Default is 0, "
+                + "i.e. topic metadata is not cached."
+        ).define(
+            KSQL_PARSER_CACHE_SIZE_CONFIG,
+            ConfigDef.Type.INT,
+            1000,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            "The number of distinct statement texts whose parse trees are cached, so that "
+                + "statements that are issued repeatedly are not lexed and parsed again. The "
+                + "least recently used statements are evicted first. Set to 0 to disable."
+        ).define(
+            KSQL_TRANSIENT_QUERY_MULTICAST_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            "Whether transient queries that are identical to one already running, apart from "
+                + "their LIMIT, subscribe to the running query's topology rather than starting "
+                + "their own. Each subscriber still has its own row queue and LIMIT. Only "
+                + "queries that read from the latest offset are shared, as rows the running "
+                + "query has already read can't be replayed for a new subscriber."
+        ).define(
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG,
+            ConfigDef.Type.INT,
+            100,
+            ConfigDef.Range.between(1, 1 << 30),
+            ConfigDef.Importance.LOW,
+            "The maximum number of result rows queued for a transient query while they wait to "
+                + "be written to the client."
+        ).define(
+            KSQL_TRANSIENT_QUERY_QUEUE_FULL_POLICY_CONFIG,
+            ConfigDef.Type.STRING,
+            "BLOCK",
+            ConfigDef.ValidString.in("BLOCK", "DROP_OLDEST", "SAMPLE"),
+            ConfigDef.Importance.LOW,
+            "What a transient query does with a result row when its queue is full because the "
+                + "client is reading more slowly than the query produces rows. BLOCK, the "
+                + "default, holds up the query until there is room. DROP_OLDEST drops the oldest "
+                + "queued row, so the client gets the most recent rows. SAMPLE drops the new "
+                + "row, so the client gets a sample of the rows at the rate it reads them. "
+                + "Dropped rows are counted by the transient-query-dropped-rows metric. Rows "
+                + "dropped by DROP_OLDEST still count towards the LIMIT of the query."
+        ).define(
+            KSQL_GROUP_BY_PARTIAL_AGGREGATE_MAX_KEYS_CONFIG,
+            ConfigDef.Type.INT,
+            10000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "The maximum number of groups a task buffers partial aggregates for when "
+                + KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG + " is enabled. Once reached, all "
+                + "buffered partial aggregates are sent on to be repartitioned."
+        ).define(
+            KSQL_GROUP_BY_PARTIAL_AGGREGATE_FLUSH_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            1000L,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            "How often, in milliseconds of wall clock time, buffered partial aggregates are sent "
+                + "on to be repartitioned when " + KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG
+                + " is enabled. This bounds the extra latency the buffering adds to results."
         ).define(
             KSQL_EXT_DIR,
             ConfigDef.Type.STRING,
@@ -392,6 +392,14 @@ public final class SchemaUtil {
     }
   }
 
+  public static Set<String> getFieldNamesWithNoAlias(final Schema schema) {
+    final Set<String> names = new HashSet<>();
+    for (final Field field : schema.fields()) {
+      names.add(getFieldNameWithNoAlias(field));
+    }
+    return names;
+  }
+
   /**
    * Remove the alias when reading/writing from outside
    */
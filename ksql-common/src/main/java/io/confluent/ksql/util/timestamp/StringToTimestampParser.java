@@ -19,6 +19,8 @@ package io.confluent.ksql.util.timestamp;
 import io.confluent.ksql.util.KsqlException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -28,8 +30,10 @@ import java.time.temporal.TemporalAccessor;
 
 public class StringToTimestampParser {
   private final DateTimeFormatter formatter;
+  private final FixedWidthParser fixedWidthParser;
 
   public StringToTimestampParser(final String pattern) {
+    fixedWidthParser = FixedWidthParser.forPattern(pattern);
     formatter = new DateTimeFormatterBuilder()
         .appendPattern(pattern)
         .parseDefaulting(ChronoField.YEAR_OF_ERA, 1970)
@@ -40,6 +44,16 @@ public class StringToTimestampParser {
   }
 
   public long parse(final String text) {
+    if (fixedWidthParser != null) {
+      final long timestamp = fixedWidthParser.parse(text);
+      if (timestamp != FixedWidthParser.NOT_PARSED) {
+        return timestamp;
+      }
+    }
+    return parseWithFormatter(text);
+  }
+
+  private long parseWithFormatter(final String text) {
     TemporalAccessor parsed = formatter.parseBest(
         text,
         ZonedDateTime::from,
@@ -61,4 +75,125 @@ public class StringToTimestampParser {
     return Timestamp.valueOf(dateTime).getTime();
   }
 
+  /**
+   * Parses the common fixed width patterns {@code yyyy-MM-dd HH:mm:ss[.SSS]} and
+   * {@code yyyy-MM-dd'T'HH:mm:ss[.SSS]} by reading the digits directly, rather than through a
+   * {@link DateTimeFormatter}.
+   *
+   * <p>The timestamp of the last second parsed is cached, so that, for the usual case of records
+   * arriving roughly in time order, only the digits of the milliseconds need to be read.
+   *
+   * <p>Any text that is not a plainly valid date and time, e.g. of the wrong length or with
+   * out of range fields, is left to the formatter, so that the result, or the error, is always
+   * the same as the formatter's.
+   */
+  private static final class FixedWidthParser {
+
+    static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private static final int SECONDS_LENGTH = "yyyy-MM-dd HH:mm:ss".length();
+
+    private final char dateTimeSeparator;
+    private final boolean hasMillis;
+    private volatile CachedSecond cachedSecond;
+
+    private FixedWidthParser(final char dateTimeSeparator, final boolean hasMillis) {
+      this.dateTimeSeparator = dateTimeSeparator;
+      this.hasMillis = hasMillis;
+    }
+
+    static FixedWidthParser forPattern(final String pattern) {
+      switch (pattern) {
+        case "yyyy-MM-dd HH:mm:ss":
+          return new FixedWidthParser(' ', false);
+        case "yyyy-MM-dd HH:mm:ss.SSS":
+          return new FixedWidthParser(' ', true);
+        case "yyyy-MM-dd'T'HH:mm:ss":
+          return new FixedWidthParser('T', false);
+        case "yyyy-MM-dd'T'HH:mm:ss.SSS":
+          return new FixedWidthParser('T', true);
+        default:
+          return null;
+      }
+    }
+
+    long parse(final String text) {
+      if (text.length() != (hasMillis ? SECONDS_LENGTH + 4 : SECONDS_LENGTH)) {
+        return NOT_PARSED;
+      }
+
+      final CachedSecond cached = cachedSecond;
+      final long secondTimestamp;
+      if (cached != null && text.regionMatches(0, cached.text, 0, SECONDS_LENGTH)) {
+        secondTimestamp = cached.timestamp;
+      } else {
+        secondTimestamp = parseSecond(text);
+        if (secondTimestamp == NOT_PARSED) {
+          return NOT_PARSED;
+        }
+        cachedSecond = new CachedSecond(text.substring(0, SECONDS_LENGTH), secondTimestamp);
+      }
+
+      if (!hasMillis) {
+        return secondTimestamp;
+      }
+      final int millis = digits(text, SECONDS_LENGTH + 1, 3);
+      if (text.charAt(SECONDS_LENGTH) != '.' || millis < 0) {
+        return NOT_PARSED;
+      }
+      return secondTimestamp + millis;
+    }
+
+    private long parseSecond(final String text) {
+      final int year = digits(text, 0, 4);
+      final int month = digits(text, 5, 2);
+      final int day = digits(text, 8, 2);
+      final int hour = digits(text, 11, 2);
+      final int minute = digits(text, 14, 2);
+      final int second = digits(text, 17, 2);
+      if (text.charAt(4) != '-'
+          || text.charAt(7) != '-'
+          || text.charAt(10) != dateTimeSeparator
+          || text.charAt(13) != ':'
+          || text.charAt(16) != ':'
+          || year < 1
+          || month < 1 || month > 12
+          || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+          || hour < 0 || hour > 23
+          || minute < 0 || minute > 59
+          || second < 0 || second > 59) {
+        return NOT_PARSED;
+      }
+      return Timestamp.valueOf(LocalDateTime.of(year, month, day, hour, minute, second))
+          .getTime();
+    }
+
+    /**
+     * @return the value of the {@code length} decimal digits at {@code start}, or -1 if any of
+     *     the characters is not a digit.
+     */
+    private static int digits(final String text, final int start, final int length) {
+      int value = 0;
+      for (int i = start; i < start + length; i++) {
+        final int digit = text.charAt(i) - '0';
+        if (digit < 0 || digit > 9) {
+          return -1;
+        }
+        value = value * 10 + digit;
+      }
+      return value;
+    }
+  }
+
+  private static final class CachedSecond {
+
+    private final String text;
+    private final long timestamp;
+
+    private CachedSecond(final String text, final long timestamp) {
+      this.text = text;
+      this.timestamp = timestamp;
+    }
+  }
+
 }
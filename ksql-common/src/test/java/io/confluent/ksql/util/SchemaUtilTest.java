@@ -421,6 +421,15 @@ public class SchemaUtilTest {
         equalTo(schema.fields().get(0).name()));
   }
 
+  @Test
+  public void shouldReturnFieldNamesWithoutAlias() {
+    final Schema schemaWithAlias = SchemaUtil.buildSchemaWithAlias(schema, "alias");
+    assertThat(SchemaUtil.getFieldNamesWithNoAlias(schemaWithAlias),
+        equalTo(SchemaUtil.getFieldNamesWithNoAlias(schema)));
+    assertThat(SchemaUtil.getFieldNamesWithNoAlias(schema).size(),
+        equalTo(schema.fields().size()));
+  }
+
   public void shouldResolveIntAndLongSchemaToLong() {
     assertThat(
         SchemaUtil.resolveArithmeticType(Schema.Type.INT64, Schema.Type.INT32).type(),
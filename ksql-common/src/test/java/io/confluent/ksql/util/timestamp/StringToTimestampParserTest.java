@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
+import org.junit.Test;
+
+public class StringToTimestampParserTest {
+
+  // Not one of the fixed width patterns, so always parsed with a DateTimeFormatter:
+  private static final StringToTimestampParser FORMATTER_PARSER =
+      new StringToTimestampParser("yyyy-MM-dd HH:mm:ss[.SSS]");
+
+  @Test
+  public void shouldParseSecondsLikeFormatter() {
+    final StringToTimestampParser parser = new StringToTimestampParser("yyyy-MM-dd HH:mm:ss");
+
+    for (final String text : new String[]{
+        "2018-08-17 10:11:12", "2016-02-29 23:59:59", "1970-01-01 00:00:00", "0999-12-31 01:02:03"
+    }) {
+      assertThat(text, parser.parse(text), equalTo(FORMATTER_PARSER.parse(text)));
+    }
+  }
+
+  @Test
+  public void shouldParseMillisLikeFormatter() throws ParseException {
+    final String pattern = "yyyy-MM-dd HH:mm:ss.SSS";
+    final StringToTimestampParser parser = new StringToTimestampParser(pattern);
+
+    final String text = "2018-08-17 10:11:12.345";
+
+    assertThat(parser.parse(text), equalTo(FORMATTER_PARSER.parse(text)));
+    assertThat(parser.parse(text), equalTo(new SimpleDateFormat(pattern).parse(text).getTime()));
+  }
+
+  @Test
+  public void shouldParseIsoLocalDateTime() {
+    final StringToTimestampParser parser =
+        new StringToTimestampParser("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    assertThat(parser.parse("2018-08-17T10:11:12.345"),
+        equalTo(FORMATTER_PARSER.parse("2018-08-17 10:11:12.345")));
+  }
+
+  @Test
+  public void shouldParseMillisWithinCachedSecond() {
+    final StringToTimestampParser parser = new StringToTimestampParser("yyyy-MM-dd HH:mm:ss.SSS");
+
+    final long first = parser.parse("2018-08-17 10:11:12.100");
+    final long second = parser.parse("2018-08-17 10:11:12.999");
+    final long third = parser.parse("2018-08-17 10:11:13.000");
+
+    assertThat(second - first, equalTo(899L));
+    assertThat(third - first, equalTo(900L));
+  }
+
+  @Test
+  public void shouldResolveDaysPastMonthEndLikeFormatter() {
+    final StringToTimestampParser parser = new StringToTimestampParser("yyyy-MM-dd HH:mm:ss");
+
+    assertThat(parser.parse("2018-02-30 00:00:00"),
+        equalTo(FORMATTER_PARSER.parse("2018-02-30 00:00:00")));
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void shouldThrowOnInvalidMonth() {
+    new StringToTimestampParser("yyyy-MM-dd HH:mm:ss").parse("2018-13-01 00:00:00");
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void shouldThrowOnMissingMillis() {
+    new StringToTimestampParser("yyyy-MM-dd HH:mm:ss.SSS").parse("2018-08-17 10:11:12");
+  }
+
+  @Test(expected = DateTimeParseException.class)
+  public void shouldThrowOnWrongSeparator() {
+    new StringToTimestampParser("yyyy-MM-dd'T'HH:mm:ss").parse("2018-08-17 10:11:12");
+  }
+}
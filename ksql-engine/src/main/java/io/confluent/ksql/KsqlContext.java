@@ -70,8 +70,9 @@ public class KsqlContext {
     Objects.requireNonNull(schemaRegistryClientFactory, "schemaRegistryClient cannot be null.");
     final AdminClient adminClient = clientSupplier
         .getAdminClient(ksqlConfig.getKsqlAdminClientConfigProps());
-    final KafkaTopicClient kafkaTopicClient = new
-        KafkaTopicClientImpl(adminClient);
+    final KafkaTopicClient kafkaTopicClient = new KafkaTopicClientImpl(
+        adminClient,
+        ksqlConfig.getLong(KsqlConfig.KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG));
     final MetaStore metaStore = new MetaStoreImpl(new InternalFunctionRegistry());
     final KsqlEngine engine = new KsqlEngine(
         kafkaTopicClient,
@@ -34,8 +34,10 @@ import io.confluent.ksql.function.UdfFactory;
 import io.confluent.ksql.internal.KsqlEngineMetrics;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.MetaStoreImpl;
+import io.confluent.ksql.metastore.StructuredDataSource;
 import io.confluent.ksql.parser.KsqlParser;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlFormatter;
 import io.confluent.ksql.parser.exception.ParseFailedException;
 import io.confluent.ksql.parser.tree.CreateAsSelect;
 import io.confluent.ksql.parser.tree.CreateStream;
@@ -54,7 +56,13 @@ import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.parser.tree.Table;
 import io.confluent.ksql.parser.tree.UnsetProperty;
+import io.confluent.ksql.physical.SharedProducerClientSupplier;
 import io.confluent.ksql.planner.LogicalPlanNode;
+import io.confluent.ksql.planner.plan.JoinNode;
+import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.planner.plan.StructuredDataSourceNode;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.registry.KsqlSchemaRegistryClientFactory;
 import io.confluent.ksql.serde.DataSource;
@@ -65,6 +73,10 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.QueuedQueryMetadata;
+import io.confluent.ksql.util.SchemaUtil;
+import io.confluent.ksql.util.SharedTransientQuery;
+import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -76,12 +88,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.streams.KafkaClientSupplier;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.processor.internals.DefaultKafkaClientSupplier;
@@ -108,13 +122,16 @@ public class KsqlEngine implements Closeable {
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
   private final Set<QueryMetadata> livePersistentQueries;
   private final Set<QueryMetadata> allLiveQueries;
+  private final Map<String, SharedTransientQuery> sharedTransientQueries;
   private final KsqlEngineMetrics engineMetrics;
   private final ScheduledExecutorService aggregateMetricsCollector;
   private final Supplier<SchemaRegistryClient> schemaRegistryClientFactory;
   private final SchemaRegistryClient schemaRegistryClient;
   private final QueryIdGenerator queryIdGenerator;
   private final KafkaClientSupplier clientSupplier;
+  private final SharedProducerClientSupplier sharedProducerClientSupplier;
   private final AdminClient adminClient;
+  private final KsqlParser parser;
 
   private final String serviceId;
 
@@ -123,7 +140,9 @@ public class KsqlEngine implements Closeable {
     final AdminClient adminClient = clientSupplier
         .getAdminClient(ksqlConfig.getKsqlAdminClientConfigProps());
     return new KsqlEngine(
-        new KafkaTopicClientImpl(adminClient),
+        new KafkaTopicClientImpl(
+            adminClient,
+            ksqlConfig.getLong(KsqlConfig.KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG)),
         (new KsqlSchemaRegistryClientFactory(ksqlConfig))::get,
         clientSupplier,
         new MetaStoreImpl(new InternalFunctionRegistry()),
@@ -176,8 +195,18 @@ public class KsqlEngine implements Closeable {
     this.schemaRegistryClient =
         Objects.requireNonNull(
             this.schemaRegistryClientFactory.get(), "Schema registry can't be null");
-    this.clientSupplier = Objects.requireNonNull(clientSupplier, "clientSupplier can't be null");
+    Objects.requireNonNull(clientSupplier, "clientSupplier can't be null");
+    final int sharedProducerPoolSize =
+        initializationKsqlConfig.getInt(KsqlConfig.KSQL_SHARED_PRODUCER_POOL_SIZE_CONFIG);
+    this.sharedProducerClientSupplier = sharedProducerPoolSize > 0
+        ? new SharedProducerClientSupplier(clientSupplier, sharedProducerPoolSize)
+        : null;
+    this.clientSupplier = sharedProducerClientSupplier != null
+        ? sharedProducerClientSupplier
+        : clientSupplier;
     this.serviceId = initializationKsqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG);
+    this.parser = new KsqlParser(
+        initializationKsqlConfig.getInt(KsqlConfig.KSQL_PARSER_CACHE_SIZE_CONFIG));
     this.ddlCommandExec = new DdlCommandExec(this.metaStore);
     this.queryEngine = new QueryEngine(
         this,
@@ -188,6 +217,7 @@ public class KsqlEngine implements Closeable {
     this.persistentQueries = new HashMap<>();
     this.livePersistentQueries = new HashSet<>();
     this.allLiveQueries = new HashSet<>();
+    this.sharedTransientQueries = new HashMap<>();
     this.engineMetrics = new KsqlEngineMetrics("ksql-engine", this);
     this.aggregateMetricsCollector = Executors.newSingleThreadScheduledExecutor();
     this.queryIdGenerator = new QueryIdGenerator();
@@ -249,6 +279,18 @@ public class KsqlEngine implements Closeable {
         ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties)
     );
 
+    final Optional<String> sharingKey =
+        getTransientQuerySharingKey(statementList, logicalPlans, ksqlConfig, overriddenProperties);
+    if (sharingKey.isPresent()) {
+      final QueryMetadata subscriber = subscribeToSharedQuery(
+          sharingKey.get(), logicalPlans.get(0));
+      if (subscriber != null) {
+        allLiveQueries.add(subscriber);
+        engineMetrics.registerQueries(Collections.singletonList(subscriber));
+        return Collections.singletonList(subscriber);
+      }
+    }
+
     // Physical plan creation from logical plans.
     final List<QueryMetadata> runningQueries = queryEngine.buildPhysicalPlans(
         logicalPlans,
@@ -271,9 +313,129 @@ public class KsqlEngine implements Closeable {
       allLiveQueries.add(queryMetadata);
     }
     engineMetrics.registerQueries(runningQueries);
+    sharingKey.ifPresent(key -> shareTransientQuery(key, runningQueries.get(0)));
     return runningQueries;
   }
 
+  /**
+   * Returns the key under which a transient query may share its streams with identical
+   * transient queries, or nothing if it can't. The LIMIT of the query is left out of the key,
+   * as each query sharing the streams applies its own.
+   *
+   * <p>Only stateless queries that read from the latest offset are shared, as the rows, or
+   * the state built from them, that the shared streams have already read would otherwise be
+   * missing from the results of a query that subscribes later.
+   *
+   * <p>The key includes the definition of each source the query reads, so a query on a source
+   * that has since been dropped and created again differently doesn't share the streams still
+   * reading the old one.
+   */
+  private Optional<String> getTransientQuerySharingKey(
+      final List<PreparedStatement> statementList,
+      final List<LogicalPlanNode> logicalPlans,
+      final KsqlConfig ksqlConfig,
+      final Map<String, Object> overriddenProperties
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_TRANSIENT_QUERY_MULTICAST_CONFIG)
+        || logicalPlans.size() != 1
+        || !(logicalPlans.get(0).getNode() instanceof KsqlBareOutputNode)
+        || !(statementList.get(0).getStatement() instanceof Query)
+        || !isStateless(logicalPlans.get(0).getNode())) {
+      return Optional.empty();
+    }
+
+    final Object offsetReset = ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties)
+        .getKsqlStreamConfigProps()
+        .get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG);
+    if (!"latest".equals(Objects.toString(offsetReset, "latest"))) {
+      return Optional.empty();
+    }
+
+    final Query query = (Query) statementList.get(0).getStatement();
+    final String unlimitedQuery =
+        SqlFormatter.formatSql(new Query(query.getQueryBody(), Optional.empty()));
+    return Optional.of(unlimitedQuery + new TreeMap<>(overriddenProperties)
+        + describeSources(logicalPlans.get(0).getNode()));
+  }
+
+  private static String describeSources(final PlanNode node) {
+    final Map<String, String> sources = new TreeMap<>();
+    collectSources(node, sources);
+    return sources.values().toString();
+  }
+
+  private static void collectSources(final PlanNode node, final Map<String, String> sources) {
+    if (node instanceof StructuredDataSourceNode) {
+      final StructuredDataSource source =
+          ((StructuredDataSourceNode) node).getStructuredDataSource();
+      final TimestampExtractionPolicy timestampPolicy = source.getTimestampExtractionPolicy();
+      sources.put(source.getName(), String.join(" ",
+          source.getName(),
+          source.getKsqlTopic().getKafkaTopicName(),
+          source.getKsqlTopic().getKsqlTopicSerDe().getSerDe().name(),
+          SchemaUtil.getSchemaDefinitionString(source.getSchema()),
+          source.getKeyField() == null ? "" : source.getKeyField().name(),
+          timestampPolicy.getClass().getSimpleName(),
+          Objects.toString(timestampPolicy.timestampField(), "")));
+    }
+    if (node.getSources() != null) {
+      node.getSources().forEach(source -> collectSources(source, sources));
+    }
+  }
+
+  private static boolean isStateless(final PlanNode node) {
+    if (node instanceof JoinNode
+        || node.getNodeOutputType() != DataSource.DataSourceType.KSTREAM) {
+      return false;
+    }
+    if (node.getSources() == null) {
+      return true;
+    }
+    for (final PlanNode source : node.getSources()) {
+      if (!isStateless(source)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private QueryMetadata subscribeToSharedQuery(
+      final String sharingKey,
+      final LogicalPlanNode logicalPlan
+  ) {
+    final SharedTransientQuery sharedQuery;
+    synchronized (sharedTransientQueries) {
+      sharedQuery = sharedTransientQueries.get(sharingKey);
+    }
+    if (sharedQuery == null) {
+      return null;
+    }
+
+    final QueryMetadata subscriber = sharedQuery.subscribe(
+        logicalPlan.getStatementText(), (OutputNode) logicalPlan.getNode());
+    if (subscriber != null) {
+      log.info("Transient query {} shares the streams of an identical running query: {}",
+          subscriber.getQueryApplicationId(), logicalPlan.getStatementText());
+    }
+    return subscriber;
+  }
+
+  private void shareTransientQuery(final String sharingKey, final QueryMetadata queryMetadata) {
+    synchronized (sharedTransientQueries) {
+      if (sharedTransientQueries.containsKey(sharingKey)) {
+        return;
+      }
+      sharedTransientQueries.put(sharingKey, new SharedTransientQuery(
+          (QueuedQueryMetadata) queryMetadata,
+          topicClient,
+          closed -> {
+            synchronized (sharedTransientQueries) {
+              sharedTransientQueries.remove(sharingKey, closed);
+            }
+          }));
+    }
+  }
+
   public QueryMetadata getQueryExecutionPlan(final Query query, final KsqlConfig ksqlConfig) {
 
     // Logical plan creation from the ASTs
@@ -302,9 +464,7 @@ public class KsqlEngine implements Closeable {
     try {
       final MetaStore tempMetaStoreForParser = tempMetaStore.clone();
       // Parse and AST creation
-      final KsqlParser ksqlParser = new KsqlParser();
-
-      final List<PreparedStatement> statements = ksqlParser.buildAst(
+      final List<PreparedStatement> statements = parser.buildAst(
           queriesString,
           tempMetaStoreForParser,
           stmt -> buildSingleQueryAst(
@@ -506,7 +666,15 @@ public class KsqlEngine implements Closeable {
   }
 
   public List<PreparedStatement> getStatements(final String sqlString) {
-    return new KsqlParser().buildAst(sqlString, metaStore);
+    return parser.buildAst(sqlString, metaStore);
+  }
+
+  /**
+   * Populates the parser's shared DFA cache, so that the first statements parsed after startup
+   * aren't slower than the rest.
+   */
+  public void warmUpParser() {
+    parser.warmUp();
   }
 
   public Query addInto(final Query query, final QuerySpecification querySpecification,
@@ -605,6 +773,9 @@ public class KsqlEngine implements Closeable {
     for (final QueryMetadata queryMetadata : allLiveQueries) {
       queryMetadata.close();
     }
+    if (sharedProducerClientSupplier != null) {
+      sharedProducerClientSupplier.close();
+    }
     adminClient.close();
     engineMetrics.close();
     aggregateMetricsCollector.shutdown();
@@ -37,7 +37,9 @@ import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.parser.tree.SubscriptExpression;
 import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.ExpressionTypeManager;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -45,9 +47,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class CodeGenRunner {
@@ -59,6 +63,8 @@ public class CodeGenRunner {
       "java.util.List",
       "java.util.ArrayList");
 
+  private static final String ROW_MAPPER_CLASS_NAME = "GeneratedRowMapper";
+
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
   private final ExpressionTypeManager expressionTypeManager;
@@ -118,6 +124,205 @@ public class CodeGenRunner {
     return new ExpressionMetadata(ee, columnIndexes, kudfObjects, expressionType);
   }
 
+  /**
+   * Compile all the expressions of a projection into a single generated class.
+   *
+   * <p>The generated mapper reads each input column referenced by any of the expressions once per
+   * row, and evaluates each expression inline, without reflection or per column argument arrays.
+   *
+   * @param expressionPairList the output column names and the expressions that compute them.
+   * @return the compiled row mapper.
+   */
+  public CompiledRowMapper buildRowMapper(
+      final List<Pair<String, Expression>> expressionPairList
+  ) throws Exception {
+    return generateRowMapper(Optional.empty(), expressionPairList);
+  }
+
+  /**
+   * Compile a filter, and the projection applied to the rows that pass it, into a single
+   * generated class.
+   *
+   * <p>The generated mapper evaluates the filter first, reading only the columns it references.
+   * The remaining columns are only read, and the projection only evaluated, for rows that pass.
+   * Rows for which the filter is false, null or fails to evaluate are rejected.
+   *
+   * @param filterExpression the filter, which must be of boolean type.
+   * @param expressionPairList the output column names and the expressions that compute them.
+   * @return the compiled row mapper.
+   */
+  public CompiledRowMapper buildFilteredRowMapper(
+      final Expression filterExpression,
+      final List<Pair<String, Expression>> expressionPairList
+  ) throws Exception {
+    return generateRowMapper(
+        Optional.of(Objects.requireNonNull(filterExpression, "filterExpression")),
+        expressionPairList);
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private CompiledRowMapper generateRowMapper(
+      final Optional<Expression> filterExpression,
+      final List<Pair<String, Expression>> expressionPairList
+  ) throws Exception {
+    final Set<String> readColumns = new HashSet<>();
+    final List<Kudf> udfs = new ArrayList<>();
+    final StringBuilder body = new StringBuilder();
+    final SqlToJavaVisitor sqlToJavaVisitor = new SqlToJavaVisitor(schema, functionRegistry);
+    final String indent = "    ";
+
+    if (filterExpression.isPresent()) {
+      final Expression expression = filterExpression.get();
+      final StringBuilder block = new StringBuilder("  {\n");
+      final List<String> referencedColumns =
+          appendParameters(expression, body, block, readColumns, udfs);
+
+      block.append(indent);
+      for (final String column : referencedColumns) {
+        block.append("if (").append(column).append("_error != null) {\n")
+            .append(indent).append("  onFilterError(").append(column).append("_error);\n")
+            .append(indent).append("  return false;\n")
+            .append(indent).append("}\n")
+            .append(indent);
+      }
+
+      final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
+      block.append("try {\n")
+          .append(indent).append("  final ")
+          .append(SchemaUtil.getJavaType(expressionType).getCanonicalName())
+          .append(" passed = ").append(sqlToJavaVisitor.process(expression)).append(";\n")
+          .append(indent).append("  if (passed == null || !passed) {\n")
+          .append(indent).append("    return false;\n")
+          .append(indent).append("  }\n")
+          .append(indent).append("} catch (Exception e) {\n")
+          .append(indent).append("  onFilterError(e);\n")
+          .append(indent).append("  return false;\n")
+          .append(indent).append("}\n")
+          .append("  }\n");
+      body.append(block);
+    }
+
+    for (int i = 0; i < expressionPairList.size(); i++) {
+      final Expression expression = expressionPairList.get(i).getRight();
+
+      // Function instance names are only unique within an expression, so each column is
+      // evaluated in its own block.
+      final StringBuilder block = new StringBuilder("  {\n");
+      final List<String> referencedColumns =
+          appendParameters(expression, body, block, readColumns, udfs);
+
+      block.append(indent);
+      for (final String column : referencedColumns) {
+        block.append("if (").append(column).append("_error != null) {\n")
+            .append(indent).append("  result[").append(i).append("] = null;\n")
+            .append(indent).append("  onColumnError(").append(i).append(", ")
+            .append(column).append("_error);\n")
+            .append(indent).append("} else ");
+      }
+
+      final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
+      block.append("{\n")
+          .append(indent).append("  try {\n")
+          .append(indent).append("    final ")
+          .append(SchemaUtil.getJavaType(expressionType).getCanonicalName())
+          .append(" value = ").append(sqlToJavaVisitor.process(expression)).append(";\n")
+          .append(indent).append("    result[").append(i).append("] = value;\n")
+          .append(indent).append("  } catch (Exception e) {\n")
+          .append(indent).append("    result[").append(i).append("] = null;\n")
+          .append(indent).append("    onColumnError(").append(i).append(", e);\n")
+          .append(indent).append("  }\n")
+          .append(indent).append("}\n")
+          .append("  }\n");
+      body.append(block);
+    }
+
+    final StringBuilder classBody = new StringBuilder()
+        .append("public ").append(ROW_MAPPER_CLASS_NAME).append("(")
+        .append("final Kudf[] udfs, ")
+        .append("final GenericRowValueTypeEnforcer typeEnforcer, ")
+        .append("final List columnNames) {\n")
+        .append("  super(udfs, typeEnforcer, columnNames);\n")
+        .append("}\n\n")
+        .append("public boolean map(final List columns, final Object[] result) {\n")
+        .append(body)
+        .append("  return true;\n")
+        .append("}\n");
+
+    final IClassBodyEvaluator cbe =
+        CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+    cbe.setClassName(ROW_MAPPER_CLASS_NAME);
+    cbe.setExtendedClass(CompiledRowMapper.class);
+    cbe.setDefaultImports(ImmutableList.<String>builder()
+        .addAll(CODEGEN_IMPORTS)
+        .add(Kudf.class.getName())
+        .add(GenericRowValueTypeEnforcer.class.getName())
+        .build()
+        .toArray(new String[0]));
+    cbe.cook(classBody.toString());
+
+    final List<String> columnNames = expressionPairList.stream()
+        .map(Pair::getLeft)
+        .collect(Collectors.toList());
+
+    return (CompiledRowMapper) cbe.getClazz()
+        .getConstructor(Kudf[].class, GenericRowValueTypeEnforcer.class, List.class)
+        .newInstance(
+            udfs.toArray(new Kudf[0]),
+            new GenericRowValueTypeEnforcer(schema),
+            columnNames);
+  }
+
+  /**
+   * Append the code that binds the parameters of an expression: udf instances are bound at the
+   * start of the expression's block, and input columns not yet read by an earlier expression are
+   * read and type enforced in the method body, ahead of the block.
+   *
+   * @return the names of the input columns referenced by the expression.
+   */
+  private List<String> appendParameters(
+      final Expression expression,
+      final StringBuilder body,
+      final StringBuilder block,
+      final Set<String> readColumns,
+      final List<Kudf> udfs
+  ) {
+    final List<String> referencedColumns = new ArrayList<>();
+    for (final ParameterType param : getParameterInfo(expression)) {
+      final int columnIndex = SchemaUtil.getFieldIndexByName(schema, param.name);
+      if (columnIndex < 0) {
+        block.append("    final Kudf ").append(param.name)
+            .append(" = udfs[").append(udfs.size()).append("];\n");
+        udfs.add(param.getKudf());
+        continue;
+      }
+
+      referencedColumns.add(param.name);
+      if (!readColumns.add(param.name)) {
+        continue;
+      }
+
+      // Values that already have the column's type, as the deserializers produce, are used as
+      // is, so only values of other types go through the type enforcer.
+      final String javaType =
+          SchemaUtil.getJavaType(schema.fields().get(columnIndex).schema()).getCanonicalName();
+      body.append("  ").append(javaType).append(' ').append(param.name).append(" = null;\n")
+          .append("  Exception ").append(param.name).append("_error = null;\n")
+          .append("  try {\n")
+          .append("    final Object ").append(param.name).append("_value = columns.get(")
+          .append(columnIndex).append(");\n")
+          .append("    ").append(param.name).append(" = ")
+          .append(param.name).append("_value == null || ")
+          .append(param.name).append("_value instanceof ").append(javaType).append('\n')
+          .append("        ? (").append(javaType).append(") ").append(param.name).append("_value\n")
+          .append("        : (").append(javaType).append(") typeEnforcer.enforceFieldType(")
+          .append(columnIndex).append(", ").append(param.name).append("_value);\n")
+          .append("  } catch (Exception e) {\n")
+          .append("    ").append(param.name).append("_error = e;\n")
+          .append("  }\n");
+    }
+    return referencedColumns;
+  }
+
   private static final class Visitor extends AstVisitor<Object, Object> {
 
     private final Schema schema;
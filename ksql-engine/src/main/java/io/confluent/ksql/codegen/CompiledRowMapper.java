@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class of the row mappers generated by {@link CodeGenRunner#buildRowMapper(List)} and
+ * {@link CodeGenRunner#buildFilteredRowMapper}.
+ *
+ * <p>A generated subclass evaluates every column of a projection in a single call: each input
+ * column referenced by the projection is read and type enforced once, and each output column is
+ * written directly into the supplied array. A column whose evaluation fails is set to null.
+ *
+ * <p>A mapper built with a filter evaluates it before the projection, and rejects the row without
+ * evaluating any output column if it does not pass.
+ */
+public abstract class CompiledRowMapper {
+
+  private static final Logger log = LoggerFactory.getLogger(CompiledRowMapper.class);
+
+  protected final Kudf[] udfs;
+  protected final GenericRowValueTypeEnforcer typeEnforcer;
+  private final List<String> columnNames;
+
+  protected CompiledRowMapper(
+      final Kudf[] udfs,
+      final GenericRowValueTypeEnforcer typeEnforcer,
+      final List<String> columnNames
+  ) {
+    this.udfs = Objects.requireNonNull(udfs, "udfs");
+    this.typeEnforcer = Objects.requireNonNull(typeEnforcer, "typeEnforcer");
+    this.columnNames = ImmutableList.copyOf(columnNames);
+  }
+
+  /**
+   * Evaluate the filter, if any, and then all columns of the projection.
+   *
+   * @param columns the columns of the input row.
+   * @param result the array to write the output columns to, of length {@link #getColumnCount()}.
+   * @return {@code false} if the row was rejected by the filter, in which case {@code result} is
+   *     left untouched, otherwise {@code true}.
+   */
+  public abstract boolean map(List<Object> columns, Object[] result);
+
+  public int getColumnCount() {
+    return columnNames.size();
+  }
+
+  protected void onColumnError(final int index, final Exception e) {
+    log.error("Error calculating column with index {} : {}", index, columnNames.get(index), e);
+  }
+
+  protected void onFilterError(final Exception e) {
+    log.error(e.getMessage(), e);
+  }
+}
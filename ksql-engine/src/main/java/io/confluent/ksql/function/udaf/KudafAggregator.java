@@ -23,44 +23,82 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class KudafAggregator implements UdafAggregator {
 
-  private Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap;
-  private Map<Integer, Integer> aggValToValColumnMap;
+  private final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap;
+  private final Map<Integer, Integer> aggValToValColumnMap;
+
+  // The maps above, flattened so that apply doesn't box an index or allocate an iterator:
+  private final int[] nonAggColumnIndexes;
+  private final int[] nonAggValueIndexes;
+  private final int[] aggColumnIndexes;
+  private final int[] aggArgIndexes;
+  private final KsqlAggregateFunction[] aggFunctions;
 
   public KudafAggregator(
       final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap) {
     this.aggValToAggFunctionMap = aggValToAggFunctionMap;
     this.aggValToValColumnMap = aggValToValColumnMap;
+
+    this.nonAggColumnIndexes = new int[aggValToValColumnMap.size()];
+    this.nonAggValueIndexes = new int[aggValToValColumnMap.size()];
+    int nonAggIndex = 0;
+    for (final Map.Entry<Integer, Integer> entry : aggValToValColumnMap.entrySet()) {
+      nonAggColumnIndexes[nonAggIndex] = entry.getKey();
+      nonAggValueIndexes[nonAggIndex] = entry.getValue();
+      nonAggIndex++;
+    }
+
+    this.aggColumnIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggArgIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggFunctions = new KsqlAggregateFunction[aggValToAggFunctionMap.size()];
+    int aggIndex = 0;
+    for (final Map.Entry<Integer, KsqlAggregateFunction> entry
+        : aggValToAggFunctionMap.entrySet()) {
+      aggColumnIndexes[aggIndex] = entry.getKey();
+      aggArgIndexes[aggIndex] = entry.getValue().getArgIndexInValue();
+      aggFunctions[aggIndex] = entry.getValue();
+      aggIndex++;
+    }
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
+  public GenericRow apply(
+      final Object key,
+      final GenericRow rowValue,
+      final GenericRow aggRowValue
+  ) {
+    final List<Object> columns = rowValue.getColumns();
+    final List<Object> aggColumns = aggRowValue.getColumns();
+
     // copy over group-by and aggregate parameter columns into the output row
-    aggValToValColumnMap.forEach(
-        (key, value) ->
-            aggRowValue.getColumns().set(key, rowValue.getColumns().get(value)));
+    for (int i = 0; i < nonAggColumnIndexes.length; i++) {
+      aggColumns.set(nonAggColumnIndexes[i], columns.get(nonAggValueIndexes[i]));
+    }
 
     // compute the aggregation and write it into the output row. Its assumed that
     // the columns written by this statement do not overlap with those written by
     // the above statement.
-    aggValToAggFunctionMap.forEach((key, value) ->
-        aggRowValue.getColumns().set(
-            key,
-            value.aggregate(
-                rowValue.getColumns().get(value.getArgIndexInValue()),
-                aggRowValue.getColumns().get(key))));
+    for (int i = 0; i < aggColumnIndexes.length; i++) {
+      final int aggColumnIndex = aggColumnIndexes[i];
+      aggColumns.set(
+          aggColumnIndex,
+          aggFunctions[i].aggregate(
+              columns.get(aggArgIndexes[i]),
+              aggColumns.get(aggColumnIndex)));
+    }
 
     return aggRowValue;
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public Merger<String, GenericRow> getMerger() {
+  public Merger<Object, GenericRow> getMerger() {
     return (key, aggRowOne, aggRowTwo) -> {
       final List<Object> columns = Stream.generate(String::new).limit(aggRowOne.getColumns().size())
           .collect(Collectors.toList());
@@ -78,7 +116,7 @@ public class KudafAggregator implements UdafAggregator {
 
       aggValToAggFunctionMap.forEach((functionIndex, ksqlAggregateFunction) ->
           mergedRow.getColumns().set(functionIndex, ksqlAggregateFunction.getMerger()
-          .apply(key,
+          .apply(key.toString(),
               aggRowOne.getColumns().get(functionIndex),
               aggRowTwo.getColumns().get(functionIndex))));
 
@@ -86,4 +124,29 @@ public class KudafAggregator implements UdafAggregator {
     };
   }
 
+  /**
+   * Returns an aggregator that folds partial aggregates, as built by this aggregator, rather than
+   * input rows into the aggregate row.
+   */
+  @SuppressWarnings("unchecked")
+  public Aggregator<Object, GenericRow, GenericRow> getPartialAggregateMerger() {
+    return (key, partialRowValue, aggRowValue) -> {
+      final List<Object> partialColumns = partialRowValue.getColumns();
+      final List<Object> aggColumns = aggRowValue.getColumns();
+
+      for (final int columnIndex : nonAggColumnIndexes) {
+        aggColumns.set(columnIndex, partialColumns.get(columnIndex));
+      }
+
+      final String aggKey = key.toString();
+      for (int i = 0; i < aggColumnIndexes.length; i++) {
+        final int aggColumnIndex = aggColumnIndexes[i];
+        aggColumns.set(aggColumnIndex, aggFunctions[i].getMerger()
+            .apply(aggKey, aggColumns.get(aggColumnIndex), partialColumns.get(aggColumnIndex)));
+      }
+
+      return aggRowValue;
+    };
+  }
+
 }
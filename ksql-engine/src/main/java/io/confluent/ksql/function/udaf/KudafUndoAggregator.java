@@ -24,7 +24,7 @@ import java.util.Map;
 import java.util.Objects;
 import org.apache.kafka.streams.kstream.Aggregator;
 
-public class KudafUndoAggregator implements Aggregator<String, GenericRow, GenericRow> {
+public class KudafUndoAggregator implements Aggregator<Object, GenericRow, GenericRow> {
   private Map<Integer, TableAggregationFunction> aggValToAggFunctionMap;
   private Map<Integer, Integer> aggValToValColumnMap;
 
@@ -40,7 +40,11 @@ public class KudafUndoAggregator implements Aggregator<String, GenericRow, Gener
 
   @SuppressWarnings("unchecked")
   @Override
-  public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
+  public GenericRow apply(
+      final Object key,
+      final GenericRow rowValue,
+      final GenericRow aggRowValue
+  ) {
     aggValToValColumnMap.forEach(
         (aggRowIndex, rowIndex) ->
             aggRowValue.getColumns().set(aggRowIndex, rowValue.getColumns().get(rowIndex)));
@@ -37,12 +37,12 @@ public class IntegerMaxKudaf extends BaseAggregateFunction<Integer, Integer> {
     if (currentValue == null) {
       return aggregateValue;
     }
-    return Math.max(currentValue, aggregateValue);
+    return currentValue > aggregateValue ? currentValue : aggregateValue;
   }
 
   @Override
   public Merger<String, Integer> getMerger() {
-    return (aggKey, aggOne, aggTwo) -> Math.max(aggOne, aggTwo);
+    return (aggKey, aggOne, aggTwo) -> aggOne > aggTwo ? aggOne : aggTwo;
   }
 
   @Override
@@ -20,6 +20,7 @@ import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
@@ -72,13 +73,21 @@ public class TopkKudaf<T extends Comparable<? super T>>
       }
     }
 
+    // The aggregate is always sorted in descending order, so find where the new value goes:
+    final int index = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    final int insertAt = index < 0 ? -index - 1 : index;
+
     if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      // Shift the smaller values down, dropping the last, without resizing the list:
+      for (int i = currentSize - 1; i > insertAt; --i) {
+        aggregateValue.set(i, aggregateValue.get(i - 1));
+      }
+      aggregateValue.set(insertAt, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(insertAt, currentValue);
     }
 
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
@@ -67,17 +67,24 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    if (aggregateValue.contains(currentValue)) {
+    // The aggregate is always sorted in descending order, so find where the new value goes:
+    final int index = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    if (index >= 0) {
       return aggregateValue;
     }
+    final int insertAt = -index - 1;
 
     if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      // Shift the smaller values down, dropping the last, without resizing the list:
+      for (int i = currentSize - 1; i > insertAt; --i) {
+        aggregateValue.set(i, aggregateValue.get(i - 1));
+      }
+      aggregateValue.set(insertAt, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(insertAt, currentValue);
     }
 
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
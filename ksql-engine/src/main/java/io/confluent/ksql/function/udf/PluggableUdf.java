@@ -39,11 +39,6 @@ public class PluggableUdf implements Kudf {
 
   @Override
   public Object evaluate(final Object... args) {
-    try {
-      ExtensionSecurityManager.INSTANCE.pushInUdf();
-      return udf.eval(actualUdf, args);
-    } finally {
-      ExtensionSecurityManager.INSTANCE.popOutUdf();
-    }
+    return ExtensionSecurityManager.INSTANCE.invokeUdf(udf, actualUdf, args);
   }
 }
@@ -16,6 +16,8 @@
 
 package io.confluent.ksql.function.udf.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
@@ -30,9 +32,19 @@ import java.io.IOException;
 import java.util.List;
 
 public class JsonExtractStringKudf implements Kudf {
-  private static final ObjectReader OBJECT_READER = new ObjectMapper().reader();
+  // Streaming finds the first of a duplicated field, while a tree keeps the last, so duplicates
+  // are rejected to have every call on a document agree:
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+  private static final ObjectReader OBJECT_READER = OBJECT_MAPPER.reader();
   public static final String NAME = "EXTRACTJSONFIELD";
 
+  // The last document seen on this thread. Every EXTRACTJSONFIELD call on a column of a row is
+  // passed the same String instance, so the first call streams through the document, reading its
+  // path's value on the way, and any further calls share a single parse of the document:
+  private static final ThreadLocal<ParsedDocument> LAST_DOCUMENT =
+      ThreadLocal.withInitial(ParsedDocument::new);
+
   private List<String> tokens = null;
 
   @Override
@@ -45,7 +57,35 @@ public class JsonExtractStringKudf implements Kudf {
       return null;
     }
 
-    JsonNode currentNode = parseJsonDoc(args[0]);
+    final ParsedDocument lastDocument = LAST_DOCUMENT.get();
+    if (lastDocument.json != args[0]) {
+      lastDocument.json = args[0];
+      lastDocument.tree = null;
+      return extractFromStream(args[0]);
+    }
+
+    if (lastDocument.tree == null) {
+      lastDocument.tree = parseJsonDoc(args[0]);
+    }
+    return extractFromTree(lastDocument.tree);
+  }
+
+  private void ensureInitialized(final Object[] args) {
+    if (tokens != null) {
+      return;
+    }
+
+    if (args[1] == null) {
+      throw new KsqlException("Path can not be null");
+    }
+
+    final String path = args[1].toString();
+    final JsonPathTokenizer tokenizer = new JsonPathTokenizer(path);
+    tokens = ImmutableList.copyOf(tokenizer);
+  }
+
+  private String extractFromTree(final JsonNode root) {
+    JsonNode currentNode = root;
     for (final String token : tokens) {
       if (currentNode instanceof ArrayNode) {
         try {
@@ -54,7 +94,7 @@ public class JsonExtractStringKudf implements Kudf {
         } catch (final NumberFormatException e) {
           return null;
         }
-      } else {
+      } else if (currentNode != null) {
         currentNode = currentNode.get(token);
       }
 
@@ -63,25 +103,110 @@ public class JsonExtractStringKudf implements Kudf {
       }
     }
 
-    if (currentNode.isTextual()) {
+    if (currentNode == null) {
+      return null;
+    } else if (currentNode.isTextual()) {
       return currentNode.asText();
     } else {
       return currentNode.toString();
     }
   }
 
-  private void ensureInitialized(final Object[] args) {
-    if (tokens != null) {
-      return;
+  private String extractFromStream(final Object arg) {
+    final String jsonString = arg.toString();
+    try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(jsonString)) {
+      final String value = extractFromStream(parser);
+      skipToEndOfDocument(parser);
+      return value;
+    } catch (final IOException e) {
+      throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
+  }
 
-    if (args[1] == null) {
-      throw new KsqlException("Path can not be null");
+  /**
+   * Walks the parser down the path, skipping over the children of anything not on the path,
+   * and returns as soon as the value at the end of the path is read.
+   */
+  private String extractFromStream(final JsonParser parser) throws IOException {
+    JsonToken currentToken = parser.nextToken();
+    for (final String token : tokens) {
+      if (currentToken == JsonToken.START_ARRAY) {
+        final int index;
+        try {
+          index = Integer.parseInt(token);
+        } catch (final NumberFormatException e) {
+          return null;
+        }
+        currentToken = skipToElement(parser, index);
+      } else if (currentToken == JsonToken.START_OBJECT) {
+        currentToken = skipToField(parser, token);
+      } else {
+        return null;
+      }
+
+      if (currentToken == null) {
+        return null;
+      }
     }
 
-    final String path = args[1].toString();
-    final JsonPathTokenizer tokenizer = new JsonPathTokenizer(path);
-    tokens = ImmutableList.copyOf(tokenizer);
+    if (currentToken == null) {
+      return null;
+    } else if (currentToken == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    } else if (currentToken == JsonToken.VALUE_NULL) {
+      return "null";
+    } else {
+      final JsonNode node = OBJECT_MAPPER.readTree(parser);
+      return node.toString();
+    }
+  }
+
+  /**
+   * Reads the rest of the document, so that a malformed document, or one with a duplicated field,
+   * fails here just as it fails {@link #parseJsonDoc} for any further call sharing it.
+   */
+  private static void skipToEndOfDocument(final JsonParser parser) throws IOException {
+    parser.skipChildren();
+    while (!parser.getParsingContext().inRoot()) {
+      if (parser.nextToken() == null) {
+        return;
+      }
+      parser.skipChildren();
+    }
+  }
+
+  private static JsonToken skipToElement(
+      final JsonParser parser,
+      final int index
+  ) throws IOException {
+    if (index < 0) {
+      return null;
+    }
+    for (int i = 0; ; i++) {
+      final JsonToken element = parser.nextToken();
+      if (element == null || element == JsonToken.END_ARRAY) {
+        return null;
+      }
+      if (i == index) {
+        return element;
+      }
+      parser.skipChildren();
+    }
+  }
+
+  private static JsonToken skipToField(
+      final JsonParser parser,
+      final String fieldName
+  ) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final boolean found = fieldName.equals(parser.getCurrentName());
+      final JsonToken value = parser.nextToken();
+      if (found) {
+        return value;
+      }
+      parser.skipChildren();
+    }
+    return null;
   }
 
   private static JsonNode parseJsonDoc(final Object arg) {
@@ -92,4 +217,9 @@ public class JsonExtractStringKudf implements Kudf {
       throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
   }
+
+  private static final class ParsedDocument {
+    private Object json;
+    private JsonNode tree;
+  }
 }
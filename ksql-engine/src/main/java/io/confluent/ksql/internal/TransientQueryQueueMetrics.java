@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.internal;
+
+import io.confluent.ksql.structured.QueuedSchemaKStream;
+import java.util.Collections;
+import java.util.Objects;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * Reports how many result rows a transient query has queued for its clients, and how many it
+ * has dropped because a client wasn't keeping up.
+ */
+public class TransientQueryQueueMetrics {
+  private static final String METRIC_GROUP_NAME = "ksql-queries";
+
+  private final Metrics metrics;
+  private final MetricName queueDepthName;
+  private final MetricName droppedRowsName;
+
+  public TransientQueryQueueMetrics(
+      final Metrics metrics,
+      final QueuedSchemaKStream resultStream,
+      final String queryApplicationId) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics cannot be null.");
+    Objects.requireNonNull(resultStream, "resultStream cannot be null.");
+
+    this.queueDepthName = metrics.metricName(
+        "transient-query-queue-depth",
+        METRIC_GROUP_NAME,
+        "The number of result rows waiting to be written to the clients of the given query.",
+        Collections.singletonMap("query-id", queryApplicationId));
+    this.droppedRowsName = metrics.metricName(
+        "transient-query-dropped-rows",
+        METRIC_GROUP_NAME,
+        "The total number of result rows of the given query dropped because its queue was full.",
+        Collections.singletonMap("query-id", queryApplicationId));
+
+    metrics.addMetric(
+        queueDepthName, (Measurable) (config, now) -> resultStream.getQueuedRowCount());
+    metrics.addMetric(
+        droppedRowsName, (Measurable) (config, now) -> resultStream.getDroppedRowCount());
+  }
+
+  public void close() {
+    metrics.removeMetric(queueDepthName);
+    metrics.removeMetric(droppedRowsName);
+  }
+}
@@ -188,7 +188,7 @@ public class PhysicalPlanBuilder {
         streams,
         bareOutputNode,
         schemaKStream.getExecutionPlan(""),
-        schemaKStream.getQueue(),
+        schemaKStream,
         (sourceSchemaKstream instanceof SchemaKTable)
             ? DataSource.DataSourceType.KTABLE : DataSource.DataSourceType.KSTREAM,
         applicationId,
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ **/
+
+package io.confluent.ksql.physical;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client supplier that hands the stream threads of all queries producers from a small, fixed
+ * pool, rather than a new producer per thread.
+ *
+ * <p>Each query still runs in its own {@code KafkaStreams} instance, with its own consumer group
+ * and state, so queries can be started and terminated independently. Only the producers, with
+ * their buffer memory, sender thread and broker connections, are shared. Threads whose producer
+ * configs are equal, ignoring the client id, share a pool of up to {@code poolSize} producers.
+ * Transactional producers, as used for exactly-once processing, are never shared.
+ *
+ * <p>Closing a producer handed out by this supplier has no effect, as Kafka Streams flushes its
+ * records before closing it. The pooled producers are closed when the supplier is.
+ */
+public class SharedProducerClientSupplier implements KafkaClientSupplier, Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(SharedProducerClientSupplier.class);
+
+  private static final String CLIENT_ID_PREFIX = "ksql-shared-producer-";
+
+  private final KafkaClientSupplier delegate;
+  private final int poolSize;
+  private final Map<Map<String, Object>, ProducerPool> pools = new HashMap<>();
+  private int producerCount = 0;
+
+  public SharedProducerClientSupplier(final KafkaClientSupplier delegate, final int poolSize) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate can't be null");
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("poolSize must be at least 1, was: " + poolSize);
+    }
+    this.poolSize = poolSize;
+  }
+
+  @Override
+  public AdminClient getAdminClient(final Map<String, Object> config) {
+    return delegate.getAdminClient(config);
+  }
+
+  @Override
+  public synchronized Producer<byte[], byte[]> getProducer(final Map<String, Object> config) {
+    if (config.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG) != null) {
+      return delegate.getProducer(config);
+    }
+
+    final Map<String, Object> sharedConfig = new HashMap<>(config);
+    sharedConfig.remove(ProducerConfig.CLIENT_ID_CONFIG);
+    return pools.computeIfAbsent(sharedConfig, ProducerPool::new).next();
+  }
+
+  @Override
+  public Consumer<byte[], byte[]> getConsumer(final Map<String, Object> config) {
+    return delegate.getConsumer(config);
+  }
+
+  @Override
+  public Consumer<byte[], byte[]> getRestoreConsumer(final Map<String, Object> config) {
+    return delegate.getRestoreConsumer(config);
+  }
+
+  @Override
+  public Consumer<byte[], byte[]> getGlobalConsumer(final Map<String, Object> config) {
+    return delegate.getGlobalConsumer(config);
+  }
+
+  /**
+   * Close all pooled producers. Must only be called once no query is using them.
+   */
+  @Override
+  public synchronized void close() {
+    for (final ProducerPool pool : pools.values()) {
+      for (final SharedProducer producer : pool.producers) {
+        try {
+          producer.delegate.close();
+        } catch (final Exception e) {
+          log.warn("Failed to close shared producer", e);
+        }
+      }
+    }
+    pools.clear();
+  }
+
+  private final class ProducerPool {
+
+    private final Map<String, Object> config;
+    private final List<SharedProducer> producers = new ArrayList<>();
+    private int next = 0;
+
+    private ProducerPool(final Map<String, Object> config) {
+      this.config = config;
+    }
+
+    private SharedProducer next() {
+      if (producers.size() < poolSize) {
+        final Map<String, Object> producerConfig = new HashMap<>(config);
+        producerConfig.put(ProducerConfig.CLIENT_ID_CONFIG, CLIENT_ID_PREFIX + producerCount++);
+        producers.add(new SharedProducer(delegate.getProducer(producerConfig)));
+      }
+      final SharedProducer producer = producers.get(next);
+      next = (next + 1) % poolSize;
+      return producer;
+    }
+  }
+
+  private static final class SharedProducer implements Producer<byte[], byte[]> {
+
+    private final Producer<byte[], byte[]> delegate;
+
+    private SharedProducer(final Producer<byte[], byte[]> delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void initTransactions() {
+      throw new UnsupportedOperationException("Shared producers are not transactional");
+    }
+
+    @Override
+    public void beginTransaction() {
+      throw new UnsupportedOperationException("Shared producers are not transactional");
+    }
+
+    @Override
+    public void sendOffsetsToTransaction(
+        final Map<TopicPartition, OffsetAndMetadata> offsets,
+        final String consumerGroupId
+    ) {
+      throw new UnsupportedOperationException("Shared producers are not transactional");
+    }
+
+    @Override
+    public void commitTransaction() {
+      throw new UnsupportedOperationException("Shared producers are not transactional");
+    }
+
+    @Override
+    public void abortTransaction() {
+      throw new UnsupportedOperationException("Shared producers are not transactional");
+    }
+
+    @Override
+    public Future<RecordMetadata> send(final ProducerRecord<byte[], byte[]> record) {
+      return delegate.send(record);
+    }
+
+    @Override
+    public Future<RecordMetadata> send(
+        final ProducerRecord<byte[], byte[]> record,
+        final Callback callback
+    ) {
+      return delegate.send(record, callback);
+    }
+
+    @Override
+    public void flush() {
+      delegate.flush();
+    }
+
+    @Override
+    public List<PartitionInfo> partitionsFor(final String topic) {
+      return delegate.partitionsFor(topic);
+    }
+
+    @Override
+    public Map<MetricName, ? extends Metric> metrics() {
+      return delegate.metrics();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void close(final long timeout, final TimeUnit unit) {
+    }
+  }
+}
@@ -24,7 +24,10 @@ import io.confluent.ksql.metastore.KsqlStdOut;
 import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.StructuredDataSource;
+import io.confluent.ksql.parser.DefaultTraversalVisitor;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.AggregateNode;
 import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
@@ -40,7 +43,13 @@ import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 
@@ -200,9 +209,87 @@ public class LogicalPlanner {
     );
 
     if (dataSource.left instanceof KsqlStream || dataSource.left instanceof KsqlTable) {
-      return new StructuredDataSourceNode(new PlanNodeId("KsqlTopic"), dataSource.left, fromSchema);
+      return new StructuredDataSourceNode(
+          new PlanNodeId("KsqlTopic"),
+          dataSource.left,
+          fromSchema,
+          getRequiredColumns(dataSource.left, fromSchema));
     }
     throw new RuntimeException("Data source is not supported yet.");
   }
 
+  /**
+   * Returns the names, without alias, of the source columns that the query reads, so that the
+   * source deserializer can skip decoding all other columns.
+   */
+  private Set<String> getRequiredColumns(
+      final StructuredDataSource dataSource,
+      final Schema fromSchema) {
+    final RequiredColumnCollector collector = new RequiredColumnCollector(fromSchema);
+    analysis.getSelectExpressions().forEach(expression -> collector.process(expression, null));
+    Stream.of(analysis.getWhereExpression(), analysis.getHavingExpression())
+        .filter(Objects::nonNull)
+        .forEach(expression -> collector.process(expression, null));
+    if (analysis.getGroupByExpressions() != null) {
+      analysis.getGroupByExpressions().forEach(expression -> collector.process(expression, null));
+    }
+    if (collector.hasUnresolvedReference) {
+      return SchemaUtil.getFieldNamesWithNoAlias(fromSchema);
+    }
+
+    final Set<String> requiredColumns = collector.columns;
+    if (dataSource.getKeyField() != null) {
+      requiredColumns.add(dataSource.getKeyField().name());
+    }
+    final String timestampField = dataSource.getTimestampExtractionPolicy().timestampField();
+    if (timestampField != null) {
+      requiredColumns.add(timestampField.substring(timestampField.indexOf('.') + 1));
+    }
+    return requiredColumns;
+  }
+
+  private static final class RequiredColumnCollector
+      extends DefaultTraversalVisitor<Object, Object> {
+
+    private final Schema schema;
+    private final Set<String> columns = new HashSet<>();
+    private boolean hasUnresolvedReference = false;
+
+    private RequiredColumnCollector(final Schema schema) {
+      this.schema = schema;
+    }
+
+    @Override
+    protected Object visitDereferenceExpression(
+        final DereferenceExpression node,
+        final Object context) {
+      addColumn(node.toString());
+      return null;
+    }
+
+    @Override
+    protected Object visitQualifiedNameReference(
+        final QualifiedNameReference node,
+        final Object context) {
+      addColumn(node.getName().getSuffix());
+      return null;
+    }
+
+    private void addColumn(final String name) {
+      final Optional<Field> field = SchemaUtil.getFieldByName(schema, name);
+      if (field.isPresent()) {
+        columns.add(SchemaUtil.getFieldNameWithNoAlias(field.get()));
+        return;
+      }
+      final Optional<Field> unaliasedField = schema.fields().stream()
+          .filter(f -> SchemaUtil.getFieldNameWithNoAlias(f).equals(name))
+          .findFirst();
+      if (unaliasedField.isPresent()) {
+        columns.add(name);
+      } else {
+        hasUnresolvedReference = true;
+      }
+    }
+  }
+
 }
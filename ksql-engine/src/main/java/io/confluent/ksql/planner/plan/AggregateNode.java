@@ -24,6 +24,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.function.udaf.KudafInitializer;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.FunctionCall;
@@ -207,9 +208,6 @@ public class AggregateNode extends PlanNode {
     final List<Expression> internalGroupByColumns = internalSchema.getInternalExpressionList(
         getGroupByExpressions());
 
-    final SchemaKGroupedStream schemaKGroupedStream =
-        aggregateArgExpanded.groupBy(Serdes.String(), genericRowSerde, internalGroupByColumns);
-
     // Aggregate computations
     final SchemaBuilder aggregateSchema = SchemaBuilder.struct();
     final Map<Integer, Integer> aggValToValColumnMap = createAggregateValueToValueColumnMap(
@@ -232,15 +230,33 @@ public class AggregateNode extends PlanNode {
     );
 
     final KudafInitializer initializer = new KudafInitializer(aggValToValColumnMap.size());
+    final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap = createAggValToFunctionMap(
+        aggregateArgExpanded,
+        aggregateSchema,
+        initializer,
+        aggValToValColumnMap.size(),
+        functionRegistry,
+        internalSchema);
+
+    final SchemaKGroupedStream schemaKGroupedStream;
+    if (getWindowExpression() == null
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG)) {
+      schemaKGroupedStream = aggregateArgExpanded.groupByWithPartialAggregates(
+          builder,
+          Serdes.String(),
+          genericRowSerde,
+          internalGroupByColumns,
+          initializer,
+          new KudafAggregator(aggValToFunctionMap, aggValToValColumnMap),
+          aggValueGenericRowSerde);
+    } else {
+      schemaKGroupedStream =
+          aggregateArgExpanded.groupBy(Serdes.String(), genericRowSerde, internalGroupByColumns);
+    }
+
     final SchemaKTable schemaKTable = schemaKGroupedStream.aggregate(
         initializer,
-        createAggValToFunctionMap(
-            aggregateArgExpanded,
-            aggregateSchema,
-            initializer,
-            aggValToValColumnMap.size(),
-            functionRegistry,
-            internalSchema),
+        aggValToFunctionMap,
         aggValToValColumnMap,
         getWindowExpression(),
         aggValueGenericRowSerde);
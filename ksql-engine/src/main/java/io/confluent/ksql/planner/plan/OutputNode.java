@@ -45,6 +45,10 @@ public abstract class OutputNode
     void limitReached();
   }
 
+  public interface QueuedHandler {
+    void rowQueued();
+  }
+
   public interface Callback {
 
     /**
@@ -106,6 +110,14 @@ public abstract class OutputNode
     callback.setLimitHandler(limitHandler);
   }
 
+  /**
+   * @param queuedHandler called each time a row has been queued for output, so that whatever
+   *     consumes the queue can be woken rather than polling it.
+   */
+  public void setQueuedHandler(final QueuedHandler queuedHandler) {
+    callback.setQueuedHandler(queuedHandler);
+  }
+
   @JsonProperty
   public PlanNode getSource() {
     return source;
@@ -129,12 +141,24 @@ public abstract class OutputNode
     return source.getTheSourceNode().getTimestampExtractionPolicy();
   }
 
-  private interface InternalCallback extends Callback {
+  private abstract static class InternalCallback implements Callback {
+
+    private volatile QueuedHandler queuedHandler = () -> {
+    };
+
+    abstract void setLimitHandler(LimitHandler limitHandler);
 
-    void setLimitHandler(LimitHandler limitHandler);
+    void setQueuedHandler(final QueuedHandler queuedHandler) {
+      this.queuedHandler = Objects.requireNonNull(queuedHandler, "queuedHandler");
+    }
+
+    @Override
+    public void onQueued() {
+      queuedHandler.rowQueued();
+    }
   }
 
-  private static final class LimitCallback implements InternalCallback {
+  private static final class LimitCallback extends InternalCallback {
 
     private final AtomicInteger remaining;
     private final AtomicInteger queued;
@@ -150,7 +174,7 @@ public abstract class OutputNode
     }
 
     @Override
-    public void setLimitHandler(final LimitHandler limitHandler) {
+    void setLimitHandler(final LimitHandler limitHandler) {
       this.limitHandler = Objects.requireNonNull(limitHandler, "limitHandler");
     }
 
@@ -161,25 +185,22 @@ public abstract class OutputNode
 
     @Override
     public void onQueued() {
+      super.onQueued();
       if (queued.decrementAndGet() == 0) {
         limitHandler.limitReached();
       }
     }
   }
 
-  private static class NoCallback implements InternalCallback {
+  private static class NoCallback extends InternalCallback {
 
     @Override
-    public void setLimitHandler(final LimitHandler limitHandler) {
+    void setLimitHandler(final LimitHandler limitHandler) {
     }
 
     @Override
     public boolean shouldQueue() {
       return true;
     }
-
-    @Override
-    public void onQueued() {
-    }
   }
 }
@@ -118,6 +118,14 @@ public class ProjectNode
       final FunctionRegistry functionRegistry,
       final Map<String, Object> props,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory) {
+    if (getSource() instanceof FilterNode
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_FUSE_FILTER_PROJECT_CONFIG)) {
+      final FilterNode filterNode = (FilterNode) getSource();
+      return filterNode.getSource().buildStream(builder, ksqlConfig, kafkaTopicClient,
+          functionRegistry, props, schemaRegistryClientFactory)
+          .filterAndSelect(filterNode.getPredicate(), getProjectNameExpressionPairList());
+    }
+
     return getSource().buildStream(builder, ksqlConfig, kafkaTopicClient,
         functionRegistry, props, schemaRegistryClientFactory)
         .select(getProjectNameExpressionPairList());
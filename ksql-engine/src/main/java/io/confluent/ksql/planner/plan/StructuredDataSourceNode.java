@@ -34,10 +34,13 @@ import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import javax.annotation.concurrent.Immutable;
 import org.apache.kafka.clients.admin.TopicDescription;
@@ -84,6 +87,7 @@ public class StructuredDataSourceNode
           = WindowedSerdes.timeWindowedSerdeFrom(String.class);
   private final StructuredDataSource structuredDataSource;
   private final Schema schema;
+  private final Set<String> requiredColumns;
 
 
   // TODO: pass in the "assignments" and the "outputs" separately
@@ -93,12 +97,27 @@ public class StructuredDataSourceNode
       @JsonProperty("id") final PlanNodeId id,
       @JsonProperty("structuredDataSource") final StructuredDataSource structuredDataSource,
       @JsonProperty("schema") final Schema schema
+  ) {
+    this(id, structuredDataSource, schema, SchemaUtil.getFieldNamesWithNoAlias(schema));
+  }
+
+  /**
+   * @param requiredColumns the names, without alias, of the columns the query reads. The source
+   *     deserializer leaves the values of all other columns null.
+   */
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Set<String> requiredColumns
   ) {
     super(id, structuredDataSource.getDataSourceType());
     Objects.requireNonNull(structuredDataSource, "structuredDataSource can't be null");
     Objects.requireNonNull(schema, "schema can't be null");
+    Objects.requireNonNull(requiredColumns, "requiredColumns can't be null");
     this.schema = schema;
     this.structuredDataSource = structuredDataSource;
+    this.requiredColumns = Collections.unmodifiableSet(new HashSet<>(requiredColumns));
   }
 
   public String getTopicName() {
@@ -119,6 +138,10 @@ public class StructuredDataSourceNode
     return structuredDataSource;
   }
 
+  public Set<String> getRequiredColumns() {
+    return requiredColumns;
+  }
+
   @Override
   public int getPartitions(final KafkaTopicClient kafkaTopicClient) {
     final String topicName = getStructuredDataSource().getKsqlTopic().getKafkaTopicName();
@@ -155,10 +178,12 @@ public class StructuredDataSourceNode
 
     final KsqlTopicSerDe ksqlTopicSerDe = getStructuredDataSource()
         .getKsqlTopic().getKsqlTopicSerDe();
-    final Serde<GenericRow> genericRowSerde =
-        ksqlTopicSerDe.getGenericRowSerde(
-            SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema()),
-            ksqlConfig, false, schemaRegistryClientFactory);
+    final Schema valueSchema = SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema());
+    final Serde<GenericRow> genericRowSerde = prunesColumns(valueSchema)
+        ? ksqlTopicSerDe.getGenericRowSerde(
+            valueSchema, ksqlConfig, false, schemaRegistryClientFactory, requiredColumns)
+        : ksqlTopicSerDe.getGenericRowSerde(
+            valueSchema, ksqlConfig, false, schemaRegistryClientFactory);
 
     if (getDataSourceType() == StructuredDataSource.DataSourceType.KTABLE) {
       final KsqlTable table = (KsqlTable) getStructuredDataSource();
@@ -198,6 +223,15 @@ public class StructuredDataSourceNode
     );
   }
 
+  private boolean prunesColumns(final Schema valueSchema) {
+    for (final Field field : valueSchema.fields()) {
+      if (!requiredColumns.contains(field.name())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Topology.AutoOffsetReset getAutoOffsetReset(final Map<String, Object> props) {
     if (props.containsKey(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG)) {
       final String offestReset = props.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG).toString();
@@ -16,7 +16,7 @@
 
 package io.confluent.ksql.security;
 
-import io.confluent.ksql.function.udf.PluggableUdf;
+import io.confluent.ksql.function.UdfInvoker;
 import java.security.AllPermission;
 import java.security.CodeSource;
 import java.security.Permission;
@@ -24,7 +24,6 @@ import java.security.PermissionCollection;
 import java.security.Permissions;
 import java.security.Policy;
 import java.security.ProtectionDomain;
-import java.util.Stack;
 
 /**
  * A simple security manager extension to block UDFs from calling
@@ -34,7 +33,8 @@ public final class ExtensionSecurityManager extends SecurityManager {
 
   public static final ExtensionSecurityManager INSTANCE
       = new ExtensionSecurityManager();
-  private static final ThreadLocal<Stack<Boolean>> UDF_IS_EXECUTING = new ThreadLocal<>();
+  // The number of UDF calls the current thread is nested in, held in a single element array:
+  private static final ThreadLocal<int[]> UDF_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
 
   // so only can be accessed via the INSTANCE
   private ExtensionSecurityManager() {
@@ -60,21 +60,26 @@ public final class ExtensionSecurityManager extends SecurityManager {
     });
   }
 
-  public synchronized void pushInUdf() {
-    if (validateCaller()) {
-      if (UDF_IS_EXECUTING.get() == null) {
-        UDF_IS_EXECUTING.set(new Stack<>());
-      }
-      UDF_IS_EXECUTING.get().push(true);
-    }
-  }
-
-  public void popOutUdf() {
-    if (validateCaller()) {
-      final Stack<Boolean> stack = UDF_IS_EXECUTING.get();
-      if (stack != null && !stack.isEmpty()) {
-        stack.pop();
-      }
+  /**
+   * Invoke a UDF, blocking it from calling System.exit or executing processes.
+   *
+   * <p>The current thread is marked as running a UDF for the duration of the call. As the mark is
+   * only ever removed by the call that added it, a UDF can not leave the sandbox by calling this
+   * method itself. Neither a lock nor a stack walk is needed, so concurrent UDF calls on other
+   * threads do not contend.
+   *
+   * @param invoker the invoker of the UDF
+   * @param udf the UDF instance
+   * @param args the arguments to the UDF
+   * @return the result of the UDF
+   */
+  public Object invokeUdf(final UdfInvoker invoker, final Object udf, final Object... args) {
+    final int[] depth = UDF_DEPTH.get();
+    depth[0]++;
+    try {
+      return invoker.eval(udf, args);
+    } finally {
+      depth[0]--;
     }
   }
 
@@ -96,16 +101,6 @@ public final class ExtensionSecurityManager extends SecurityManager {
 
 
   private boolean inUdfExecution() {
-    final Stack<Boolean> executing = UDF_IS_EXECUTING.get();
-    return executing != null && !executing.isEmpty();
-  }
-
-  /**
-   * Check if the caller is a PluggableUdf. It will be the third
-   * item in the class array.
-   * @return true if caller is allowed
-   */
-  private boolean validateCaller() {
-    return getClassContext()[2].equals(PluggableUdf.class);
+    return UDF_DEPTH.get()[0] > 0;
   }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.UdafAggregator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+/**
+ * Combines the rows of each group into a partial aggregate before they are repartitioned, so
+ * that one row per group, rather than every input row, is written to the repartition topic.
+ *
+ * <p>The partial aggregates are buffered in a key value store backed by a changelog, so rows
+ * whose offsets are committed while their partial aggregate is still buffered are not lost on
+ * failure. The buffer is sent downstream once it holds {@code maxKeys} groups, and every
+ * {@code flushIntervalMs} of wall clock time.
+ *
+ * <p>Each partial aggregate is sent with the latest timestamp of the rows combined into it, not
+ * the time it happens to be flushed, so the timestamps of the aggregate's output don't change.
+ * The timestamps are buffered in a second store, also backed by a changelog, so partial
+ * aggregates restored after a failure keep theirs.
+ */
+final class PartialAggregateTransformer<K>
+    implements Transformer<String, GenericRow, KeyValue<K, GenericRow>> {
+
+  private final String storeName;
+  private final String timestampStoreName;
+  private final KeyValueMapper<String, GenericRow, K> groupByKeyMapper;
+  private final Initializer<GenericRow> initializer;
+  private final UdafAggregator aggregator;
+  private final int maxKeys;
+  private final long flushIntervalMs;
+
+  private ProcessorContext context;
+  private KeyValueStore<K, GenericRow> buffer;
+  private KeyValueStore<K, Long> timestamps;
+  private int bufferedKeys;
+
+  PartialAggregateTransformer(
+      final String storeName,
+      final String timestampStoreName,
+      final KeyValueMapper<String, GenericRow, K> groupByKeyMapper,
+      final Initializer<GenericRow> initializer,
+      final UdafAggregator aggregator,
+      final int maxKeys,
+      final long flushIntervalMs) {
+    this.storeName = Objects.requireNonNull(storeName, "storeName");
+    this.timestampStoreName = Objects.requireNonNull(timestampStoreName, "timestampStoreName");
+    this.groupByKeyMapper = Objects.requireNonNull(groupByKeyMapper, "groupByKeyMapper");
+    this.initializer = Objects.requireNonNull(initializer, "initializer");
+    this.aggregator = Objects.requireNonNull(aggregator, "aggregator");
+    this.maxKeys = maxKeys;
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  @SuppressWarnings({"unchecked", "deprecation"})
+  @Override
+  public void init(final ProcessorContext context) {
+    this.context = context;
+    this.buffer = (KeyValueStore<K, GenericRow>) context.getStateStore(storeName);
+    this.timestamps = (KeyValueStore<K, Long>) context.getStateStore(timestampStoreName);
+
+    // The store may have been restored with partial aggregates that were never sent on:
+    bufferedKeys = 0;
+    try (KeyValueIterator<K, GenericRow> partials = buffer.all()) {
+      while (partials.hasNext()) {
+        partials.next();
+        bufferedKeys++;
+      }
+    }
+
+    context.schedule(flushIntervalMs, PunctuationType.WALL_CLOCK_TIME, timestamp -> flush());
+  }
+
+  @Override
+  public KeyValue<K, GenericRow> transform(final String key, final GenericRow value) {
+    final K groupByKey = groupByKeyMapper.apply(key, value);
+
+    GenericRow partial = buffer.get(groupByKey);
+    long timestamp = context.timestamp();
+    if (partial == null) {
+      partial = initializer.apply();
+      bufferedKeys++;
+    } else {
+      timestamp = Math.max(timestamp, timestamps.get(groupByKey));
+    }
+    buffer.put(groupByKey, aggregator.apply(groupByKey, value, partial));
+    timestamps.put(groupByKey, timestamp);
+
+    if (bufferedKeys >= maxKeys) {
+      flush();
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private void flush() {
+    if (bufferedKeys == 0) {
+      return;
+    }
+
+    final List<K> flushed = new ArrayList<>(bufferedKeys);
+    try (KeyValueIterator<K, GenericRow> partials = buffer.all()) {
+      while (partials.hasNext()) {
+        final KeyValue<K, GenericRow> partial = partials.next();
+        final long timestamp = timestamps.get(partial.key);
+        context.forward(partial.key, partial.value, To.all().withTimestamp(timestamp));
+        flushed.add(partial.key);
+      }
+    }
+    flushed.forEach(key -> {
+      buffer.delete(key);
+      timestamps.delete(key);
+    });
+    bufferedKeys = 0;
+  }
+}
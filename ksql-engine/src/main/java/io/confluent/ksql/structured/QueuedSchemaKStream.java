@@ -19,13 +19,16 @@ package io.confluent.ksql.structured;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.Pair;
+import io.confluent.ksql.util.RingBufferQueue;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -36,8 +39,11 @@ import org.apache.kafka.streams.kstream.Windowed;
 
 public class QueuedSchemaKStream extends SchemaKStream {
 
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
-      new LinkedBlockingQueue<>(100);
+  private final int queueCapacity;
+  private final RingBufferQueue.FullPolicy queueFullPolicy;
+  private final RingBufferQueue<KeyValue<String, GenericRow>> rowQueue;
+  private final List<OutputQueue> outputQueues = new CopyOnWriteArrayList<>();
+  private final AtomicLong rowsDroppedByRemovedQueues = new AtomicLong();
 
   @SuppressWarnings("unchecked") // needs investigating
   QueuedSchemaKStream(final SchemaKStream schemaKStream) {
@@ -52,15 +58,75 @@ public class QueuedSchemaKStream extends SchemaKStream {
         schemaKStream.schemaRegistryClient
     );
 
+    this.queueCapacity =
+        ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG);
+    this.queueFullPolicy = RingBufferQueue.FullPolicy.valueOf(
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_QUEUE_FULL_POLICY_CONFIG));
+    this.rowQueue = new RingBufferQueue<>(queueCapacity, queueFullPolicy);
+
     final OutputNode output = schemaKStream.outputNode();
     setOutputNode(output);
-    kstream.foreach(new QueuedSchemaKStream.QueuePopulator(rowQueue, output.getCallback()));
+    outputQueues.add(new OutputQueue(rowQueue, output.getCallback()));
+    kstream.foreach(new QueuedSchemaKStream.QueuePopulator(outputQueues));
   }
 
   public BlockingQueue<KeyValue<String, GenericRow>> getQueue() {
     return rowQueue;
   }
 
+  /**
+   * Adds a queue that receives every row from now on that the supplied callback lets through,
+   * alongside the queue returned by {@link #getQueue()}.
+   *
+   * @param callback decides whether each row is queued and is told once it has been.
+   * @return the new queue.
+   */
+  public BlockingQueue<KeyValue<String, GenericRow>> addQueue(
+      final OutputNode.Callback callback
+  ) {
+    final RingBufferQueue<KeyValue<String, GenericRow>> queue =
+        new RingBufferQueue<>(queueCapacity, queueFullPolicy);
+    outputQueues.add(new OutputQueue(queue, callback));
+    return queue;
+  }
+
+  /**
+   * Stops queueing rows to a queue, whether it was added by {@link #addQueue} or is the one
+   * returned by {@link #getQueue()}.
+   */
+  public void removeQueue(final BlockingQueue<KeyValue<String, GenericRow>> queue) {
+    for (final OutputQueue outputQueue : outputQueues) {
+      if (outputQueue.queue == queue && outputQueues.remove(outputQueue)) {
+        rowsDroppedByRemovedQueues.addAndGet(outputQueue.queue.getDroppedCount());
+      }
+    }
+    // Free up space for a row the stream thread may be blocked on putting into the queue:
+    queue.clear();
+  }
+
+  /**
+   * @return the number of rows waiting to be read from the queues of this stream.
+   */
+  public long getQueuedRowCount() {
+    long queued = 0;
+    for (final OutputQueue outputQueue : outputQueues) {
+      queued += outputQueue.queue.size();
+    }
+    return queued;
+  }
+
+  /**
+   * @return the number of rows the queues of this stream, including removed queues, have dropped
+   *     because they were full.
+   */
+  public long getDroppedRowCount() {
+    long dropped = rowsDroppedByRemovedQueues.get();
+    for (final OutputQueue outputQueue : outputQueues) {
+      dropped += outputQueue.queue.getDroppedCount();
+    }
+    return dropped;
+  }
+
   @Override
   public SchemaKStream into(
       final String kafkaTopicName,
@@ -122,18 +188,26 @@ public class QueuedSchemaKStream extends SchemaKStream {
     return super.getSourceSchemaKStreams();
   }
 
-  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
-  private static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
-    private final BlockingQueue<KeyValue<String, GenericRow>> queue;
+  private static final class OutputQueue {
+    private final RingBufferQueue<KeyValue<String, GenericRow>> queue;
     private final OutputNode.Callback callback;
 
-    QueuePopulator(
-        final BlockingQueue<KeyValue<String, GenericRow>> queue,
+    OutputQueue(
+        final RingBufferQueue<KeyValue<String, GenericRow>> queue,
         final OutputNode.Callback callback
     ) {
-      this.queue = queue;
+      this.queue = Objects.requireNonNull(queue, "queue");
       this.callback = Objects.requireNonNull(callback, "callback");
     }
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
+    private final List<OutputQueue> outputQueues;
+
+    QueuePopulator(final List<OutputQueue> outputQueues) {
+      this.outputQueues = outputQueues;
+    }
 
     @Override
     public void apply(final K key, final GenericRow row) {
@@ -142,14 +216,21 @@ public class QueuedSchemaKStream extends SchemaKStream {
           return;
         }
 
-        if (!callback.shouldQueue()) {
-          return;
+        // Every queue is handed the same row, which its reader must not modify:
+        KeyValue<String, GenericRow> keyValue = null;
+        for (final OutputQueue outputQueue : outputQueues) {
+          if (!outputQueue.callback.shouldQueue()) {
+            continue;
+          }
+
+          if (keyValue == null) {
+            keyValue = new KeyValue<>(getStringKey(key), row);
+          }
+          // Rows dropped because the queue is full don't count towards a limit:
+          if (outputQueue.queue.enqueue(keyValue)) {
+            outputQueue.callback.onQueued();
+          }
         }
-
-        final String keyString = getStringKey(key);
-        queue.put(new KeyValue<>(keyString, row));
-
-        callback.onQueued();
       } catch (final InterruptedException exception) {
         throw new KsqlException("InterruptedException while enqueueing:" + key);
       }
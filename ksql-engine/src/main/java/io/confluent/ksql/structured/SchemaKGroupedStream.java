@@ -20,16 +20,15 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
-import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -44,27 +43,51 @@ public class SchemaKGroupedStream {
   final Schema schema;
   final KGroupedStream kgroupedStream;
   final Field keyField;
+  final Serde<?> keySerde;
   final List<SchemaKStream> sourceSchemaKStreams;
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   final SchemaRegistryClient schemaRegistryClient;
+  final boolean partialAggregates;
 
   SchemaKGroupedStream(
       final Schema schema,
       final KGroupedStream kgroupedStream,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final SchemaRegistryClient schemaRegistryClient
+  ) {
+    this(schema, kgroupedStream, keyField, keySerde, sourceSchemaKStreams, ksqlConfig,
+        functionRegistry, schemaRegistryClient, false);
+  }
+
+  /**
+   * @param partialAggregates whether the values of the grouped stream are partial aggregates,
+   *                          rather than rows to aggregate.
+   */
+  SchemaKGroupedStream(
+      final Schema schema,
+      final KGroupedStream kgroupedStream,
+      final Field keyField,
+      final Serde<?> keySerde,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final SchemaRegistryClient schemaRegistryClient,
+      final boolean partialAggregates
   ) {
     this.schema = schema;
     this.kgroupedStream = kgroupedStream;
     this.keyField = keyField;
+    this.keySerde = Objects.requireNonNull(keySerde, "keySerde");
     this.sourceSchemaKStreams = sourceSchemaKStreams;
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.functionRegistry = functionRegistry;
     this.schemaRegistryClient = schemaRegistryClient;
+    this.partialAggregates = partialAggregates;
   }
 
   public Field getKeyField() {
@@ -79,25 +102,27 @@ public class SchemaKGroupedStream {
       final WindowExpression windowExpression,
       final Serde<GenericRow> topicValueSerDe) {
     final KTable aggKtable;
-    final UdafAggregator aggregator = new KudafAggregator(
+    final KudafAggregator aggregator = new KudafAggregator(
         aggValToFunctionMap, aggValToValColumnMap);
+    if (partialAggregates && windowExpression != null) {
+      throw new KsqlException("Partial aggregates can not be windowed");
+    }
     if (windowExpression != null) {
-      final Materialized<String, GenericRow, ?> materialized
-          = Materialized.<String, GenericRow, WindowStore<Bytes, byte[]>>with(
-              Serdes.String(), topicValueSerDe);
+      final Materialized<?, GenericRow, WindowStore<Bytes, byte[]>> materialized
+          = Materialized.with(keySerde, topicValueSerDe);
 
       final KsqlWindowExpression ksqlWindowExpression = windowExpression.getKsqlWindowExpression();
       aggKtable = ksqlWindowExpression.applyAggregate(
           kgroupedStream,
           initializer,
           aggregator,
-          materialized
+          (Materialized) materialized
       );
     } else {
       aggKtable = kgroupedStream.aggregate(
           initializer,
-          aggregator,
-          Materialized.with(Serdes.String(), topicValueSerDe)
+          partialAggregates ? aggregator.getPartialAggregateMerger() : aggregator,
+          Materialized.with(keySerde, topicValueSerDe)
       );
     }
     return new SchemaKTable(
@@ -31,7 +31,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Initializer;
@@ -46,12 +45,13 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
       final Schema schema,
       final KGroupedTable kgroupedTable,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final SchemaRegistryClient schemaRegistryClient
   ) {
-    super(schema, null, keyField, sourceSchemaKStreams,
+    super(schema, null, keyField, keySerde, sourceSchemaKStreams,
         ksqlConfig, functionRegistry, schemaRegistryClient);
 
     this.kgroupedTable = Objects.requireNonNull(kgroupedTable, "kgroupedTable");
@@ -96,7 +96,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
         initializer,
         aggregator,
         subtractor,
-        Materialized.with(Serdes.String(), topicValueSerDe));
+        Materialized.with(keySerde, topicValueSerDe));
     return new SchemaKTable(
         schema,
         aggKtable,
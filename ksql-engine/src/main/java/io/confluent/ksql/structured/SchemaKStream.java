@@ -19,44 +19,56 @@ package io.confluent.ksql.structured;
 import com.google.common.collect.ImmutableList;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
 import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.codegen.CompiledRowMapper;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.OutputNode;
-import io.confluent.ksql.util.ExpressionMetadata;
-import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
+import io.confluent.ksql.serde.binary.GroupByKeyDeserializer;
+import io.confluent.ksql.serde.binary.GroupByKeySerializer;
+import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.Joined;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.apache.kafka.streams.kstream.Produced;
 import org.apache.kafka.streams.kstream.Serialized;
 import org.apache.kafka.streams.kstream.ValueJoiner;
+import org.apache.kafka.streams.state.Stores;
 import org.codehaus.commons.compiler.CompileException;
 
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SchemaKStream {
-  public enum Type { SOURCE, PROJECT, FILTER, AGGREGATE, SINK, REKEY, JOIN, TOSTREAM }
+  public enum Type {
+    SOURCE, PROJECT, FILTER, FILTER_PROJECT, AGGREGATE, SINK, REKEY, JOIN, TOSTREAM
+  }
 
-  private static String GROUP_BY_COLUMN_SEPARATOR = "|+|";
+  static final String PARTIAL_AGGREGATE_STORE_NAME = "KSQL_PARTIAL_AGGREGATE";
+  static final String PARTIAL_AGGREGATE_TIMESTAMP_STORE_NAME = "KSQL_PARTIAL_AGGREGATE_TIMESTAMP";
 
   final Schema schema;
   final KStream<String, GenericRow> kstream;
@@ -147,6 +159,37 @@ public class SchemaKStream {
     );
   }
 
+  /**
+   * Filter and then project the stream in a single operator.
+   *
+   * <p>Equivalent to {@code filter(filterExpression).select(expressionPairList)}, but rows are
+   * only deserialized into columns once, and the projection is not evaluated for rows that are
+   * filtered out.
+   */
+  public SchemaKStream filterAndSelect(
+      final Expression filterExpression,
+      final List<Pair<String, Expression>> expressionPairList
+  ) {
+    final Selection selection =
+        new Selection(expressionPairList, Optional.of(filterExpression), functionRegistry, this);
+    final SelectValueMapper mapper = selection.getSelectValueMapper();
+    return new SchemaKStream(
+        selection.getSchema(),
+        kstream.flatMapValues(row -> {
+          final GenericRow mapped = mapper.apply(row);
+          return mapped == null
+              ? Collections.<GenericRow>emptyList()
+              : Collections.singletonList(mapped);
+        }),
+        selection.getKey(),
+        Collections.singletonList(this),
+        Type.FILTER_PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        schemaRegistryClient
+    );
+  }
+
   static class Selection {
     private Schema schema;
     private Field key;
@@ -156,13 +199,18 @@ public class SchemaKStream {
         final List<Pair<String, Expression>> expressionPairList,
         final FunctionRegistry functionRegistry,
         final SchemaKStream fromStream) {
+      this(expressionPairList, Optional.empty(), functionRegistry, fromStream);
+    }
+
+    Selection(
+        final List<Pair<String, Expression>> expressionPairList,
+        final Optional<Expression> filterExpression,
+        final FunctionRegistry functionRegistry,
+        final SchemaKStream fromStream) {
       key = findKeyField(expressionPairList, fromStream);
-      final List<ExpressionMetadata> expressionEvaluators = buildExpressions(
-          expressionPairList, functionRegistry, fromStream);
-      schema = buildSchema(expressionPairList, expressionEvaluators);
+      schema = buildSchema(expressionPairList, functionRegistry, fromStream);
       selectValueMapper = new SelectValueMapper(
-          new GenericRowValueTypeEnforcer(
-              fromStream.getSchema()), expressionPairList, expressionEvaluators);
+          buildRowMapper(expressionPairList, filterExpression, functionRegistry, fromStream));
     }
 
     private Field findKeyField(
@@ -207,20 +255,31 @@ public class SchemaKStream {
 
     private Schema buildSchema(
         final List<Pair<String, Expression>> expressionPairList,
-        final List<ExpressionMetadata> expressionEvaluators) {
+        final FunctionRegistry functionRegistry,
+        final SchemaKStream fromStream) {
+      final ExpressionTypeManager expressionTypeManager =
+          new ExpressionTypeManager(fromStream.getSchema(), functionRegistry);
       final SchemaBuilder schemaBuilder = SchemaBuilder.struct();
-      IntStream.range(0, expressionPairList.size()).forEach(
-          i -> schemaBuilder.field(
-              expressionPairList.get(i).getLeft(),
-              expressionEvaluators.get(i).getExpressionType()));
+      expressionPairList.forEach(
+          pair -> schemaBuilder.field(
+              pair.getLeft(),
+              expressionTypeManager.getExpressionSchema(pair.getRight())));
       return schemaBuilder.build();
     }
 
-    private ExpressionMetadata buildExpression(
-        final CodeGenRunner codeGenRunner,
-        final Expression expression) {
+    private CompiledRowMapper buildRowMapper(
+        final List<Pair<String, Expression>> expressionPairList,
+        final Optional<Expression> filterExpression,
+        final FunctionRegistry functionRegistry,
+        final SchemaKStream fromStream) {
+      final CodeGenRunner codeGenRunner = new CodeGenRunner(
+          fromStream.getSchema(), fromStream.ksqlConfig, functionRegistry);
       try {
-        return codeGenRunner.buildCodeGenFromParseTree(expression);
+        if (filterExpression.isPresent()) {
+          return codeGenRunner.buildFilteredRowMapper(
+              filterExpression.get(), expressionPairList);
+        }
+        return codeGenRunner.buildRowMapper(expressionPairList);
       } catch (final CompileException e) {
         throw new KsqlException("Code generation failed for SelectValueMapper", e);
       } catch (final Exception e) {
@@ -228,18 +287,6 @@ public class SchemaKStream {
       }
     }
 
-    private List<ExpressionMetadata> buildExpressions(
-        final List<Pair<String, Expression>> expressionPairList,
-        final FunctionRegistry functionRegistry,
-        final SchemaKStream fromStream) {
-      final CodeGenRunner codeGenRunner = new CodeGenRunner(
-          fromStream.getSchema(), fromStream.ksqlConfig, functionRegistry);
-      return expressionPairList.stream()
-          .map(Pair::getRight)
-          .map(e -> buildExpression(codeGenRunner, e))
-          .collect(Collectors.toList());
-    }
-
     public Schema getSchema() {
       return schema;
     }
@@ -455,7 +502,7 @@ public class SchemaKStream {
   static String keyNameForGroupBy(final List<Expression> groupByExpressions) {
     return groupByExpressions.stream()
         .map(Expression::toString)
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+        .collect(Collectors.joining(GroupByKey.SEPARATOR));
   }
 
   static List<Integer> keyIndexesForGroupBy(
@@ -466,9 +513,42 @@ public class SchemaKStream {
   }
 
   static String buildGroupByKey(final List<Integer> newKeyIndexes, final GenericRow value) {
-    return newKeyIndexes.stream()
-        .map(idx -> String.valueOf(value.getColumns().get(idx)))
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+    final List<Object> columns = value.getColumns();
+    final StringBuilder key = new StringBuilder();
+    for (int i = 0; i < newKeyIndexes.size(); i++) {
+      if (i > 0) {
+        key.append(GroupByKey.SEPARATOR);
+      }
+      key.append(columns.get(newKeyIndexes.get(i)));
+    }
+    return key.toString();
+  }
+
+  static GroupByKey buildTypedGroupByKey(
+      final List<Integer> newKeyIndexes,
+      final GenericRow value) {
+    final List<Object> columns = value.getColumns();
+    final Object[] keyValues = new Object[newKeyIndexes.size()];
+    for (int i = 0; i < keyValues.length; i++) {
+      keyValues[i] = columns.get(newKeyIndexes.get(i));
+    }
+    return new GroupByKey(Arrays.asList(keyValues));
+  }
+
+  static Serde<GroupByKey> groupByKeySerde(
+      final Schema schema,
+      final List<Integer> newKeyIndexes) {
+    final SchemaBuilder keySchemaBuilder = SchemaBuilder.struct();
+    for (int i = 0; i < newKeyIndexes.size(); i++) {
+      keySchemaBuilder.field("KEY" + i, schema.fields().get(newKeyIndexes.get(i)).schema());
+    }
+    final Schema keySchema = keySchemaBuilder.build();
+    return Serdes.serdeFrom(
+        new GroupByKeySerializer(keySchema), new GroupByKeyDeserializer(keySchema));
+  }
+
+  boolean useBinaryGroupByKey() {
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_GROUP_BY_BINARY_KEY_CONFIG);
   }
 
   public SchemaKGroupedStream groupBy(
@@ -483,6 +563,7 @@ public class SchemaKStream {
           schema,
           kgroupedStream,
           keyField,
+          keySerde,
           Collections.singletonList(this),
           ksqlConfig,
           functionRegistry,
@@ -493,9 +574,21 @@ public class SchemaKStream {
     final String aggregateKeyName = keyNameForGroupBy(groupByExpressions);
     final List<Integer> newKeyIndexes = keyIndexesForGroupBy(getSchema(), groupByExpressions);
 
-    final KGroupedStream kgroupedStream = kstream.filter((key, value) -> value != null).groupBy(
-        (key, value) -> buildGroupByKey(newKeyIndexes, value),
-        Serialized.with(keySerde, valSerde));
+    final KStream<String, GenericRow> nonNullRows = kstream.filter((key, value) -> value != null);
+    final KGroupedStream kgroupedStream;
+    final Serde<?> groupedKeySerde;
+    if (useBinaryGroupByKey()) {
+      final Serde<GroupByKey> groupByKeySerde = groupByKeySerde(getSchema(), newKeyIndexes);
+      kgroupedStream = nonNullRows.groupBy(
+          (key, value) -> buildTypedGroupByKey(newKeyIndexes, value),
+          Serialized.with(groupByKeySerde, valSerde));
+      groupedKeySerde = groupByKeySerde;
+    } else {
+      kgroupedStream = nonNullRows.groupBy(
+          (key, value) -> buildGroupByKey(newKeyIndexes, value),
+          Serialized.with(keySerde, valSerde));
+      groupedKeySerde = keySerde;
+    }
 
     // TODO: if the key is a prefix of the grouping columns then we can
     //       use the repartition reflection hack to tell streams not to
@@ -505,12 +598,113 @@ public class SchemaKStream {
         schema,
         kgroupedStream,
         newKeyField,
+        groupedKeySerde,
         Collections.singletonList(this),
         ksqlConfig,
         functionRegistry,
         schemaRegistryClient);
   }
 
+  /**
+   * Group by the supplied expressions, combining the rows of each group into partial aggregates
+   * before they are repartitioned. The returned stream's values are partial aggregates in the
+   * layout of the aggregate row, built by {@code aggregator}.
+   *
+   * <p>If no repartition is required, the rows are grouped as in
+   * {@link #groupBy(Serde, Serde, List)}.
+   */
+  public SchemaKGroupedStream groupByWithPartialAggregates(
+      final StreamsBuilder builder,
+      final Serde<String> keySerde,
+      final Serde<GenericRow> valSerde,
+      final List<Expression> groupByExpressions,
+      final Initializer<GenericRow> initializer,
+      final UdafAggregator aggregator,
+      final Serde<GenericRow> partialAggregateSerde) {
+    if (!rekeyRequired(groupByExpressions)) {
+      return groupBy(keySerde, valSerde, groupByExpressions);
+    }
+
+    final String aggregateKeyName = keyNameForGroupBy(groupByExpressions);
+    final List<Integer> newKeyIndexes = keyIndexesForGroupBy(getSchema(), groupByExpressions);
+
+    final KGroupedStream kgroupedStream;
+    final Serde<?> groupedKeySerde;
+    if (useBinaryGroupByKey()) {
+      final Serde<GroupByKey> groupByKeySerde = groupByKeySerde(getSchema(), newKeyIndexes);
+      kgroupedStream = groupPartialAggregates(
+          builder,
+          (key, value) -> buildTypedGroupByKey(newKeyIndexes, value),
+          groupByKeySerde,
+          initializer,
+          aggregator,
+          partialAggregateSerde);
+      groupedKeySerde = groupByKeySerde;
+    } else {
+      kgroupedStream = groupPartialAggregates(
+          builder,
+          (key, value) -> buildGroupByKey(newKeyIndexes, value),
+          keySerde,
+          initializer,
+          aggregator,
+          partialAggregateSerde);
+      groupedKeySerde = keySerde;
+    }
+
+    final Field newKeyField = new Field(aggregateKeyName, -1, Schema.OPTIONAL_STRING_SCHEMA);
+    return new SchemaKGroupedStream(
+        schema,
+        kgroupedStream,
+        newKeyField,
+        groupedKeySerde,
+        Collections.singletonList(this),
+        ksqlConfig,
+        functionRegistry,
+        schemaRegistryClient,
+        true);
+  }
+
+  private <K> KGroupedStream<K, GenericRow> groupPartialAggregates(
+      final StreamsBuilder builder,
+      final KeyValueMapper<String, GenericRow, K> groupByKeyMapper,
+      final Serde<K> groupedKeySerde,
+      final Initializer<GenericRow> initializer,
+      final UdafAggregator aggregator,
+      final Serde<GenericRow> partialAggregateSerde) {
+    builder.addStateStore(
+        Stores.keyValueStoreBuilder(
+            Stores.inMemoryKeyValueStore(PARTIAL_AGGREGATE_STORE_NAME),
+            groupedKeySerde,
+            partialAggregateSerde)
+        .withCachingEnabled());
+    builder.addStateStore(
+        Stores.keyValueStoreBuilder(
+            Stores.inMemoryKeyValueStore(PARTIAL_AGGREGATE_TIMESTAMP_STORE_NAME),
+            groupedKeySerde,
+            Serdes.Long())
+        .withCachingEnabled());
+
+    final int maxKeys =
+        ksqlConfig.getInt(KsqlConfig.KSQL_GROUP_BY_PARTIAL_AGGREGATE_MAX_KEYS_CONFIG);
+    final long flushIntervalMs =
+        ksqlConfig.getLong(KsqlConfig.KSQL_GROUP_BY_PARTIAL_AGGREGATE_FLUSH_MS_CONFIG);
+
+    return kstream
+        .filter((key, value) -> value != null)
+        .transform(
+            () -> new PartialAggregateTransformer<>(
+                PARTIAL_AGGREGATE_STORE_NAME,
+                PARTIAL_AGGREGATE_TIMESTAMP_STORE_NAME,
+                groupByKeyMapper,
+                initializer,
+                aggregator,
+                maxKeys,
+                flushIntervalMs),
+            PARTIAL_AGGREGATE_STORE_NAME,
+            PARTIAL_AGGREGATE_TIMESTAMP_STORE_NAME)
+        .groupByKey(Serialized.with(groupedKeySerde, partialAggregateSerde));
+  }
+
   public Field getKeyField() {
     return keyField;
   }
@@ -19,16 +19,21 @@ package io.confluent.ksql.structured;
 import com.google.common.collect.ImmutableList;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.serde.util.ToStringSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.Pair;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.KeyValue;
@@ -43,6 +48,10 @@ import org.apache.kafka.streams.kstream.WindowedSerdes;
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public class SchemaKTable extends SchemaKStream {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
+  @SuppressWarnings("unchecked")
+  private static final Serde<Object> SINK_KEY_SERDE =
+      Serdes.serdeFrom(new ToStringSerializer(), (Deserializer) new StringDeserializer());
+
   private final KTable<?, GenericRow> ktable;
   private final boolean isWindowed;
 
@@ -78,10 +87,11 @@ public class SchemaKTable extends SchemaKStream {
       final Serde<GenericRow> topicValueSerDe,
       final Set<Integer> rowkeyIndexes
   ) {
+    // Keys are written by their string form, as they may be a GroupByKey rather than a String
     if (isWindowed) {
-      final Serde<Windowed<String>> windowedSerde
-              = WindowedSerdes.timeWindowedSerdeFrom(String.class);
-      ((KTable<Windowed<String>, GenericRow>)ktable).toStream()
+      final Serde<Windowed<Object>> windowedSerde
+              = new WindowedSerdes.TimeWindowedSerde<>(SINK_KEY_SERDE);
+      ((KTable<Windowed<Object>, GenericRow>)ktable).toStream()
           .mapValues(
               row -> {
                 if (row == null) {
@@ -97,7 +107,7 @@ public class SchemaKTable extends SchemaKStream {
               }
           ).to(kafkaTopicName, Produced.with(windowedSerde, topicValueSerDe));
     } else {
-      ((KTable<String, GenericRow>)ktable).toStream()
+      ((KTable<Object, GenericRow>)ktable).toStream()
           .mapValues(row -> {
             if (row == null) {
               return null;
@@ -109,7 +119,7 @@ public class SchemaKTable extends SchemaKStream {
               }
             }
             return new GenericRow(columns);
-          }).to(kafkaTopicName, Produced.with(Serdes.String(), topicValueSerDe));
+          }).to(kafkaTopicName, Produced.with(SINK_KEY_SERDE, topicValueSerDe));
     }
 
     return this;
@@ -161,6 +171,28 @@ public class SchemaKTable extends SchemaKStream {
     );
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public SchemaKTable filterAndSelect(
+      final Expression filterExpression,
+      final List<Pair<String, Expression>> expressionPairList
+  ) {
+    final Selection selection =
+        new Selection(expressionPairList, Optional.of(filterExpression), functionRegistry, this);
+    // Rows rejected by the filter map to null, removing them from the table, as filter does.
+    return new SchemaKTable(
+        selection.getSchema(),
+        ktable.mapValues(selection.getSelectValueMapper()),
+        selection.getKey(),
+        Collections.singletonList(this),
+        isWindowed,
+        Type.FILTER_PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        schemaRegistryClient
+    );
+  }
+
   @SuppressWarnings("unchecked") // needs investigating
   @Override
   public KStream getKstream() {
@@ -183,16 +215,30 @@ public class SchemaKTable extends SchemaKStream {
     final String aggregateKeyName = keyNameForGroupBy(groupByExpressions);
     final List<Integer> newKeyIndexes = keyIndexesForGroupBy(getSchema(), groupByExpressions);
 
-    final KGroupedTable kgroupedTable = ktable.filter((key, value) -> value != null).groupBy(
-        (key, value) ->
-            new KeyValue<>(buildGroupByKey(newKeyIndexes, value), value),
-        Serialized.with(keySerde, valSerde));
+    final KTable<?, GenericRow> nonNullRows = ktable.filter((key, value) -> value != null);
+    final KGroupedTable kgroupedTable;
+    final Serde<?> groupedKeySerde;
+    if (useBinaryGroupByKey()) {
+      final Serde<GroupByKey> groupByKeySerde = groupByKeySerde(getSchema(), newKeyIndexes);
+      kgroupedTable = nonNullRows.groupBy(
+          (key, value) ->
+              new KeyValue<>(buildTypedGroupByKey(newKeyIndexes, value), value),
+          Serialized.with(groupByKeySerde, valSerde));
+      groupedKeySerde = groupByKeySerde;
+    } else {
+      kgroupedTable = nonNullRows.groupBy(
+          (key, value) ->
+              new KeyValue<>(buildGroupByKey(newKeyIndexes, value), value),
+          Serialized.with(keySerde, valSerde));
+      groupedKeySerde = keySerde;
+    }
 
     final Field newKeyField = new Field(aggregateKeyName, -1, Schema.OPTIONAL_STRING_SCHEMA);
     return new SchemaKGroupedTable(
         schema,
         kgroupedTable,
         newKeyField,
+        groupedKeySerde,
         Collections.singletonList(this),
         ksqlConfig,
         functionRegistry,
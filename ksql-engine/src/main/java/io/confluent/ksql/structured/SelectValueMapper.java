@@ -17,32 +17,22 @@
 package io.confluent.ksql.structured;
 
 import io.confluent.ksql.GenericRow;
-import io.confluent.ksql.function.udf.Kudf;
-import io.confluent.ksql.parser.tree.Expression;
-import io.confluent.ksql.util.ExpressionMetadata;
-import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
-import io.confluent.ksql.util.Pair;
-import java.util.ArrayList;
-import java.util.List;
+import io.confluent.ksql.codegen.CompiledRowMapper;
+import java.util.Objects;
 import org.apache.kafka.streams.kstream.ValueMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+/**
+ * Maps each row through a compiled projection.
+ *
+ * <p>If the projection was compiled together with a filter, rows rejected by the filter are
+ * mapped to null.
+ */
 class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
-  private static Logger log = LoggerFactory.getLogger(SelectValueMapper.class);
 
-  private final GenericRowValueTypeEnforcer typeEnforcer;
-  private final List<Pair<String, Expression>> expressionPairList;
-  private final List<ExpressionMetadata> expressionEvaluators;
+  private final CompiledRowMapper rowMapper;
 
-  SelectValueMapper(
-      final GenericRowValueTypeEnforcer typeEnforcer,
-      final List<Pair<String, Expression>> expressionPairList,
-      final List<ExpressionMetadata> expressionEvaluators
-  ) {
-    this.typeEnforcer = typeEnforcer;
-    this.expressionPairList = expressionPairList;
-    this.expressionEvaluators = expressionEvaluators;
+  SelectValueMapper(final CompiledRowMapper rowMapper) {
+    this.rowMapper = Objects.requireNonNull(rowMapper, "rowMapper");
   }
 
   @Override
@@ -50,34 +40,9 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
     if (row == null) {
       return row;
     }
-    final List<Object> newColumns = new ArrayList<>();
-    for (int i = 0; i < expressionPairList.size(); i++) {
-      try {
-        final int[] parameterIndexes = expressionEvaluators.get(i).getIndexes();
-        final Kudf[] kudfs = expressionEvaluators.get(i).getUdfs();
-        final Object[] parameterObjects = new Object[parameterIndexes.length];
-        for (int j = 0; j < parameterIndexes.length; j++) {
-          if (parameterIndexes[j] < 0) {
-            parameterObjects[j] = kudfs[j];
-          } else {
-            parameterObjects[j] =
-                typeEnforcer.enforceFieldType(parameterIndexes[j],
-                    row.getColumns()
-                        .get(parameterIndexes[j]));
-          }
-        }
-        newColumns.add(
-            expressionEvaluators.get(i).getExpressionEvaluator().evaluate(parameterObjects)
-        );
-      } catch (final Exception e) {
-        log.error(
-            "Error calculating column with index {} : {}",
-            i,
-            expressionPairList.get(i).getLeft(),
-            e
-        );
-        newColumns.add(null);
-      }
+    final Object[] newColumns = new Object[rowMapper.getColumnCount()];
+    if (!rowMapper.map(row.getColumns(), newColumns)) {
+      return null;
     }
     return new GenericRow(newColumns);
   }
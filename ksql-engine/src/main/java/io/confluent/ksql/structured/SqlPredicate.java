@@ -18,22 +18,16 @@ package io.confluent.ksql.structured;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
-import io.confluent.ksql.codegen.SqlToJavaVisitor;
 import io.confluent.ksql.function.FunctionRegistry;
-import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
-import io.confluent.ksql.util.SchemaUtil;
 import java.util.Objects;
-import java.util.Set;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Predicate;
 import org.apache.kafka.streams.kstream.Windowed;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,11 +36,8 @@ public class SqlPredicate {
 
   private final Expression filterExpression;
   private final Schema schema;
-  private final IExpressionEvaluator ee;
-  private final int[] columnIndexes;
+  private final ExpressionMetadata expressionMetadata;
   private final boolean isWindowedKey;
-  private final KsqlConfig ksqlConfig;
-  private final FunctionRegistry functionRegistry;
   private final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer;
 
   SqlPredicate(
@@ -60,37 +51,11 @@ public class SqlPredicate {
     this.schema = schema;
     this.genericRowValueTypeEnforcer = new GenericRowValueTypeEnforcer(schema);
     this.isWindowedKey = isWindowedKey;
-    this.functionRegistry = functionRegistry;
-    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
-
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
-    final Set<CodeGenRunner.ParameterType> parameters
-        = codeGenRunner.getParameterInfo(filterExpression);
-
-    final String[] parameterNames = new String[parameters.size()];
-    final Class[] parameterTypes = new Class[parameters.size()];
-    columnIndexes = new int[parameters.size()];
-    int index = 0;
-    for (final CodeGenRunner.ParameterType param : parameters) {
-      parameterNames[index] = param.getName();
-      parameterTypes[index] = param.getType();
-      columnIndexes[index] = SchemaUtil.getFieldIndexByName(schema, param.getName());
-      index++;
-    }
 
+    final CodeGenRunner codeGenRunner = new CodeGenRunner(
+        schema, Objects.requireNonNull(ksqlConfig, "ksqlConfig"), functionRegistry);
     try {
-      ee = CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(CodeGenRunner.CODEGEN_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
-
-      ee.setExpressionType(boolean.class);
-
-      final String expressionStr = new SqlToJavaVisitor(
-          schema,
-          functionRegistry
-      ).process(filterExpression);
-
-      ee.cook(expressionStr);
+      expressionMetadata = codeGenRunner.buildCodeGenFromParseTree(filterExpression);
     } catch (final Exception e) {
       throw new KsqlException(
           "Failed to generate code for SqlPredicate."
@@ -113,76 +78,26 @@ public class SqlPredicate {
     }
   }
 
-  private Predicate<String, GenericRow> getStringKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
+  // Keys are typed as Object, as a grouped table may be keyed by a GroupByKey
+  private Predicate<Object, GenericRow> getStringKeyPredicate() {
+    return this::test;
+  }
 
-    return (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final Kudf[] kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs[i];
-          } else {
-            values[i] = genericRowValueTypeEnforcer.enforceFieldType(columnIndexes[i], row
-                .getColumns().get(columnIndexes[i]));
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        log.error(e.getMessage(), e);
-      }
-      log.error("Invalid format: " + key + " : " + row);
-      return false;
-    };
+  private Predicate getWindowedKeyPredicate() {
+    return (Predicate<Windowed<Object>, GenericRow>) this::test;
   }
 
-  private ExpressionMetadata createExpressionMetadata() {
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
+  private boolean test(final Object key, final GenericRow row) {
+    if (row == null) {
+      return false;
+    }
     try {
-      return codeGenRunner.buildCodeGenFromParseTree(filterExpression);
+      return (Boolean) expressionMetadata.evaluate(row, genericRowValueTypeEnforcer);
     } catch (final Exception e) {
-      throw new KsqlException(
-          "Failed to generate code for filterExpression:"
-          + filterExpression
-          + " schema:"
-          + schema,
-          e
-      );
+      log.error(e.getMessage(), e);
     }
-  }
-
-  private Predicate getWindowedKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
-    return (Predicate<Windowed<String>, GenericRow>) (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final Kudf[] kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs[i];
-          } else {
-            values[i] = genericRowValueTypeEnforcer
-                .enforceFieldType(
-                    columnIndexes[i],
-                    row.getColumns().get(columnIndexes[i]
-                    )
-                );
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        log.error(e.getMessage(), e);
-      }
-      log.error("Invalid format: " + key + " : " + row);
-      return false;
-    };
+    log.error("Invalid format: " + key + " : " + row);
+    return false;
   }
 
   public Expression getFilterExpression() {
@@ -195,11 +110,7 @@ public class SqlPredicate {
 
   // visible for testing
   int[] getColumnIndexes() {
-    // As this is only used for testing it is ok to do the array copy.
-    // We need to revisit the tests for this class and remove this.
-    final int[] result = new int[columnIndexes.length];
-    System.arraycopy(columnIndexes, 0, result, 0, columnIndexes.length);
-    return result;
+    return expressionMetadata.getIndexes();
   }
 
 }
@@ -16,7 +16,10 @@
 
 package io.confluent.ksql.util;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.udf.Kudf;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
@@ -26,6 +29,7 @@ public class ExpressionMetadata {
   private final int[] indexes;
   private final Kudf[] udfs;
   private final Schema expressionType;
+  private final ThreadLocal<Object[]> parameterBuffers;
 
   public ExpressionMetadata(
       final IExpressionEvaluator expressionEvaluator,
@@ -36,6 +40,7 @@ public class ExpressionMetadata {
     this.indexes = indexes;
     this.udfs = udfs;
     this.expressionType = expressionType;
+    this.parameterBuffers = ThreadLocal.withInitial(this::newParameterBuffer);
   }
 
   public IExpressionEvaluator getExpressionEvaluator() {
@@ -57,4 +62,40 @@ public class ExpressionMetadata {
   public Schema getExpressionType() {
     return expressionType;
   }
+
+  /**
+   * Evaluate the expression against the columns of the supplied row.
+   *
+   * <p>The parameters are written to a buffer owned by the calling thread, which already holds
+   * the udf instances, so evaluating a row does not allocate any garbage beyond what the
+   * expression itself creates.
+   *
+   * @param row the row to evaluate the expression against.
+   * @param typeEnforcer the type enforcer for the schema of the row.
+   * @return the result of the expression.
+   */
+  public Object evaluate(
+      final GenericRow row,
+      final GenericRowValueTypeEnforcer typeEnforcer
+  ) throws InvocationTargetException {
+    final Object[] parameters = parameterBuffers.get();
+    final List<Object> columns = row.getColumns();
+    for (int i = 0; i < indexes.length; i++) {
+      final int index = indexes[i];
+      if (index >= 0) {
+        parameters[i] = typeEnforcer.enforceFieldType(index, columns.get(index));
+      }
+    }
+    return expressionEvaluator.evaluate(parameters);
+  }
+
+  private Object[] newParameterBuffer() {
+    final Object[] parameters = new Object[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      if (indexes[i] < 0) {
+        parameters[i] = udfs[i];
+      }
+    }
+    return parameters;
+  }
 }
@@ -33,7 +33,9 @@ import io.confluent.ksql.parser.tree.IntegerLiteral;
 import io.confluent.ksql.parser.tree.IsNotNullPredicate;
 import io.confluent.ksql.parser.tree.IsNullPredicate;
 import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
 import io.confluent.ksql.parser.tree.LongLiteral;
+import io.confluent.ksql.parser.tree.NotExpression;
 import io.confluent.ksql.parser.tree.NullLiteral;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.parser.tree.StringLiteral;
@@ -110,6 +112,20 @@ public class ExpressionTypeManager
     return null;
   }
 
+  @Override
+  protected Expression visitLogicalBinaryExpression(
+      final LogicalBinaryExpression node, final ExpressionTypeContext expressionTypeContext) {
+    expressionTypeContext.setSchema(Schema.OPTIONAL_BOOLEAN_SCHEMA);
+    return null;
+  }
+
+  @Override
+  protected Expression visitNotExpression(
+      final NotExpression node, final ExpressionTypeContext expressionTypeContext) {
+    expressionTypeContext.setSchema(Schema.OPTIONAL_BOOLEAN_SCHEMA);
+    return null;
+  }
+
   @Override
   protected Expression visitQualifiedNameReference(
       final QualifiedNameReference node, final ExpressionTypeContext expressionTypeContext) {
@@ -16,46 +16,55 @@
 
 package io.confluent.ksql.util;
 
-import java.util.List;
-import org.apache.kafka.connect.data.Field;
+import java.util.function.Function;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * Coerces the values of a row to the java types of the row's schema.
+ *
+ * <p>The conversion for each column is chosen once, when the enforcer is built, so enforcing a
+ * value is an array lookup followed by a check that the value already has the expected type,
+ * which is the case for values produced by the deserializers.
+ */
 public class GenericRowValueTypeEnforcer {
 
-  private final List<Field> fields;
+  private final Function<Object, Object>[] enforcers;
 
+  @SuppressWarnings("unchecked")
   public GenericRowValueTypeEnforcer(final Schema schema) {
-    this.fields = schema.fields();
+    this.enforcers = schema.fields().stream()
+        .map(field -> enforcerFor(field.schema()))
+        .toArray(Function[]::new);
   }
 
   public Object enforceFieldType(final int index, final Object value) {
-    final Field field = fields.get(index);
-    return enforceFieldType(field.schema(), value);
+    return enforcers[index].apply(value);
   }
 
-  private Object enforceFieldType(final Schema schema, final Object value) {
-
+  private static Function<Object, Object> enforcerFor(final Schema schema) {
     switch (schema.type()) {
       case INT32:
-        return enforceInteger(value);
+        return GenericRowValueTypeEnforcer::enforceInteger;
       case INT64:
-        return enforceLong(value);
+        return GenericRowValueTypeEnforcer::enforceLong;
       case FLOAT64:
-        return enforceDouble(value);
+        return GenericRowValueTypeEnforcer::enforceDouble;
       case STRING:
-        return enforceString(value);
+        return GenericRowValueTypeEnforcer::enforceString;
       case BOOLEAN:
-        return enforceBoolean(value);
+        return GenericRowValueTypeEnforcer::enforceBoolean;
       case ARRAY:
       case MAP:
       case STRUCT:
-        return value;
+        return Function.identity();
       default:
-        throw new KsqlException("Type is not supported: " + schema);
+        return value -> {
+          throw new KsqlException("Type is not supported: " + schema);
+        };
     }
   }
 
-  private Double enforceDouble(final Object value) {
+  private static Double enforceDouble(final Object value) {
     if (value instanceof Double) {
       return (Double) value;
     } else if (value instanceof Integer) {
@@ -77,7 +86,7 @@ public class GenericRowValueTypeEnforcer {
     }
   }
 
-  private Long enforceLong(final Object value) {
+  private static Long enforceLong(final Object value) {
     if (value instanceof Long) {
       return (Long) value;
     } else if (value instanceof Integer) {
@@ -97,7 +106,7 @@ public class GenericRowValueTypeEnforcer {
     }
   }
 
-  private Integer enforceInteger(final Object value) {
+  private static Integer enforceInteger(final Object value) {
 
     if (value instanceof Integer) {
       return (Integer) value;
@@ -118,7 +127,7 @@ public class GenericRowValueTypeEnforcer {
     }
   }
 
-  private String enforceString(final Object value) {
+  private static String enforceString(final Object value) {
     if (value instanceof String || value instanceof CharSequence) {
       return value.toString();
     } else if (value == null) {
@@ -128,7 +137,7 @@ public class GenericRowValueTypeEnforcer {
     }
   }
 
-  private Boolean enforceBoolean(final Object value) {
+  private static Boolean enforceBoolean(final Object value) {
     if (value instanceof Boolean) {
       return (Boolean) value;
     } else if (value instanceof String) {
@@ -19,12 +19,15 @@ package io.confluent.ksql.util;
 import com.google.common.collect.Lists;
 import io.confluent.ksql.exception.KafkaResponseGetFailedException;
 import io.confluent.ksql.exception.KafkaTopicException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.admin.AdminClient;
@@ -39,23 +42,57 @@ import org.apache.kafka.common.Node;
 import org.apache.kafka.common.config.ConfigResource;
 import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.utils.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A topic client backed by an {@link AdminClient}.
+ *
+ * <p>The client can cache the topic names, topic descriptions and topic configs it gets from the
+ * cluster for a fixed time, so that planning statements and listing topics doesn't make a round
+ * trip to the cluster for each topic. The entries of topics this client creates, deletes or
+ * changes the config of are invalidated straight away. A cached list of topic names is only
+ * trusted to say a topic exists: a topic missing from it is looked up again, in case it has been
+ * created since.
+ */
 public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   private static final Logger log = LoggerFactory.getLogger(KafkaTopicClient.class);
 
   private final AdminClient adminClient;
   private final boolean isDeleteTopicEnabled;
+  private final long cacheTtlMs;
+  private final Time time;
+
+  private volatile Cached<Set<String>> topicNames;
+  private final Map<String, Cached<TopicDescription>> topicDescriptions =
+      new ConcurrentHashMap<>();
+  private final Map<String, Cached<Map<String, String>>> topicConfigs = new ConcurrentHashMap<>();
 
   /**
-   * Construct a topic client from an existing admin client.
+   * Construct a topic client from an existing admin client, which doesn't cache metadata.
    *
    * @param adminClient the admin client. Note: Will be closed on {@link #close()}.
    */
   public KafkaTopicClientImpl(final AdminClient adminClient) {
+    this(adminClient, 0);
+  }
+
+  /**
+   * Construct a topic client from an existing admin client.
+   *
+   * @param adminClient the admin client. Note: Will be closed on {@link #close()}.
+   * @param cacheTtlMs how long topic metadata is cached for. Zero disables caching.
+   */
+  public KafkaTopicClientImpl(final AdminClient adminClient, final long cacheTtlMs) {
+    this(adminClient, cacheTtlMs, Time.SYSTEM);
+  }
+
+  KafkaTopicClientImpl(final AdminClient adminClient, final long cacheTtlMs, final Time time) {
     this.adminClient = Objects.requireNonNull(adminClient, "adminClient");
+    this.cacheTtlMs = cacheTtlMs;
+    this.time = Objects.requireNonNull(time, "time");
     this.isDeleteTopicEnabled = isTopicDeleteEnabled(adminClient);
   }
 
@@ -79,6 +116,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       ExecutorUtil.executeWithRetries(
           () -> adminClient.createTopics(Collections.singleton(newTopic)).all().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
+      invalidate(topic);
     } catch (final InterruptedException e) {
       throw new KafkaResponseGetFailedException(
           "Failed to guarantee existence of topic " + topic, e);
@@ -98,18 +136,34 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
   @Override
   public boolean isTopicExists(final String topic) {
     log.trace("Checking for existence of topic '{}'", topic);
-    return listTopicNames().contains(topic);
+    final Set<String> cachedNames = getIfFresh(topicNames);
+    if (cachedNames != null && cachedNames.contains(topic)) {
+      return true;
+    }
+    return fetchTopicNames().contains(topic);
   }
 
   @Override
   public Set<String> listTopicNames() {
+    final Set<String> cachedNames = getIfFresh(topicNames);
+    return cachedNames != null ? cachedNames : fetchTopicNames();
+  }
+
+  private Set<String> fetchTopicNames() {
+    final Set<String> names;
     try {
-      return ExecutorUtil.executeWithRetries(
+      names = ExecutorUtil.executeWithRetries(
           () -> adminClient.listTopics().names().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
     } catch (final Exception e) {
       throw new KafkaResponseGetFailedException("Failed to retrieve Kafka Topic names", e);
     }
+    if (cacheTtlMs <= 0) {
+      return names;
+    }
+    final Set<String> cachedNames = Collections.unmodifiableSet(names);
+    topicNames = new Cached<>(cachedNames, time.milliseconds() + cacheTtlMs);
+    return cachedNames;
   }
 
   @Override
@@ -122,6 +176,35 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   @Override
   public Map<String, TopicDescription> describeTopics(final Collection<String> topicNames) {
+    if (cacheTtlMs <= 0) {
+      return fetchTopicDescriptions(topicNames);
+    }
+
+    // Describe all topics that aren't cached in a single request:
+    final Map<String, TopicDescription> descriptions = new HashMap<>();
+    final List<String> uncached = new ArrayList<>();
+    for (final String topicName : topicNames) {
+      final TopicDescription cached = getIfFresh(topicDescriptions.get(topicName));
+      if (cached != null) {
+        descriptions.put(topicName, cached);
+      } else {
+        uncached.add(topicName);
+      }
+    }
+
+    if (!uncached.isEmpty()) {
+      final Map<String, TopicDescription> fetched = fetchTopicDescriptions(uncached);
+      final long expiryMs = time.milliseconds() + cacheTtlMs;
+      fetched.forEach((topicName, description) ->
+          topicDescriptions.put(topicName, new Cached<>(description, expiryMs)));
+      descriptions.putAll(fetched);
+    }
+    return descriptions;
+  }
+
+  private Map<String, TopicDescription> fetchTopicDescriptions(
+      final Collection<String> topicNames
+  ) {
     try {
       return ExecutorUtil.executeWithRetries(
           () -> adminClient.describeTopics(topicNames).all().get(),
@@ -133,7 +216,18 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   @Override
   public Map<String, String> getTopicConfig(final String topicName) {
-    return topicConfig(topicName, true);
+    if (cacheTtlMs <= 0) {
+      return topicConfig(topicName, true);
+    }
+
+    final Map<String, String> cached = getIfFresh(topicConfigs.get(topicName));
+    if (cached != null) {
+      return cached;
+    }
+    final Map<String, String> config =
+        Collections.unmodifiableMap(topicConfig(topicName, true));
+    topicConfigs.put(topicName, new Cached<>(config, time.milliseconds() + cacheTtlMs));
+    return config;
   }
 
   @Override
@@ -161,6 +255,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       ExecutorUtil.executeWithRetries(
           () -> adminClient.alterConfigs(request).all().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
+      topicConfigs.remove(topicName);
 
       return true;
     } catch (final Exception e) {
@@ -203,6 +298,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
         failList.add(entry.getKey());
       }
     }
+    topicsToDelete.forEach(this::invalidate);
     if (!failList.isEmpty()) {
       throw new KsqlException("Failed to clean up topics: " + failList.stream()
           .collect(Collectors.joining(",")));
@@ -216,7 +312,8 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       return;
     }
     try {
-      final Set<String> topicNames = listTopicNames();
+      // Streams may have created internal topics since the topic names were cached:
+      final Set<String> topicNames = fetchTopicNames();
       final List<String> internalTopics = Lists.newArrayList();
       for (final String topicName : topicNames) {
         if (isInternalTopic(topicName, applicationId)) {
@@ -233,6 +330,19 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
     }
   }
 
+  private void invalidate(final String topicName) {
+    topicNames = null;
+    topicDescriptions.remove(topicName);
+    topicConfigs.remove(topicName);
+  }
+
+  private <T> T getIfFresh(final Cached<T> cached) {
+    if (cached == null || time.milliseconds() >= cached.expiryMs) {
+      return null;
+    }
+    return cached.value;
+  }
+
   private static boolean isTopicDeleteEnabled(final AdminClient adminClient) {
     try {
       final DescribeClusterResult describeClusterResult = adminClient.describeCluster();
@@ -321,4 +431,15 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
     return configs.entrySet().stream()
         .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()));
   }
+
+  private static final class Cached<T> {
+
+    private final T value;
+    private final long expiryMs;
+
+    private Cached(final T value, final long expiryMs) {
+      this.value = value;
+      this.expiryMs = expiryMs;
+    }
+  }
 }
@@ -75,6 +75,17 @@ public class QueryMetadata {
     this.queryStateListener = Optional.of(queryStateListener);
   }
 
+  protected Optional<QueryStateListener> getQueryStateListener() {
+    return queryStateListener;
+  }
+
+  /**
+   * @return the listener to set on the query's streams when they are started.
+   */
+  protected Optional<? extends KafkaStreams.StateListener> getStreamsStateListener() {
+    return queryStateListener;
+  }
+
   public Map<String, Object> getOverriddenProperties() {
     return overriddenProperties;
   }
@@ -179,7 +190,7 @@ public class QueryMetadata {
 
   public void start() {
     log.info("Starting query with application id: {}", queryApplicationId);
-    queryStateListener.ifPresent(kafkaStreams::setStateListener);
+    getStreamsStateListener().ifPresent(kafkaStreams::setStateListener);
     kafkaStreams.start();
   }
 
@@ -16,11 +16,17 @@
 
 package io.confluent.ksql.util;
 
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.internal.TransientQueryQueueMetrics;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.serde.DataSource;
+import io.confluent.ksql.structured.QueuedSchemaKStream;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.kafka.streams.KafkaStreams;
@@ -30,7 +36,10 @@ import org.apache.kafka.streams.Topology;
 public class QueuedQueryMetadata extends QueryMetadata {
 
   private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
+  private final QueuedSchemaKStream resultStream;
   private final AtomicBoolean isRunning = new AtomicBoolean(true);
+  private volatile SharedTransientQuery sharedQuery;
+  private TransientQueryQueueMetrics queueMetrics;
 
   public QueuedQueryMetadata(
       final String statementString,
@@ -43,9 +52,45 @@ public class QueuedQueryMetadata extends QueryMetadata {
       final KafkaTopicClient kafkaTopicClient,
       final Topology topology,
       final Map<String, Object> overriddenProperties) {
+    this(statementString, kafkaStreams, outputNode, executionPlan, rowQueue, null,
+        dataSourceType, queryApplicationId, kafkaTopicClient, topology, overriddenProperties,
+        null);
+  }
+
+  public QueuedQueryMetadata(
+      final String statementString,
+      final KafkaStreams kafkaStreams,
+      final OutputNode outputNode,
+      final String executionPlan,
+      final QueuedSchemaKStream resultStream,
+      final DataSource.DataSourceType dataSourceType,
+      final String queryApplicationId,
+      final KafkaTopicClient kafkaTopicClient,
+      final Topology topology,
+      final Map<String, Object> overriddenProperties) {
+    this(statementString, kafkaStreams, outputNode, executionPlan, resultStream.getQueue(),
+        resultStream, dataSourceType, queryApplicationId, kafkaTopicClient, topology,
+        overriddenProperties, null);
+  }
+
+  QueuedQueryMetadata(
+      final String statementString,
+      final KafkaStreams kafkaStreams,
+      final OutputNode outputNode,
+      final String executionPlan,
+      final BlockingQueue<KeyValue<String, GenericRow>> rowQueue,
+      final QueuedSchemaKStream resultStream,
+      final DataSource.DataSourceType dataSourceType,
+      final String queryApplicationId,
+      final KafkaTopicClient kafkaTopicClient,
+      final Topology topology,
+      final Map<String, Object> overriddenProperties,
+      final SharedTransientQuery sharedQuery) {
     super(statementString, kafkaStreams, outputNode, executionPlan, dataSourceType,
           queryApplicationId, kafkaTopicClient, topology, overriddenProperties);
     this.rowQueue = rowQueue;
+    this.resultStream = resultStream;
+    this.sharedQuery = sharedQuery;
   }
 
   public boolean isRunning() {
@@ -76,9 +121,88 @@ public class QueuedQueryMetadata extends QueryMetadata {
     getOutputNode().setLimitHandler(limitHandler);
   }
 
+  public void setQueuedHandler(final OutputNode.QueuedHandler queuedHandler) {
+    getOutputNode().setQueuedHandler(queuedHandler);
+  }
+
+  /**
+   * Sets the handler for exceptions thrown by the threads running this query. Use this rather
+   * than setting the handler on the query's streams, which may be shared with other queries.
+   */
+  public void setUncaughtExceptionHandler(final Thread.UncaughtExceptionHandler handler) {
+    final SharedTransientQuery shared = sharedQuery;
+    if (shared == null) {
+      getKafkaStreams().setUncaughtExceptionHandler(handler);
+    } else {
+      shared.setUncaughtExceptionHandler(this, handler);
+    }
+  }
+
+  QueuedSchemaKStream getResultStream() {
+    return resultStream;
+  }
+
+  void setSharedQuery(final SharedTransientQuery sharedQuery) {
+    this.sharedQuery = sharedQuery;
+  }
+
   @Override
-  public void close() {
+  protected Optional<? extends KafkaStreams.StateListener> getStreamsStateListener() {
+    final SharedTransientQuery shared = sharedQuery;
+    if (shared == null) {
+      return super.getStreamsStateListener();
+    }
+    return Optional.<KafkaStreams.StateListener>of(shared::onStateChange);
+  }
+
+  @Override
+  public void start() {
+    final SharedTransientQuery shared = sharedQuery;
+    if (shared == null) {
+      startStreams();
+    } else {
+      shared.start();
+    }
+  }
+
+  void startStreams() {
+    if (resultStream != null && queueMetrics == null) {
+      queueMetrics = new TransientQueryQueueMetrics(
+          MetricCollectors.getMetrics(), resultStream, getQueryApplicationId());
+    }
+    super.start();
+  }
+
+  void closeStreams() {
     super.close();
+    if (queueMetrics != null) {
+      queueMetrics.close();
+    }
+  }
+
+  @Override
+  public void cleanUpInternalTopicAvroSchemas(final SchemaRegistryClient schemaRegistryClient) {
+    final SharedTransientQuery shared = sharedQuery;
+    if (shared == null) {
+      super.cleanUpInternalTopicAvroSchemas(schemaRegistryClient);
+    } else if (shared.isClosed()) {
+      shared.cleanUpInternalTopicAvroSchemas(schemaRegistryClient);
+    }
+  }
+
+  void cleanUpOwnInternalTopicAvroSchemas(final SchemaRegistryClient schemaRegistryClient) {
+    super.cleanUpInternalTopicAvroSchemas(schemaRegistryClient);
+  }
+
+  @Override
+  public void close() {
+    final SharedTransientQuery shared = sharedQuery;
+    if (shared == null) {
+      closeStreams();
+    } else {
+      shared.release(this);
+      getQueryStateListener().ifPresent(QueryStateListener::close);
+    }
     isRunning.set(false);
   }
 
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded queue, backed by a ring buffer, for handing rows from the threads running a query to
+ * the thread reading its results.
+ *
+ * <p>Reading never takes a lock: a reader claims the element at the head of the buffer by moving
+ * the head on with a compare and set. Writers are serialized with each other, as the same query
+ * may run on several stream threads, but never with the reader. Threads only block, by parking,
+ * when the queue is empty or, under the {@link FullPolicy#BLOCK} policy, full. Only one thread
+ * at a time should wait to read from the queue.
+ *
+ * <p>How a write to a full queue is handled depends on the queue's {@link FullPolicy}.
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+  public enum FullPolicy {
+    /**
+     * Writers wait for the reader to make room, which holds up the thread writing to the queue.
+     */
+    BLOCK,
+    /**
+     * The oldest element in the queue is dropped to make room, so the reader always gets the most
+     * recent elements.
+     */
+    DROP_OLDEST,
+    /**
+     * The element being written is dropped, so the reader gets every element while it keeps up,
+     * and a sample of the elements, at the rate it can read them, while it doesn't.
+     */
+    SAMPLE
+  }
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int mask;
+  private final int capacity;
+  private final FullPolicy fullPolicy;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final Object writeLock = new Object();
+  private volatile Thread waitingReader;
+  private volatile Thread waitingWriter;
+
+  public RingBufferQueue(final int capacity, final FullPolicy fullPolicy) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+    }
+    this.buffer = new AtomicReferenceArray<>(Integer.highestOneBit(capacity * 2 - 1));
+    this.mask = buffer.length() - 1;
+    this.capacity = capacity;
+    this.fullPolicy = Objects.requireNonNull(fullPolicy, "fullPolicy");
+  }
+
+  public FullPolicy getFullPolicy() {
+    return fullPolicy;
+  }
+
+  /**
+   * @return the number of elements dropped by the queue's {@link FullPolicy} so far.
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * Adds an element to the queue as its {@link FullPolicy} allows, waiting for room if the queue
+   * is full and the policy is {@link FullPolicy#BLOCK}.
+   *
+   * @return whether the element was added, rather than dropped.
+   */
+  public boolean enqueue(final E element) throws InterruptedException {
+    return enqueue(element, -1L);
+  }
+
+  @Override
+  public void put(final E element) throws InterruptedException {
+    enqueue(element);
+  }
+
+  @Override
+  public boolean offer(final E element) {
+    try {
+      return enqueue(element, 0L);
+    } catch (final InterruptedException e) {
+      throw new IllegalStateException("Interrupted without waiting", e);
+    }
+  }
+
+  @Override
+  public boolean offer(final E element, final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    return enqueue(element, Math.max(0L, unit.toNanos(timeout)));
+  }
+
+  @Override
+  public E poll() {
+    while (true) {
+      final long currentHead = head.get();
+      if (currentHead >= tail.get()) {
+        return null;
+      }
+
+      final int index = (int) currentHead & mask;
+      final E element = buffer.get(index);
+      if (head.compareAndSet(currentHead, currentHead + 1)) {
+        // Unless a writer has already reused the slot:
+        buffer.compareAndSet(index, element, null);
+        wakeUp(waitingWriter);
+        return element;
+      }
+    }
+  }
+
+  @Override
+  public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return dequeue(Math.max(0L, unit.toNanos(timeout)));
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    return dequeue(-1L);
+  }
+
+  @Override
+  public E peek() {
+    while (true) {
+      final long currentHead = head.get();
+      if (currentHead >= tail.get()) {
+        return null;
+      }
+
+      final E element = buffer.get((int) currentHead & mask);
+      if (head.get() == currentHead) {
+        return element;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    final long size = tail.get() - head.get();
+    return (int) Math.max(0L, Math.min(size, capacity));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public int drainTo(final Collection<? super E> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super E> collection, final int maxElements) {
+    int drained = 0;
+    while (drained < maxElements) {
+      final E element = poll();
+      if (element == null) {
+        break;
+      }
+      collection.add(element);
+      drained++;
+    }
+    return drained;
+  }
+
+  @Override
+  public void clear() {
+    while (poll() != null) {
+      // Keep going until empty.
+    }
+  }
+
+  /**
+   * @return an iterator over a snapshot of the elements in the queue, which doesn't support
+   *     {@code remove}.
+   */
+  @Override
+  public Iterator<E> iterator() {
+    final List<E> snapshot = new ArrayList<>(size());
+    final long end = tail.get();
+    for (long position = head.get(); position < end; position++) {
+      final E element = buffer.get((int) position & mask);
+      if (element != null) {
+        snapshot.add(element);
+      }
+    }
+    final Iterator<E> iterator = snapshot.iterator();
+    return new Iterator<E>() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public E next() {
+        return iterator.next();
+      }
+    };
+  }
+
+  /**
+   * @param timeoutNanos how long to wait for room under {@link FullPolicy#BLOCK}, or a negative
+   *     value to wait for as long as it takes.
+   */
+  private boolean enqueue(final E element, final long timeoutNanos) throws InterruptedException {
+    Objects.requireNonNull(element, "element");
+    final long deadline = System.nanoTime() + timeoutNanos;
+    synchronized (writeLock) {
+      while (true) {
+        if (tryAppend(element)) {
+          wakeUp(waitingReader);
+          return true;
+        }
+
+        switch (fullPolicy) {
+          case DROP_OLDEST:
+            if (poll() != null) {
+              dropped.incrementAndGet();
+            }
+            break;
+          case SAMPLE:
+            dropped.incrementAndGet();
+            return false;
+          default:
+            if (!awaitRoom(timeoutNanos, deadline)) {
+              return false;
+            }
+            break;
+        }
+      }
+    }
+  }
+
+  private boolean tryAppend(final E element) {
+    final long currentTail = tail.get();
+    if (currentTail - head.get() >= capacity) {
+      return false;
+    }
+
+    buffer.set((int) currentTail & mask, element);
+    tail.set(currentTail + 1);
+    return true;
+  }
+
+  private boolean awaitRoom(final long timeoutNanos, final long deadline)
+      throws InterruptedException {
+    final long remaining = deadline - System.nanoTime();
+    if (timeoutNanos >= 0 && remaining <= 0) {
+      return false;
+    }
+
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+
+    waitingWriter = Thread.currentThread();
+    try {
+      // Check again now the reader can see this thread is waiting:
+      if (tail.get() - head.get() >= capacity) {
+        if (timeoutNanos < 0) {
+          LockSupport.park(this);
+        } else {
+          LockSupport.parkNanos(this, remaining);
+        }
+      }
+    } finally {
+      waitingWriter = null;
+    }
+    return true;
+  }
+
+  private E dequeue(final long timeoutNanos) throws InterruptedException {
+    final long deadline = System.nanoTime() + timeoutNanos;
+    while (true) {
+      final E element = poll();
+      if (element != null) {
+        return element;
+      }
+
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+
+      final long remaining = deadline - System.nanoTime();
+      if (timeoutNanos >= 0 && remaining <= 0) {
+        return null;
+      }
+
+      waitingReader = Thread.currentThread();
+      try {
+        // Check again now writers can see this thread is waiting:
+        if (head.get() >= tail.get()) {
+          if (timeoutNanos < 0) {
+            LockSupport.park(this);
+          } else {
+            LockSupport.parkNanos(this, remaining);
+          }
+        }
+      } finally {
+        waitingReader = null;
+      }
+    }
+  }
+
+  private static void wakeUp(final Thread thread) {
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+}
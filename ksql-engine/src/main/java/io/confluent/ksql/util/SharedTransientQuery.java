@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.structured.QueuedSchemaKStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+
+/**
+ * The streams of a running transient query, shared by every identical transient query that has
+ * subscribed to them since.
+ *
+ * <p>Each subscriber has its own row queue and output node, and so its own limit, but the
+ * streams are started by the first subscriber to start and only closed once the last subscriber,
+ * which needn't be the query that built them, is closed.
+ *
+ * <p>Each subscriber has its own query application id, made from the owner's, so the metrics
+ * of each can be told apart, and the state changes of the shared streams are passed on to the
+ * state listener of each.
+ */
+public class SharedTransientQuery {
+
+  private static final Set<KafkaStreams.State> STOPPED_STATES = EnumSet.of(
+      KafkaStreams.State.PENDING_SHUTDOWN,
+      KafkaStreams.State.NOT_RUNNING,
+      KafkaStreams.State.ERROR);
+
+  private final QueuedQueryMetadata owner;
+  private final QueuedSchemaKStream resultStream;
+  private final KafkaTopicClient kafkaTopicClient;
+  private final Consumer<SharedTransientQuery> onClose;
+  private final Map<QueuedQueryMetadata, Thread.UncaughtExceptionHandler> handlers =
+      new IdentityHashMap<>();
+  private final Set<QueuedQueryMetadata> subscribers =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  private boolean started = false;
+  private boolean closed = false;
+  private int subscriptions = 0;
+
+  /**
+   * @param owner the query that built the streams, which must not have been started yet.
+   * @param kafkaTopicClient the client used to clean up after the streams once closed.
+   * @param onClose called once the last subscriber has been closed, before the streams are.
+   */
+  public SharedTransientQuery(
+      final QueuedQueryMetadata owner,
+      final KafkaTopicClient kafkaTopicClient,
+      final Consumer<SharedTransientQuery> onClose
+  ) {
+    this.owner = Objects.requireNonNull(owner, "owner");
+    this.resultStream = Objects.requireNonNull(owner.getResultStream(), "owner's result stream");
+    this.kafkaTopicClient = Objects.requireNonNull(kafkaTopicClient, "kafkaTopicClient");
+    this.onClose = Objects.requireNonNull(onClose, "onClose");
+
+    subscribers.add(owner);
+    owner.setSharedQuery(this);
+    owner.getKafkaStreams().setUncaughtExceptionHandler(this::uncaughtException);
+  }
+
+  /**
+   * Subscribes a new query to the shared streams.
+   *
+   * @param statementString the statement of the new query.
+   * @param outputNode the output node planned for the new query, whose limit applies to it.
+   * @return the new query, or {@code null} if the shared streams have been, or are being,
+   *     closed, or have failed.
+   */
+  public synchronized QueuedQueryMetadata subscribe(
+      final String statementString,
+      final OutputNode outputNode
+  ) {
+    if (closed || STOPPED_STATES.contains(owner.getKafkaStreams().state())) {
+      return null;
+    }
+
+    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
+        resultStream.addQueue(outputNode.getCallback());
+    final QueuedQueryMetadata subscriber = new QueuedQueryMetadata(
+        statementString,
+        owner.getKafkaStreams(),
+        outputNode,
+        owner.getExecutionPlan(),
+        rowQueue,
+        resultStream,
+        owner.getDataSourceType(),
+        owner.getQueryApplicationId() + "_" + ++subscriptions,
+        kafkaTopicClient,
+        owner.getTopology(),
+        owner.getOverriddenProperties(),
+        this);
+    subscribers.add(subscriber);
+    return subscriber;
+  }
+
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  synchronized void setUncaughtExceptionHandler(
+      final QueuedQueryMetadata subscriber,
+      final Thread.UncaughtExceptionHandler handler
+  ) {
+    if (subscribers.contains(subscriber)) {
+      handlers.put(subscriber, handler);
+    }
+  }
+
+  synchronized void start() {
+    if (!started && !closed) {
+      started = true;
+      owner.startStreams();
+    }
+  }
+
+  void release(final QueuedQueryMetadata subscriber) {
+    synchronized (this) {
+      if (!subscribers.remove(subscriber)) {
+        return;
+      }
+      handlers.remove(subscriber);
+      resultStream.removeQueue(subscriber.getRowQueue());
+      if (!subscribers.isEmpty()) {
+        return;
+      }
+      closed = true;
+    }
+
+    // Closing the streams waits on their threads, which may be calling uncaughtException:
+    onClose.accept(this);
+    owner.closeStreams();
+  }
+
+  void onStateChange(final KafkaStreams.State newState, final KafkaStreams.State oldState) {
+    final List<QueryStateListener> toNotify = new ArrayList<>();
+    synchronized (this) {
+      subscribers.forEach(subscriber ->
+          subscriber.getQueryStateListener().ifPresent(toNotify::add));
+    }
+    toNotify.forEach(listener -> listener.onChange(newState, oldState));
+  }
+
+  void cleanUpInternalTopicAvroSchemas(final SchemaRegistryClient schemaRegistryClient) {
+    owner.cleanUpOwnInternalTopicAvroSchemas(schemaRegistryClient);
+  }
+
+  private void uncaughtException(final Thread thread, final Throwable exception) {
+    final List<Thread.UncaughtExceptionHandler> toNotify;
+    synchronized (this) {
+      toNotify = new ArrayList<>(handlers.values());
+    }
+    toNotify.forEach(handler -> handler.uncaughtException(thread, exception));
+  }
+}
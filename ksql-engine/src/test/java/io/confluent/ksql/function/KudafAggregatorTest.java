@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Merger;
+import org.junit.Test;
+
+public class KudafAggregatorTest {
+
+  private static final GroupByKey KEY = new GroupByKey(Arrays.asList("jon", 1L));
+
+  private final KudafAggregator aggregator = createAggregator();
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldAggregateRowsWithGroupByKey() {
+    // Streams calls the aggregator through the erased interface:
+    final Aggregator<Object, GenericRow, GenericRow> erased = (Aggregator) aggregator;
+
+    final GenericRow result = erased.apply(
+        KEY,
+        new GenericRow(Arrays.asList("jon", 3)),
+        new GenericRow(Arrays.asList("jon", 5)));
+
+    assertThat(result, equalTo(new GenericRow(Arrays.asList("jon", 8))));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldMergeSessionsWithGroupByKey() {
+    final Merger<Object, GenericRow> erased = (Merger) aggregator.getMerger();
+
+    final GenericRow result = erased.apply(
+        KEY,
+        new GenericRow(Arrays.asList("jon", 3)),
+        new GenericRow(Arrays.asList("jon", 5)));
+
+    assertThat(result.getColumns().get(1), equalTo(8));
+  }
+
+  @Test
+  public void shouldMergePartialAggregates() {
+    final GenericRow result = aggregator.getPartialAggregateMerger().apply(
+        KEY,
+        new GenericRow(Arrays.asList("jon", 3)),
+        new GenericRow(Arrays.asList("jon", 5)));
+
+    assertThat(result, equalTo(new GenericRow(Arrays.asList("jon", 8))));
+  }
+
+  @Test
+  public void shouldAggregateEachFunctionIntoItsOwnColumn() {
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap = new HashMap<>();
+    aggValToAggFunctionMap.put(1, functionRegistry
+        .getAggregate("MIN", Schema.OPTIONAL_INT32_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            Collections.singletonMap("baz", 1), Collections.singletonList("baz"))));
+    aggValToAggFunctionMap.put(2, functionRegistry
+        .getAggregate("MAX", Schema.OPTIONAL_INT32_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            Collections.singletonMap("baz", 1), Collections.singletonList("baz"))));
+    final KudafAggregator minMax =
+        new KudafAggregator(aggValToAggFunctionMap, Collections.singletonMap(0, 0));
+
+    // Outside the Integer cache, so reboxing would return a different instance:
+    final Integer min = 1000;
+    final GenericRow result = minMax.apply(
+        KEY,
+        new GenericRow(Arrays.asList("jon", min)),
+        new GenericRow(Arrays.asList("ann", 4000, 6000)));
+
+    assertThat(result, equalTo(new GenericRow(Arrays.asList("jon", 1000, 6000))));
+    assertThat(result.getColumns().get(1), sameInstance(min));
+  }
+
+  private static KudafAggregator createAggregator() {
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final Map<Integer, Integer> aggValToValColumnMap = Collections.singletonMap(0, 0);
+    final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap = new HashMap<>();
+    aggValToAggFunctionMap.put(1, functionRegistry
+        .getAggregate("SUM", Schema.OPTIONAL_INT32_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            Collections.singletonMap("baz", 1), Collections.singletonList("baz"))));
+    return new KudafAggregator(aggValToAggFunctionMap, aggValToValColumnMap);
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.connect.data.Schema;
@@ -120,6 +121,28 @@ public class IntTopkKudafTest {
     assertThat(combined.get(2), is(298));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldAggregateLikeSortingAllValues() {
+    // Given:
+    topkKudaf = new TopKAggregateFunctionFactory(20)
+        .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_INT32_SCHEMA));
+    final Random random = new Random(42);
+    final List<Integer> values = IntStream.range(0, 500)
+        .mapToObj(i -> random.nextInt(100))
+        .collect(Collectors.toList());
+
+    // When:
+    List<Integer> aggregate = new ArrayList<>();
+    for (final Integer value : values) {
+      aggregate = topkKudaf.aggregate(value, aggregate);
+    }
+
+    // Then:
+    values.sort(Comparator.reverseOrder());
+    assertThat(aggregate, equalTo(values.subList(0, 20)));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldBeThreadSafe() {
@@ -24,7 +24,9 @@ import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.connect.data.Schema;
@@ -56,6 +58,30 @@ public class IntTopkDistinctKudafTest {
     assertThat("Invalid results.", currentVal, equalTo(ImmutableList.of(80)));
   }
 
+  @Test
+  public void shouldAggregateLikeSortingAllDistinctValues() {
+    // Given:
+    final TopkDistinctKudaf<Integer> topkDistinctKudaf =
+        TopKDistinctTestUtils.getTopKDistinctKudaf(20, Schema.OPTIONAL_INT32_SCHEMA);
+    final Random random = new Random(42);
+    final List<Integer> values = IntStream.range(0, 500)
+        .mapToObj(i -> random.nextInt(100))
+        .collect(Collectors.toList());
+
+    // When:
+    List<Integer> aggregate = new ArrayList<>();
+    for (final Integer value : values) {
+      aggregate = topkDistinctKudaf.aggregate(value, aggregate);
+    }
+
+    // Then:
+    assertThat(aggregate, equalTo(values.stream()
+        .distinct()
+        .sorted(Comparator.reverseOrder())
+        .limit(20)
+        .collect(Collectors.toList())));
+  }
+
   @Test
   public void shouldMergeTopK() {
     final List<Integer> array1 = ImmutableList.of(50, 45, 25);
@@ -20,8 +20,10 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.KudfTester;
+import java.util.List;
 import java.util.stream.IntStream;
 import org.junit.Before;
 import org.junit.Test;
@@ -107,6 +109,89 @@ public class JsonExtractStringKudfTest {
     udf.evaluate("this is NOT a JSON doc", "$.thing1");
   }
 
+  @Test(expected = KsqlFunctionException.class)
+  public void shouldThrowOnInvalidJsonAfterExtractedField() {
+    udf.evaluate("{\"thing1\":\"hello\", this is NOT JSON", "$.thing1");
+  }
+
+  @Test
+  public void shouldThrowOnEveryCallSharingAnInvalidJsonDoc() {
+    // Given:
+    final String doc = "{\"thing1\":\"hello\", this is NOT JSON";
+    int failures = 0;
+
+    // When:
+    for (final String path : ImmutableList.of("$.thing1", "$.thing1", "$.thing2")) {
+      try {
+        new JsonExtractStringKudf().evaluate(doc, path);
+      } catch (final KsqlFunctionException e) {
+        failures++;
+      }
+    }
+
+    // Then:
+    assertThat(failures, is(3));
+  }
+
+  @Test
+  public void shouldThrowOnEveryCallSharingAJsonDocWithDuplicateFields() {
+    // Given:
+    final String doc = "{\"thing1\":\"first\", \"thing1\":\"last\"}";
+    int failures = 0;
+
+    // When:
+    for (final JsonExtractStringKudf kudf
+        : ImmutableList.of(new JsonExtractStringKudf(), new JsonExtractStringKudf())) {
+      try {
+        kudf.evaluate(doc, "$.thing1");
+      } catch (final KsqlFunctionException e) {
+        failures++;
+      }
+    }
+
+    // Then:
+    assertThat(failures, is(2));
+  }
+
+  @Test(expected = KsqlFunctionException.class)
+  public void shouldThrowOnDuplicateFieldsNestedAfterExtractedField() {
+    udf.evaluate("{\"thing1\":\"hello\", \"thing2\":{\"a\":1, \"a\":2}}", "$.thing1");
+  }
+
+  @Test
+  public void shouldExtractSameValuesWhenDocumentIsShared() {
+    // Given:
+    final String doc = "{"
+        + "\"a\":{\"b\":[1, 2.50, {\"c\":null}], \"d\":\"x\"},"
+        + "\"e\":true"
+        + "}";
+    final List<String> paths = ImmutableList.of(
+        "$.a", "$.a.b", "$.a.b.1", "$.a.b.2.c", "$.a.b.3", "$.a.b.x", "$.a.d", "$.a.d.x", "$.e");
+
+    for (final String path : paths) {
+      // When:
+      final String copy = new String(doc);
+      final Object streamed = new JsonExtractStringKudf().evaluate(copy, path);
+      final Object shared = new JsonExtractStringKudf().evaluate(copy, path);
+
+      // Then:
+      assertThat(path, shared, is(streamed));
+    }
+  }
+
+  @Test
+  public void shouldExtractDifferentFieldsFromSharedDocument() {
+    // When:
+    final Object field = udf.evaluate(JSON_DOC, "$.thing1.thing2");
+    final Object element = new JsonExtractStringKudf().evaluate(JSON_DOC, "$.array.0");
+    final Object doc = new JsonExtractStringKudf().evaluate(JSON_DOC, "$.thing1");
+
+    // Then:
+    assertThat(field, is("hello"));
+    assertThat(element, is("101"));
+    assertThat(doc, is("{\"thing2\":\"hello\"}"));
+  }
+
   @Test
   public void shouldBeThreadSafe() {
     IntStream.range(0, 10_000)
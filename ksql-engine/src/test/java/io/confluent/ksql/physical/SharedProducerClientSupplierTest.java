@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ **/
+
+package io.confluent.ksql.physical;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.newCapture;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.easymock.Capture;
+import org.easymock.EasyMockRunner;
+import org.easymock.Mock;
+import org.easymock.MockType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public class SharedProducerClientSupplierTest {
+
+  private static final ProducerRecord<byte[], byte[]> RECORD =
+      new ProducerRecord<>("topic", new byte[]{1});
+
+  @Mock(MockType.STRICT)
+  private KafkaClientSupplier delegate;
+  @Mock(MockType.NICE)
+  private Producer<byte[], byte[]> producer1;
+  @Mock(MockType.NICE)
+  private Producer<byte[], byte[]> producer2;
+
+  @Test
+  public void shouldHandOutPooledProducersRoundRobin() {
+    // Given:
+    final Capture<Map<String, Object>> config = newCapture();
+    expect(delegate.getProducer(capture(config))).andReturn(producer1);
+    expect(delegate.getProducer(anyObject())).andReturn(producer2);
+    expect(producer1.send(RECORD)).andReturn(null).times(2);
+    expect(producer2.send(RECORD)).andReturn(null);
+    replay(delegate, producer1, producer2);
+    final SharedProducerClientSupplier supplier = new SharedProducerClientSupplier(delegate, 2);
+
+    // When:
+    supplier.getProducer(producerConfig("query-1")).send(RECORD);
+    supplier.getProducer(producerConfig("query-2")).send(RECORD);
+    supplier.getProducer(producerConfig("query-3")).send(RECORD);
+
+    // Then:
+    verify(delegate, producer1, producer2);
+    assertThat(config.getValue().get(ProducerConfig.CLIENT_ID_CONFIG),
+        equalTo("ksql-shared-producer-0"));
+  }
+
+  @Test
+  public void shouldUseSeparatePoolsForDifferentConfigs() {
+    // Given:
+    expect(delegate.getProducer(anyObject())).andReturn(producer1);
+    expect(delegate.getProducer(anyObject())).andReturn(producer2);
+    replay(delegate);
+    final SharedProducerClientSupplier supplier = new SharedProducerClientSupplier(delegate, 1);
+
+    // When:
+    final Producer<byte[], byte[]> first = supplier.getProducer(producerConfig("query-1"));
+    final Producer<byte[], byte[]> second = supplier.getProducer(ImmutableMap.of(
+        ProducerConfig.CLIENT_ID_CONFIG, "query-2",
+        ProducerConfig.ACKS_CONFIG, "1"));
+
+    // Then:
+    assertThat(first, not(sameInstance(second)));
+    verify(delegate);
+  }
+
+  @Test
+  public void shouldNotShareTransactionalProducers() {
+    // Given:
+    final Map<String, Object> config = ImmutableMap.of(
+        ProducerConfig.CLIENT_ID_CONFIG, "query-1",
+        ProducerConfig.TRANSACTIONAL_ID_CONFIG, "query-1-0_0");
+    expect(delegate.getProducer(config)).andReturn(producer1);
+    replay(delegate);
+    final SharedProducerClientSupplier supplier = new SharedProducerClientSupplier(delegate, 1);
+
+    // When:
+    final Producer<byte[], byte[]> producer = supplier.getProducer(config);
+
+    // Then:
+    assertThat(producer, sameInstance(producer1));
+    verify(delegate);
+  }
+
+  @Test
+  public void shouldOnlyClosePooledProducersWhenSupplierIsClosed() {
+    // Given:
+    expect(delegate.getProducer(anyObject())).andReturn(producer1);
+    producer1.close();
+    expectLastCall().once();
+    replay(delegate, producer1);
+    final SharedProducerClientSupplier supplier = new SharedProducerClientSupplier(delegate, 1);
+
+    // When:
+    supplier.getProducer(producerConfig("query-1")).close();
+    supplier.getProducer(producerConfig("query-2")).close();
+    supplier.close();
+
+    // Then:
+    verify(producer1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnEmptyPool() {
+    new SharedProducerClientSupplier(delegate, 0);
+  }
+
+  private static Map<String, Object> producerConfig(final String clientId) {
+    return ImmutableMap.of(
+        ProducerConfig.CLIENT_ID_CONFIG, clientId,
+        ProducerConfig.ACKS_CONFIG, "all");
+  }
+}
@@ -18,8 +18,10 @@ package io.confluent.ksql.planner;
 
 import static io.confluent.ksql.testutils.AnalysisTestUtil.analyzeQuery;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import io.confluent.ksql.analyzer.AggregateAnalysis;
 import io.confluent.ksql.analyzer.AggregateAnalyzer;
 import io.confluent.ksql.analyzer.Analysis;
@@ -245,4 +247,27 @@ public class LogicalPlannerTest {
     assertThat(logicalPlan.getNodeOutputType(), equalTo(DataSourceType.KTABLE));
   }
 
+  @Test
+  public void shouldOnlyRequireSourceColumnsReadByTheQuery() {
+    final String simpleQuery = "SELECT col2, col3 FROM test1 WHERE col1 = 'foo';";
+    final PlanNode logicalPlan = buildLogicalPlan(simpleQuery);
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0).getSources().get(0);
+
+    // COL0 is the key field of TEST1
+    assertThat(sourceNode.getRequiredColumns(),
+        containsInAnyOrder("COL0", "COL1", "COL2", "COL3"));
+  }
+
+  @Test
+  public void shouldRequireAllSourceColumnsForSelectStar() {
+    final String simpleQuery = "SELECT * FROM test1;";
+    final PlanNode logicalPlan = buildLogicalPlan(simpleQuery);
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0);
+
+    assertThat(sourceNode.getRequiredColumns(),
+        hasItems("COL0", "COL1", "COL2", "COL3", "COL4", "COL5"));
+  }
+
 }
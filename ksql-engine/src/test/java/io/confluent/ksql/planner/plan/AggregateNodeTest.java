@@ -22,9 +22,12 @@ import static io.confluent.ksql.planner.plan.PlanTestUtil.getNodeByName;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.schema.registry.MockSchemaRegistryClientFactory;
@@ -38,10 +41,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.TopologyDescription;
 import org.easymock.EasyMock;
 import org.junit.Test;
@@ -49,7 +54,11 @@ import org.junit.Test;
 public class AggregateNodeTest {
   private final KafkaTopicClient topicClient = EasyMock.createNiceMock(KafkaTopicClient.class);
 
-  private final KsqlConfig ksqlConfig =  new KsqlConfig(new HashMap<>());
+  private static final String PARTIAL_AGGREGATE_STORE = "KSQL_PARTIAL_AGGREGATE";
+  private static final String PARTIAL_AGGREGATE_TIMESTAMP_STORE =
+      "KSQL_PARTIAL_AGGREGATE_TIMESTAMP";
+
+  private KsqlConfig ksqlConfig =  new KsqlConfig(new HashMap<>());
   private final StreamsBuilder builder = new StreamsBuilder();
 
   @Test
@@ -120,6 +129,65 @@ public class AggregateNodeTest {
     assertTrue(((SchemaKTable)stream).isWindowed());
   }
 
+  @Test
+  public void shouldBufferPartialAggregatesBeforeRepartitionWhenEnabled() {
+    // Given:
+    givenPartialAggregatesEnabled();
+
+    // When:
+    buildQuery("SELECT col1, sum(col3), count(col3) FROM test1 GROUP BY col1;");
+
+    // Then:
+    final TopologyDescription description = builder.build().describe();
+    assertThat(description.subtopologies().size(), equalTo(2));
+    final TopologyDescription.Subtopology beforeRepartition = description.subtopologies().stream()
+        .filter(subtopology -> subtopology.nodes().stream()
+            .anyMatch(node -> node.name().equals(SOURCE_NODE)))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+    assertThat(storeNames(beforeRepartition),
+        hasItems(PARTIAL_AGGREGATE_STORE, PARTIAL_AGGREGATE_TIMESTAMP_STORE));
+  }
+
+  @Test
+  public void shouldNotBufferPartialAggregatesForWindowedAggregation() {
+    // Given:
+    givenPartialAggregatesEnabled();
+
+    // When:
+    buildRequireRekey();
+
+    // Then:
+    assertThat(storeNames(builder.build()), not(hasItem(PARTIAL_AGGREGATE_STORE)));
+  }
+
+  @Test
+  public void shouldNotBufferPartialAggregatesByDefault() {
+    // When:
+    buildQuery("SELECT col1, sum(col3), count(col3) FROM test1 GROUP BY col1;");
+
+    // Then:
+    assertThat(storeNames(builder.build()), not(hasItem(PARTIAL_AGGREGATE_STORE)));
+  }
+
+  private void givenPartialAggregatesEnabled() {
+    ksqlConfig = new KsqlConfig(
+        ImmutableMap.of(KsqlConfig.KSQL_GROUP_BY_PARTIAL_AGGREGATE_CONFIG, true));
+  }
+
+  private static Set<String> storeNames(final Topology topology) {
+    return topology.describe().subtopologies().stream()
+        .flatMap(subtopology -> storeNames(subtopology).stream())
+        .collect(Collectors.toSet());
+  }
+
+  private static Set<String> storeNames(final TopologyDescription.Subtopology subtopology) {
+    return subtopology.nodes().stream()
+        .filter(node -> node instanceof TopologyDescription.Processor)
+        .flatMap(node -> ((TopologyDescription.Processor) node).stores().stream())
+        .collect(Collectors.toSet());
+  }
+
   private SchemaKStream build() {
     return buildQuery("SELECT col0, sum(col3), count(col3) FROM test1 window TUMBLING ( "
         + "size 2 "
@@ -38,6 +38,7 @@ import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
+import org.easymock.IMocksControl;
 import org.easymock.Mock;
 import org.easymock.MockType;
 import org.junit.Before;
@@ -57,6 +58,8 @@ public class OutputNodeTest {
   private TimestampExtractionPolicy timestampExtractionPolicy;
   @Mock
   private OutputNode.LimitHandler limitHandler;
+  @Mock
+  private OutputNode.QueuedHandler queuedHandler;
   private OutputNode node;
   private OutputNode.Callback callback;
 
@@ -149,6 +152,50 @@ public class OutputNodeTest {
     verify(limitHandler);
   }
 
+  @Test
+  public void shouldCallQueuedHandlerForEachQueuedRow() {
+    // Given:
+    givenOutputNodeWithLimit(Optional.empty());
+    node.setQueuedHandler(queuedHandler);
+
+    queuedHandler.rowQueued();
+    expectLastCall().times(2);
+
+    replay(queuedHandler);
+
+    // When:
+    callback.onQueued();
+    callback.onQueued();
+
+    // Then:
+    verify(queuedHandler);
+  }
+
+  @Test
+  public void shouldCallQueuedHandlerBeforeLimitHandler() {
+    // Given:
+    givenOutputNodeWithLimit(Optional.of(1));
+
+    final IMocksControl control = EasyMock.createStrictControl();
+    final OutputNode.QueuedHandler orderedQueuedHandler =
+        control.createMock(OutputNode.QueuedHandler.class);
+    final OutputNode.LimitHandler orderedLimitHandler =
+        control.createMock(OutputNode.LimitHandler.class);
+    node.setQueuedHandler(orderedQueuedHandler);
+    node.setLimitHandler(orderedLimitHandler);
+
+    orderedQueuedHandler.rowQueued();
+    orderedLimitHandler.limitReached();
+
+    control.replay();
+
+    // When:
+    callback.onQueued();
+
+    // Then:
+    control.verify();
+  }
+
   private void givenOutputNodeWithLimit(final Optional<Integer> limit) {
     node = new TestOutputNode(id, source, schema, limit, timestampExtractionPolicy);
     node.setLimitHandler(limitHandler);
@@ -112,6 +112,36 @@ public class ProjectNodeTest {
     EasyMock.verify(stream);
   }
 
+  @Test
+  public void shouldFilterAndSelectInOneStepIfFusionEnabled() {
+    mockSourceNode();
+    EasyMock.expect(source.getSchema()).andReturn(SchemaBuilder.struct().build());
+    final BooleanLiteral trueExpression = new BooleanLiteral("true");
+    final BooleanLiteral filterExpression = new BooleanLiteral("false");
+    EasyMock.expect(stream.filterAndSelect(
+        filterExpression,
+        Collections.singletonList(new Pair<>("field1", trueExpression))))
+        .andReturn(stream);
+
+    EasyMock.replay(source, stream);
+
+    final ProjectNode node = new ProjectNode(new PlanNodeId("1"),
+        new FilterNode(new PlanNodeId("0"), source, filterExpression),
+        SchemaBuilder.struct()
+            .field("field1", Schema.OPTIONAL_STRING_SCHEMA)
+            .build(),
+        Collections.singletonList(trueExpression));
+
+    node.buildStream(builder,
+        new KsqlConfig(
+            Collections.singletonMap(KsqlConfig.KSQL_FUSE_FILTER_PROJECT_CONFIG, true)),
+        kafkaTopicClient,
+        functionRegistry,
+        props, new MockSchemaRegistryClientFactory()::get);
+
+    EasyMock.verify(stream);
+  }
+
   @SuppressWarnings("unchecked")
   private void mockSourceNode() {
     EasyMock.expect(source.getKeyField()).andReturn(new Field("field1", 0, Schema.OPTIONAL_STRING_SCHEMA));
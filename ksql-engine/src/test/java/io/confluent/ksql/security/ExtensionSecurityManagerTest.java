@@ -79,5 +79,27 @@ public class ExtensionSecurityManagerTest {
       return null;
     }, new Object()).evaluate();
   }
-  
+
+  @Test(expected = SecurityException.class)
+  public void shouldNotAllowExitWhenNestedPluggableUDFReturns() {
+    new PluggableUdf((thiz, args) -> {
+      new PluggableUdf((innerThiz, innerArgs) -> null, new Object()).evaluate();
+      System.exit(1);
+      return null;
+    }, new Object()).evaluate();
+  }
+
+  @Test
+  public void shouldAllowExitAfterPluggableUDFThrows() {
+    try {
+      new PluggableUdf((thiz, args) -> {
+        throw new IllegalStateException("boom");
+      }, new Object()).evaluate();
+    } catch (final IllegalStateException e) {
+      // expected
+    }
+
+    ExtensionSecurityManager.INSTANCE.checkExit(0);
+  }
+
 }
\ No newline at end of file
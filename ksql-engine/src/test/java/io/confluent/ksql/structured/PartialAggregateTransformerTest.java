@@ -0,0 +1,267 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafInitializer;
+import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.MockProcessorContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartialAggregateTransformerTest {
+
+  private static final String STORE_NAME = "partials";
+  private static final String TIMESTAMP_STORE_NAME = "partial-timestamps";
+
+  private static final Schema PARTIAL_SCHEMA = SchemaBuilder.struct()
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("SUM", Schema.OPTIONAL_INT32_SCHEMA)
+      .build();
+
+  private final MockProcessorContext context = new MockProcessorContext();
+  private KeyValueStore<String, GenericRow> store;
+  private KeyValueStore<String, Long> timestampStore;
+
+  @Before
+  public void setUp() {
+    store = Stores.keyValueStoreBuilder(
+        Stores.inMemoryKeyValueStore(STORE_NAME),
+        Serdes.String(),
+        new KsqlJsonTopicSerDe().getGenericRowSerde(
+            PARTIAL_SCHEMA, new KsqlConfig(Collections.emptyMap()), true, () -> null))
+        .withLoggingDisabled()
+        .build();
+    store.init(context, store);
+    timestampStore = Stores.keyValueStoreBuilder(
+        Stores.inMemoryKeyValueStore(TIMESTAMP_STORE_NAME),
+        Serdes.String(),
+        Serdes.Long())
+        .withLoggingDisabled()
+        .build();
+    timestampStore.init(context, timestampStore);
+    context.setTimestamp(0L);
+  }
+
+  @Test
+  public void shouldForwardOnePartialAggregatePerGroupWhenPunctuated() {
+    // Given:
+    final PartialAggregateTransformer<String> transformer = createTransformer(100);
+
+    // When:
+    assertThat(transformer.transform("1", row("jon", 1)), nullValue());
+    transformer.transform("2", row("jon", 2));
+    transformer.transform("3", row("ann", 5));
+
+    // Then:
+    assertThat(context.forwarded(), empty());
+    punctuate();
+    assertThat(forwarded(), containsInAnyOrder(
+        KeyValue.pair("jon", row("jon", 3)),
+        KeyValue.pair("ann", row("ann", 5))));
+  }
+
+  @Test
+  public void shouldNotForwardPartialAggregatesTwice() {
+    // Given:
+    final PartialAggregateTransformer<String> transformer = createTransformer(100);
+    transformer.transform("1", row("jon", 1));
+    punctuate();
+    context.resetForwards();
+
+    // When:
+    punctuate();
+    transformer.transform("2", row("jon", 2));
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(),
+        equalTo(Collections.singletonList(KeyValue.pair("jon", row("jon", 2)))));
+  }
+
+  @Test
+  public void shouldForwardPartialAggregatesOnceMaxKeysAreBuffered() {
+    // Given:
+    final PartialAggregateTransformer<String> transformer = createTransformer(2);
+    transformer.transform("1", row("jon", 1));
+    transformer.transform("2", row("jon", 2));
+    assertThat(context.forwarded(), empty());
+
+    // When:
+    transformer.transform("3", row("ann", 5));
+
+    // Then:
+    assertThat(forwarded(), containsInAnyOrder(
+        KeyValue.pair("jon", row("jon", 3)),
+        KeyValue.pair("ann", row("ann", 5))));
+  }
+
+  @Test
+  public void shouldCountRestoredPartialAggregatesTowardsMaxKeys() {
+    // Given:
+    givenRestoredPartial("ann", row("ann", 5), 0L);
+    final PartialAggregateTransformer<String> transformer = createTransformer(2);
+
+    // When:
+    transformer.transform("1", row("jon", 1));
+
+    // Then:
+    assertThat(forwarded(), containsInAnyOrder(
+        KeyValue.pair("jon", row("jon", 1)),
+        KeyValue.pair("ann", row("ann", 5))));
+  }
+
+  @Test
+  public void shouldForwardPartialAggregatesWithLatestTimestampOfTheirRows() {
+    // Given:
+    final PartialAggregateTransformer<String> transformer = createTransformer(100);
+    context.setTimestamp(200L);
+    transformer.transform("1", row("jon", 1));
+    context.setTimestamp(100L);
+    transformer.transform("2", row("jon", 2));
+    context.setTimestamp(150L);
+    transformer.transform("3", row("ann", 5));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwardedTimestamps(), equalTo(ImmutableMap.of("jon", 200L, "ann", 150L)));
+  }
+
+  @Test
+  public void shouldForwardRestoredPartialAggregatesWithTheirOwnTimestamp() {
+    // Given:
+    givenRestoredPartial("ann", row("ann", 5), 50L);
+    createTransformer(100);
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwardedTimestamps(), equalTo(ImmutableMap.of("ann", 50L)));
+  }
+
+  @Test
+  public void shouldKeepLatestTimestampWhenAddingToRestoredPartialAggregate() {
+    // Given:
+    givenRestoredPartial("ann", row("ann", 5), 500L);
+    givenRestoredPartial("jon", row("jon", 1), 50L);
+    final PartialAggregateTransformer<String> transformer = createTransformer(100);
+    context.setTimestamp(300L);
+    transformer.transform("1", row("ann", 1));
+    transformer.transform("2", row("jon", 2));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwardedTimestamps(), equalTo(ImmutableMap.of("ann", 500L, "jon", 300L)));
+  }
+
+  @Test
+  public void shouldNotKeepTimestampsOfForwardedPartialAggregates() {
+    // Given:
+    final PartialAggregateTransformer<String> transformer = createTransformer(100);
+    context.setTimestamp(500L);
+    transformer.transform("1", row("jon", 1));
+    punctuate();
+    context.resetForwards();
+
+    // When:
+    context.setTimestamp(100L);
+    transformer.transform("2", row("jon", 2));
+    punctuate();
+
+    // Then:
+    assertThat(forwardedTimestamps(), equalTo(ImmutableMap.of("jon", 100L)));
+  }
+
+  private PartialAggregateTransformer<String> createTransformer(final int maxKeys) {
+    final KsqlAggregateFunction sum = new InternalFunctionRegistry()
+        .getAggregate("SUM", Schema.OPTIONAL_INT32_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(
+            Collections.singletonMap("SUM", 1), Collections.singletonList("SUM")));
+    final KudafInitializer initializer = new KudafInitializer(1);
+    initializer.addAggregateIntializer(sum.getInitialValueSupplier());
+
+    final PartialAggregateTransformer<String> transformer = new PartialAggregateTransformer<>(
+        STORE_NAME,
+        TIMESTAMP_STORE_NAME,
+        (key, value) -> (String) value.getColumns().get(0),
+        initializer,
+        new KudafAggregator(Collections.singletonMap(1, sum), Collections.singletonMap(0, 0)),
+        maxKeys,
+        1000L);
+    transformer.init(context);
+    return transformer;
+  }
+
+  private void givenRestoredPartial(
+      final String key,
+      final GenericRow partial,
+      final long timestamp) {
+    store.put(key, partial);
+    timestampStore.put(key, timestamp);
+  }
+
+  private void punctuate() {
+    context.scheduledPunctuators().forEach(
+        punctuator -> punctuator.getPunctuator().punctuate(0L));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<KeyValue<String, GenericRow>> forwarded() {
+    return context.forwarded().stream()
+        .map(forward -> (KeyValue<String, GenericRow>) forward.keyValue())
+        .collect(Collectors.toList());
+  }
+
+  private Map<String, Long> forwardedTimestamps() {
+    return context.forwarded().stream()
+        .collect(Collectors.toMap(
+            forward -> (String) forward.keyValue().key,
+            MockProcessorContext.CapturedForward::timestamp));
+  }
+
+  private static GenericRow row(final String name, final int value) {
+    return new GenericRow(Arrays.asList(name, value));
+  }
+}
@@ -303,6 +303,29 @@ public class SchemaKStreamTest {
     Assert.assertTrue(filteredSchemaKStream.getSourceSchemaKStreams().get(0) == initialSchemaKStream);
   }
 
+  @Test
+  public void shouldFilterAndSelectInOneStep() {
+    final String selectQuery = "SELECT col0 AS NEWKEY, col2, col3 FROM test1 WHERE col0 > 100;";
+    final PlanNode logicalPlan = planBuilder.buildLogicalPlan(selectQuery);
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSource();
+    initialSchemaKStream = new SchemaKStream(logicalPlan.getTheSourceNode().getSchema(), kStream,
+        ksqlStream.getKeyField(), new ArrayList<>(),
+        SchemaKStream.Type.SOURCE, ksqlConfig,
+        functionRegistry, schemaRegistryClient);
+
+    final SchemaKStream projectedSchemaKStream = initialSchemaKStream.filterAndSelect(
+        filterNode.getPredicate(), projectNode.getProjectNameExpressionPairList());
+
+    assertThat(projectedSchemaKStream.getSchema(), equalTo(
+        initialSchemaKStream.select(projectNode.getProjectNameExpressionPairList()).getSchema()));
+    assertThat(projectedSchemaKStream.getKeyField(),
+        equalTo(new Field("NEWKEY", 0, Schema.OPTIONAL_INT64_SCHEMA)));
+    assertThat(projectedSchemaKStream.getType(), equalTo(SchemaKStream.Type.FILTER_PROJECT));
+    assertThat(projectedSchemaKStream.getSourceSchemaKStreams(),
+        equalTo(Collections.singletonList(initialSchemaKStream)));
+  }
+
   @Test
   public void testSelectKey() {
     final String selectQuery = "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;";
@@ -30,6 +30,7 @@ import static org.junit.Assert.assertThat;
 
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.KsqlTopic;
@@ -301,6 +302,48 @@ public class SchemaKTableTest {
     assertThat(keyValue.value, equalTo(value));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldGroupKeysAsGroupByKeyIfBinaryKeysEnabled() {
+    final KTable mockKTable = mock(KTable.class);
+    final KGroupedTable mockKGroupedTable = mock(KGroupedTable.class);
+    final Capture<KeyValueMapper> capturedKeySelector = Capture.newInstance();
+    expect(mockKTable.filter(anyObject(Predicate.class))).andReturn(mockKTable);
+    expect(mockKTable.groupBy(capture(capturedKeySelector), anyObject()))
+        .andReturn(mockKGroupedTable);
+    replay(mockKTable, mockKGroupedTable);
+
+    final String selectQuery = "SELECT col0, col1, col2 FROM test2;";
+    final PlanNode logicalPlan = planBuilder.buildLogicalPlan(selectQuery);
+    initialSchemaKTable = new SchemaKTable(
+        logicalPlan.getTheSourceNode().getSchema(), mockKTable,
+        ksqlTable.getKeyField(), new ArrayList<>(), false,
+        SchemaKStream.Type.SOURCE,
+        new KsqlConfig(Collections.singletonMap(
+            KsqlConfig.KSQL_GROUP_BY_BINARY_KEY_CONFIG, true)),
+        functionRegistry, schemaRegistryClient);
+
+    final Expression col1Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of("TEST2")), "COL1");
+    final Expression col2Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of("TEST2")), "COL2");
+    final List<Expression> groupByExpressions = Arrays.asList(col2Expression, col1Expression);
+    final Serde<GenericRow> rowSerde = new KsqlJsonTopicSerDe().getGenericRowSerde(
+        initialSchemaKTable.getSchema(), null, false, () -> null);
+
+    final SchemaKGroupedStream groupedSchemaKTable =
+        initialSchemaKTable.groupBy(Serdes.String(), rowSerde, groupByExpressions);
+    verify(mockKTable, mockKGroupedTable);
+    final KeyValueMapper keySelector = capturedKeySelector.getValue();
+    final GenericRow value = new GenericRow(Arrays.asList("key", 0, 100, "foo", "bar"));
+    final KeyValue<GroupByKey, GenericRow> keyValue =
+        (KeyValue<GroupByKey, GenericRow>) keySelector.apply("key", value);
+
+    assertThat(keyValue.key, equalTo(new GroupByKey(Arrays.asList("bar", "foo"))));
+    assertThat(keyValue.key.toString(), equalTo("bar|+|foo"));
+    assertThat(groupedSchemaKTable.getKeyField().name(), equalTo("TEST2.COL2|+|TEST2.COL1"));
+  }
+
 
   @SuppressWarnings("unchecked")
   @Test
@@ -24,14 +24,12 @@ import io.confluent.ksql.codegen.CodeGenRunner;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.ProjectNode;
-import io.confluent.ksql.util.ExpressionMetadata;
-import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.Pair;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -63,26 +61,100 @@ public class SelectValueMapperTest {
                                                          7.0F))));
   }
 
-  private SelectValueMapper createMapper(final String query) throws Exception {
+  @Test
+  public void shouldEvaluateEachColumnOfWideProjection() throws Exception {
+    final SelectValueMapper mapper = createMapper(
+        "SELECT col0, col0 + 1, col0 * col0, col2, LCASE(col2), UCASE(col2), col3, CEIL(col3), "
+            + "col3 * 2.0 FROM test1;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 3L,
+        "foo", "Bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList(3L, 4L, 9L, "Bar", "bar", "BAR", 2.5,
+        3.0, 5.0))));
+  }
+
+  @Test
+  public void shouldReturnNullForColumnsThatFailToEvaluate() throws Exception {
+    final SelectValueMapper mapper = createMapper("SELECT col0, LCASE(col2), col3 FROM test1;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 3L,
+        "foo", null, 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList(3L, null, 2.5))));
+  }
+
+  @Test
+  public void shouldReturnNullForColumnsWithInvalidInput() throws Exception {
+    final SelectValueMapper mapper = createMapper("SELECT col0, col2, col3 FROM test1;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1",
+        "not a long", "foo", "bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList(null, "bar", 2.5))));
+  }
+
+  @Test
+  public void shouldReturnNullForNullRow() throws Exception {
+    final SelectValueMapper mapper = createMapper("SELECT col0, col2, col3 FROM test1;");
+    assertThat(mapper.apply(null), equalTo(null));
+  }
+
+  @Test
+  public void shouldSelectColumnsOfRowsThatPassTheFilter() throws Exception {
+    final SelectValueMapper mapper =
+        createFilteredMapper("SELECT col0, LCASE(col2), col3 FROM test1 WHERE col0 > 100;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 101L,
+        "foo", "Bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList(101L, "bar", 2.5))));
+  }
+
+  @Test
+  public void shouldRejectRowsThatFailTheFilter() throws Exception {
+    final SelectValueMapper mapper =
+        createFilteredMapper("SELECT col0, LCASE(col2), col3 FROM test1 WHERE col0 > 100;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 100L,
+        "foo", "Bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(null));
+  }
+
+  @Test
+  public void shouldRejectRowsWhereTheFilterFailsToEvaluate() throws Exception {
+    final SelectValueMapper mapper =
+        createFilteredMapper("SELECT col0, col2, col3 FROM test1 WHERE LEN(col1) > 2;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 101L,
+        null, "bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(null));
+  }
+
+  @Test
+  public void shouldRejectRowsWithInvalidFilterInput() throws Exception {
+    final SelectValueMapper mapper =
+        createFilteredMapper("SELECT col2, col3 FROM test1 WHERE col0 > 100;");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1",
+        "not a long", "foo", "bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(null));
+  }
+
+  @Test
+  public void shouldApplyUdfsInBothFilterAndProjection() throws Exception {
+    final SelectValueMapper mapper = createFilteredMapper(
+        "SELECT UCASE(col1), CEIL(col3) FROM test1 WHERE LCASE(col1) = 'foo';");
+    final GenericRow row = mapper.apply(new GenericRow(Arrays.asList(1521834663L, "key1", 1L,
+        "FoO", "bar", 2.5, "boo", "hoo")));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList("FOO", 3.0))));
+  }
+
+  private SelectValueMapper createFilteredMapper(final String query) throws Exception {
     final PlanNode planNode = planBuilder.buildLogicalPlan(query);
     final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSource();
     final Schema schema = planNode.getTheSourceNode().getSchema();
-    final List<Pair<String, Expression>> expressionPairList = projectNode.getProjectNameExpressionPairList();
-    final List<ExpressionMetadata> metadata = createExpressionMetadata(expressionPairList, schema);
-    return new SelectValueMapper(new GenericRowValueTypeEnforcer(schema), expressionPairList, metadata);
+    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, new InternalFunctionRegistry());
+    return new SelectValueMapper(codeGenRunner.buildFilteredRowMapper(
+        filterNode.getPredicate(), projectNode.getProjectNameExpressionPairList()));
   }
 
-
-  private List<ExpressionMetadata> createExpressionMetadata(final List<Pair<String, Expression>> expressionPairList,
-                                                            final Schema schema) throws Exception {
+  private SelectValueMapper createMapper(final String query) throws Exception {
+    final PlanNode planNode = planBuilder.buildLogicalPlan(query);
+    final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
+    final Schema schema = planNode.getTheSourceNode().getSchema();
+    final List<Pair<String, Expression>> expressionPairList = projectNode.getProjectNameExpressionPairList();
     final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, new InternalFunctionRegistry());
-    final List<ExpressionMetadata> expressionEvaluators = new ArrayList<>();
-    for (final Pair<String, Expression> expressionPair : expressionPairList) {
-      final ExpressionMetadata
-          expressionEvaluator =
-          codeGenRunner.buildCodeGenFromParseTree(expressionPair.getRight());
-      expressionEvaluators.add(expressionEvaluator);
-    }
-    return expressionEvaluators;
+    return new SelectValueMapper(codeGenRunner.buildRowMapper(expressionPairList));
   }
-}
\ No newline at end of file
+}
@@ -19,6 +19,7 @@ package io.confluent.ksql.structured;
 import static io.confluent.ksql.testutils.AnalysisTestUtil.analyzeQuery;
 
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.analyzer.AggregateAnalysis;
 import io.confluent.ksql.analyzer.AggregateAnalyzer;
 import io.confluent.ksql.analyzer.Analysis;
@@ -38,12 +39,14 @@ import io.confluent.ksql.schema.registry.MockSchemaRegistryClientFactory;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Consumed;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Predicate;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -130,6 +133,37 @@ public class SqlPredicateTest {
 
   }
 
+  @Test
+  public void shouldEvaluateConsecutiveRows() {
+    final String selectQuery = "SELECT col0 FROM test1 WHERE col0 > 100 AND LEN(col2) = 5;";
+    final PlanNode logicalPlan = buildLogicalPlan(selectQuery);
+    final FilterNode filterNode = (FilterNode) logicalPlan.getSources().get(0).getSources().get(0);
+    final SqlPredicate sqlPredicate = new SqlPredicate(filterNode.getPredicate(),
+        logicalPlan.getTheSourceNode().getSchema(), false, ksqlConfig, functionRegistry);
+    final Predicate<String, GenericRow> predicate = sqlPredicate.getPredicate();
+
+    Assert.assertTrue(predicate.test("key", new GenericRow(Arrays.asList(0L, "key", 101L, "a",
+        "hello", 1.0, null, null))));
+    Assert.assertFalse(predicate.test("key", new GenericRow(Arrays.asList(0L, "key", 99L, "a",
+        "hello", 1.0, null, null))));
+    Assert.assertFalse(predicate.test("key", new GenericRow(Arrays.asList(0L, "key", 101L, "a",
+        "hi", 1.0, null, null))));
+    Assert.assertTrue(predicate.test("key", new GenericRow(Arrays.asList(0L, "key", 200L, "b",
+        "world", 2.0, null, null))));
+  }
+
+  @Test
+  public void shouldReturnFalseForRowsThatFailToEvaluate() {
+    final String selectQuery = "SELECT col0 FROM test1 WHERE col0 > 100;";
+    final PlanNode logicalPlan = buildLogicalPlan(selectQuery);
+    final FilterNode filterNode = (FilterNode) logicalPlan.getSources().get(0).getSources().get(0);
+    final SqlPredicate sqlPredicate = new SqlPredicate(filterNode.getPredicate(),
+        logicalPlan.getTheSourceNode().getSchema(), false, ksqlConfig, functionRegistry);
+
+    Assert.assertFalse(sqlPredicate.getPredicate().test("key", new GenericRow(Arrays.asList(0L,
+        "key", "not a long", "a", "hello", 1.0, null, null))));
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void shouldIgnoreNullRows() {
@@ -83,6 +83,18 @@ public class ExpressionTypeManagerTest {
         Assert.assertTrue(exprType2.type() == Schema.Type.BOOLEAN);
     }
 
+    @Test
+    public void shouldResolveLogicalExpressionsToBoolean() {
+        final String simpleQuery = "SELECT col0>col3 AND col2 = 'test', NOT (col0 > 10) FROM test1;";
+        final Analysis analysis = analyzeQuery(simpleQuery, metaStore);
+        final ExpressionTypeManager expressionTypeManager = new ExpressionTypeManager(schema,
+                                                                                functionRegistry);
+        final Schema exprType0 = expressionTypeManager.getExpressionSchema(analysis.getSelectExpressions().get(0));
+        final Schema exprType1 = expressionTypeManager.getExpressionSchema(analysis.getSelectExpressions().get(1));
+        Assert.assertTrue(exprType0.type() == Schema.Type.BOOLEAN);
+        Assert.assertTrue(exprType1.type() == Schema.Type.BOOLEAN);
+    }
+
     @Test
     public void testUDFExpr() {
         final String simpleQuery = "SELECT FLOOR(col3), CEIL(col3*3), ABS(col0+1.34), RANDOM()+10, ROUND(col3*2)+12 FROM test1;";
@@ -18,8 +18,11 @@ package io.confluent.ksql.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.List;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
 
@@ -395,4 +398,44 @@ public class GenericRowValueTypeEnforcerTest {
 
     assertNull(genericRowValueTypeEnforcer.enforceFieldType(0, null));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testEnforceArrayReturningSameValue() {
+    final SchemaBuilder schemaBuilder = SchemaBuilder.struct()
+        .field("array", SchemaBuilder.array(SchemaBuilder.string()));
+    final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer =
+        new GenericRowValueTypeEnforcer(schemaBuilder);
+    final List<String> value = Arrays.asList("a", "b");
+
+    assertSame(value, genericRowValueTypeEnforcer.enforceFieldType(0, value));
+  }
+
+  @Test
+  public void testEnforceEachColumnWithItsOwnType() {
+    final SchemaBuilder schemaBuilder = SchemaBuilder.struct()
+        .field("long", SchemaBuilder.int64())
+        .field("string", SchemaBuilder.string())
+        .field("double", SchemaBuilder.float64());
+    final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer =
+        new GenericRowValueTypeEnforcer(schemaBuilder);
+
+    assertEquals(12L, genericRowValueTypeEnforcer.enforceFieldType(0, 12));
+    assertEquals("12", genericRowValueTypeEnforcer.enforceFieldType(1, new StringBuilder("12")));
+    assertEquals(12.0, genericRowValueTypeEnforcer.enforceFieldType(2, 12L));
+  }
+
+  @Test
+  public void testEnforceUnsupportedType() {
+    final SchemaBuilder schemaBuilder = SchemaBuilder.struct().field("bytes", SchemaBuilder.bytes());
+    final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer =
+        new GenericRowValueTypeEnforcer(schemaBuilder);
+
+    try {
+      genericRowValueTypeEnforcer.enforceFieldType(0, new byte[0]);
+      fail("Expecting exception: KsqlException");
+    } catch (final KsqlException e) {
+      assertEquals(GenericRowValueTypeEnforcer.class.getName(),
+                   e.getStackTrace()[0].getClassName());
+    }
+  }
+}
@@ -64,6 +64,7 @@ import org.apache.kafka.common.errors.DisconnectException;
 import org.apache.kafka.common.errors.NotControllerException;
 import org.apache.kafka.common.errors.TopicExistsException;
 import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.utils.MockTime;
 import org.apache.kafka.common.utils.Utils;
 import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
@@ -375,6 +376,127 @@ public class KafkaTopicClientImplTest {
     verify(adminClient);
   }
 
+  @Test
+  public void shouldCacheTopicNamesUntilTtlExpires() {
+    final MockTime time = new MockTime();
+    expect(adminClient.listTopics()).andReturn(getListTopicsResult()).times(2);
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient = new KafkaTopicClientImpl(adminClient, 1000, time);
+
+    kafkaTopicClient.listTopicNames();
+    time.sleep(999);
+    assertThat(kafkaTopicClient.isTopicExists(topicName1), is(true));
+    time.sleep(1);
+    final Set<String> names = kafkaTopicClient.listTopicNames();
+
+    assertThat(names, equalTo(Utils.mkSet(topicName1, topicName2, topicName3)));
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldLookUpTopicsMissingFromCachedTopicNames() {
+    expect(adminClient.listTopics()).andReturn(getListTopicsResult());
+    expect(adminClient.listTopics()).andReturn(getListTopicsResultWithInternalTopics());
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+
+    kafkaTopicClient.listTopicNames();
+
+    assertThat(kafkaTopicClient.isTopicExists(internalTopic1), is(true));
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldNotUseCachedTopicNamesToFindInternalTopicsToDelete() {
+    expect(adminClient.listTopics()).andReturn(getListTopicsResult());
+    expect(adminClient.listTopics()).andReturn(getListTopicsResultWithInternalTopics());
+    expect(adminClient.deleteTopics(Arrays.asList(internalTopic2, internalTopic1)))
+        .andReturn(getDeleteInternalTopicsResult());
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+    kafkaTopicClient.listTopicNames();
+
+    kafkaTopicClient.deleteInternalTopics(
+        KsqlConstants.KSQL_INTERNAL_TOPIC_PREFIX + "default_query_CTAS_USERS_BY_CITY");
+
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldOnlyDescribeTopicsThatAreNotCached() {
+    expect(adminClient.describeTopics(Collections.singletonList(topicName1)))
+        .andReturn(getDescribeTopicsResult());
+    expect(adminClient.describeTopics(Collections.singletonList(topicName2)))
+        .andReturn(getDescribeTopicsResult(topicName2));
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+
+    kafkaTopicClient.describeTopics(Collections.singletonList(topicName1));
+    final Map<String, TopicDescription> descriptions =
+        kafkaTopicClient.describeTopics(Arrays.asList(topicName1, topicName2));
+
+    assertThat(descriptions.keySet(), equalTo(Utils.mkSet(topicName1, topicName2)));
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldCacheTopicConfig() {
+    expect(adminClient.describeConfigs(topicConfigsRequest("fred")))
+        .andReturn(topicConfigResponse(
+            "fred",
+            overriddenConfigEntry(TopicConfig.CLEANUP_POLICY_CONFIG,
+                TopicConfig.CLEANUP_POLICY_COMPACT)
+        ));
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+
+    kafkaTopicClient.getTopicConfig("fred");
+    final KafkaTopicClient.TopicCleanupPolicy policy =
+        kafkaTopicClient.getTopicCleanupPolicy("fred");
+
+    assertThat(policy, is(KafkaTopicClient.TopicCleanupPolicy.COMPACT));
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldInvalidateCachedMetadataOfDeletedTopics() {
+    expect(adminClient.listTopics()).andReturn(getListTopicsResult()).times(2);
+    expect(adminClient.describeTopics(anyObject()))
+        .andReturn(getDescribeTopicsResult())
+        .andReturn(getDescribeTopicsResult());
+    expect(adminClient.deleteTopics(anyObject())).andReturn(getDeleteTopicsResult());
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+    kafkaTopicClient.listTopicNames();
+    kafkaTopicClient.describeTopics(Collections.singletonList(topicName1));
+
+    kafkaTopicClient.deleteTopics(Collections.singletonList(topicName1));
+    kafkaTopicClient.listTopicNames();
+    kafkaTopicClient.describeTopics(Collections.singletonList(topicName1));
+
+    verify(adminClient);
+  }
+
+  @Test
+  public void shouldInvalidateCachedTopicNamesOnCreate() {
+    expect(adminClient.listTopics()).andReturn(getEmptyListTopicResult());
+    expect(adminClient.createTopics(anyObject())).andReturn(getCreateTopicsResult());
+    expect(adminClient.listTopics()).andReturn(getListTopicsResult());
+    replay(adminClient);
+    final KafkaTopicClient kafkaTopicClient =
+        new KafkaTopicClientImpl(adminClient, 1000, new MockTime());
+
+    kafkaTopicClient.createTopic(topicName1, 1, (short) 1);
+
+    assertThat(kafkaTopicClient.listTopicNames().contains(topicName1), is(true));
+    verify(adminClient);
+  }
+
   @SuppressWarnings("unchecked")
   private static DescribeTopicsResult describeTopicReturningUnknownPartitionException() {
     final DescribeTopicsResult describeTopicsResult = niceMock(DescribeTopicsResult.class);
@@ -385,13 +507,17 @@ public class KafkaTopicClientImplTest {
   }
 
   private DescribeTopicsResult getDescribeTopicsResult() {
+    return getDescribeTopicsResult(topicName1);
+  }
+
+  private DescribeTopicsResult getDescribeTopicsResult(final String topicName) {
     final TopicPartitionInfo topicPartitionInfo = new TopicPartitionInfo(0, node, Collections
         .singletonList(node), Collections.singletonList(node));
     final TopicDescription topicDescription = new TopicDescription(
-        topicName1, false, Collections.singletonList(topicPartitionInfo));
+        topicName, false, Collections.singletonList(topicPartitionInfo));
     final DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
     expect(describeTopicsResult.all()).andReturn(
-        KafkaFuture.completedFuture(Collections.singletonMap(topicName1, topicDescription)));
+        KafkaFuture.completedFuture(Collections.singletonMap(topicName, topicDescription)));
     replay(describeTopicsResult);
     return describeTopicsResult;
   }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.util.RingBufferQueue.FullPolicy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RingBufferQueueTest {
+
+  @Test
+  public void shouldReturnElementsInTheOrderTheyWereAdded() {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(3, FullPolicy.BLOCK);
+
+    // When:
+    final List<Integer> polled = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+      queue.offer(i + 100);
+      polled.add(queue.poll());
+      polled.add(queue.poll());
+    }
+
+    // Then:
+    assertThat(polled.subList(0, 4), equalTo(Arrays.asList(0, 100, 1, 101)));
+    assertThat(polled.subList(16, 20), equalTo(Arrays.asList(8, 108, 9, 109)));
+    assertThat(queue.poll(), nullValue());
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotOfferToFullQueueThatBlocks() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(2, FullPolicy.BLOCK);
+    queue.put(1);
+    queue.put(2);
+
+    // Then:
+    assertThat(queue.offer(3), is(false));
+    assertThat(queue.offer(3, 10, TimeUnit.MILLISECONDS), is(false));
+    assertThat(queue.remainingCapacity(), is(0));
+    assertThat(queue.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void shouldBlockWriterUntilThereIsRoom() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1, FullPolicy.BLOCK);
+    queue.put(1);
+    final CompletableFuture<Boolean> written = CompletableFuture.supplyAsync(() -> {
+      try {
+        return queue.enqueue(2);
+      } catch (final InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    });
+
+    // When:
+    final Integer first = queue.take();
+
+    // Then:
+    assertThat(first, is(1));
+    assertThat(written.get(30, TimeUnit.SECONDS), is(true));
+    assertThat(queue.poll(), is(2));
+  }
+
+  @Test
+  public void shouldWakeUpWaitingReader() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1, FullPolicy.BLOCK);
+    final CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+      try {
+        return queue.poll(30, TimeUnit.SECONDS);
+      } catch (final InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    });
+
+    // When:
+    queue.put(1);
+
+    // Then:
+    assertThat(read.get(30, TimeUnit.SECONDS), is(1));
+  }
+
+  @Test
+  public void shouldTimeOutPollingEmptyQueue() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(1, FullPolicy.BLOCK);
+
+    // Then:
+    assertThat(queue.poll(10, TimeUnit.MILLISECONDS), nullValue());
+  }
+
+  @Test
+  public void shouldDropOldestElementWhenFull() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(2, FullPolicy.DROP_OLDEST);
+
+    // When:
+    assertThat(queue.enqueue(1), is(true));
+    assertThat(queue.enqueue(2), is(true));
+    assertThat(queue.enqueue(3), is(true));
+    assertThat(queue.offer(4), is(true));
+
+    // Then:
+    final List<Integer> drained = new ArrayList<>();
+    queue.drainTo(drained);
+    assertThat(drained, equalTo(Arrays.asList(3, 4)));
+    assertThat(queue.getDroppedCount(), is(2L));
+  }
+
+  @Test
+  public void shouldDropNewElementWhenSamplingAndFull() throws Exception {
+    // Given:
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(2, FullPolicy.SAMPLE);
+
+    // When:
+    assertThat(queue.enqueue(1), is(true));
+    assertThat(queue.enqueue(2), is(true));
+    assertThat(queue.enqueue(3), is(false));
+    queue.poll();
+    assertThat(queue.enqueue(4), is(true));
+
+    // Then:
+    final List<Integer> drained = new ArrayList<>();
+    queue.drainTo(drained);
+    assertThat(drained, equalTo(Arrays.asList(2, 4)));
+    assertThat(queue.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void shouldHandOverEveryElementBetweenThreads() throws Exception {
+    // Given:
+    final int count = 100000;
+    final RingBufferQueue<Integer> queue = new RingBufferQueue<>(16, FullPolicy.BLOCK);
+    final CompletableFuture<Void> written = CompletableFuture.runAsync(() -> {
+      try {
+        for (int i = 0; i < count; i++) {
+          queue.put(i);
+        }
+      } catch (final InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    });
+
+    // When:
+    final List<Integer> read = new ArrayList<>(count);
+    while (read.size() < count) {
+      final Integer element = queue.poll(30, TimeUnit.SECONDS);
+      assertThat(element, is(read.size()));
+      read.add(element);
+    }
+
+    // Then:
+    written.get(30, TimeUnit.SECONDS);
+    assertThat(queue.isEmpty(), is(true));
+  }
+}
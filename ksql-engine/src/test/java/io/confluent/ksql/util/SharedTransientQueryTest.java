@@ -0,0 +1,278 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.newCapture;
+import static org.easymock.EasyMock.niceMock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.serde.DataSource.DataSourceType;
+import io.confluent.ksql.structured.QueuedSchemaKStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.Topology;
+import org.easymock.Capture;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedTransientQueryTest {
+
+  private final BlockingQueue<KeyValue<String, GenericRow>> ownerQueue =
+      new LinkedBlockingQueue<>();
+  private final BlockingQueue<KeyValue<String, GenericRow>> subscriberQueue =
+      new LinkedBlockingQueue<>();
+  private final Capture<Thread.UncaughtExceptionHandler> handlerCapture = newCapture();
+  private final Capture<KafkaStreams.StateListener> listenerCapture = newCapture();
+  private final Metrics metrics = new Metrics();
+  private final List<SharedTransientQuery> closed = new ArrayList<>();
+  private KafkaStreams kafkaStreams;
+  private QueuedSchemaKStream resultStream;
+  private QueuedQueryMetadata owner;
+  private SharedTransientQuery sharedQuery;
+
+  @Before
+  public void setUp() {
+    kafkaStreams = mock(KafkaStreams.class);
+    resultStream = mock(QueuedSchemaKStream.class);
+
+    kafkaStreams.setUncaughtExceptionHandler(capture(handlerCapture));
+    expectLastCall().once();
+    kafkaStreams.setStateListener(capture(listenerCapture));
+    expectLastCall().anyTimes();
+    expect(kafkaStreams.state()).andReturn(State.CREATED).anyTimes();
+    expect(resultStream.getQueue()).andReturn(ownerQueue).anyTimes();
+    expect(resultStream.addQueue(anyObject())).andReturn(subscriberQueue).anyTimes();
+    resultStream.removeQueue(anyObject());
+    expectLastCall().anyTimes();
+    replay(resultStream);
+  }
+
+  @Test
+  public void shouldOnlyStartStreamsOnce() {
+    // Given:
+    kafkaStreams.start();
+    expectLastCall().once();
+    kafkaStreams.close();
+    expectLastCall().once();
+    givenSharedQuery();
+    final QueuedQueryMetadata subscriber = subscribe();
+
+    // When:
+    subscriber.start();
+    owner.start();
+
+    // Then:
+    owner.close();
+    subscriber.close();
+    verify(kafkaStreams);
+  }
+
+  @Test
+  public void shouldOnlyCloseStreamsOnceLastSubscriberIsClosed() {
+    // Given:
+    kafkaStreams.close();
+    expectLastCall().once();
+    givenSharedQuery();
+    final QueuedQueryMetadata subscriber = subscribe();
+
+    // When:
+    owner.close();
+
+    // Then:
+    assertThat(owner.isRunning(), is(false));
+    assertThat(sharedQuery.isClosed(), is(false));
+    assertThat(closed, equalTo(Collections.emptyList()));
+
+    // When:
+    subscriber.close();
+    subscriber.close();
+
+    // Then:
+    assertThat(sharedQuery.isClosed(), is(true));
+    assertThat(closed, equalTo(Collections.singletonList(sharedQuery)));
+    verify(kafkaStreams);
+  }
+
+  @Test
+  public void shouldGiveEachSubscriberItsOwnQueue() {
+    // Given:
+    givenSharedQuery();
+
+    // When:
+    final QueuedQueryMetadata subscriber = subscribe();
+
+    // Then:
+    assertThat(owner.getRowQueue(), sameInstance(ownerQueue));
+    assertThat(subscriber.getRowQueue(), sameInstance(subscriberQueue));
+    assertThat(subscriber.getKafkaStreams(), sameInstance(kafkaStreams));
+    assertThat(subscriber, not(equalTo(owner)));
+  }
+
+  @Test
+  public void shouldNotSubscribeOnceClosed() {
+    // Given:
+    kafkaStreams.close();
+    expectLastCall().once();
+    givenSharedQuery();
+    owner.close();
+
+    // When:
+    final QueuedQueryMetadata subscriber = sharedQuery.subscribe("foo", outputNode());
+
+    // Then:
+    assertThat(subscriber, nullValue());
+  }
+
+  @Test
+  public void shouldPassUncaughtExceptionsToEachSubscribedHandler() {
+    // Given:
+    givenSharedQuery();
+    final QueuedQueryMetadata subscriber = subscribe();
+    final QueuedQueryMetadata leaver = subscribe();
+    final List<Throwable> ownerErrors = new ArrayList<>();
+    final List<Throwable> subscriberErrors = new ArrayList<>();
+    final List<Throwable> leaverErrors = new ArrayList<>();
+    owner.setUncaughtExceptionHandler((thread, e) -> ownerErrors.add(e));
+    subscriber.setUncaughtExceptionHandler((thread, e) -> subscriberErrors.add(e));
+    leaver.setUncaughtExceptionHandler((thread, e) -> leaverErrors.add(e));
+    leaver.close();
+    final Throwable error = new KsqlException("Boom");
+
+    // When:
+    handlerCapture.getValue().uncaughtException(new Thread(), error);
+
+    // Then:
+    assertThat(ownerErrors, equalTo(Collections.singletonList(error)));
+    assertThat(subscriberErrors, equalTo(Collections.singletonList(error)));
+    assertThat(leaverErrors, equalTo(Collections.emptyList()));
+  }
+
+  @Test
+  public void shouldGiveEachSubscriberItsOwnApplicationId() {
+    // Given:
+    givenSharedQuery();
+
+    // When:
+    final QueuedQueryMetadata first = subscribe();
+    final QueuedQueryMetadata second = subscribe();
+
+    // Then:
+    assertThat(first.getQueryApplicationId(), is("Query1_1"));
+    assertThat(second.getQueryApplicationId(), is("Query1_2"));
+  }
+
+  @Test
+  public void shouldPassStateChangesToEachSubscribedListener() {
+    // Given:
+    kafkaStreams.start();
+    expectLastCall().once();
+    kafkaStreams.close();
+    expectLastCall().once();
+    givenSharedQuery();
+    final QueuedQueryMetadata subscriber = subscribe();
+    registerStateListener(owner);
+    registerStateListener(subscriber);
+    subscriber.start();
+
+    // When:
+    listenerCapture.getValue().onChange(State.RUNNING, State.REBALANCING);
+
+    // Then:
+    assertThat(queryStatus(owner), is("RUNNING"));
+    assertThat(queryStatus(subscriber), is("RUNNING"));
+    owner.close();
+    subscriber.close();
+  }
+
+  @Test
+  public void shouldRemoveStateMetricOfClosedSubscriber() {
+    // Given:
+    givenSharedQuery();
+    final QueuedQueryMetadata subscriber = subscribe();
+    registerStateListener(subscriber);
+
+    // When:
+    subscriber.close();
+
+    // Then:
+    assertThat(metrics.metric(queryStatusName(subscriber)), nullValue());
+  }
+
+  private void registerStateListener(final QueryMetadata query) {
+    query.registerQueryStateListener(
+        new QueryStateListener(metrics, kafkaStreams, query.getQueryApplicationId()));
+  }
+
+  private Object queryStatus(final QueryMetadata query) {
+    return metrics.metric(queryStatusName(query)).metricValue();
+  }
+
+  private MetricName queryStatusName(final QueryMetadata query) {
+    return metrics.metricName("query-status", "ksql-queries",
+        Collections.singletonMap("status", query.getQueryApplicationId()));
+  }
+
+  private void givenSharedQuery() {
+    replay(kafkaStreams);
+    owner = new QueuedQueryMetadata(
+        "foo",
+        kafkaStreams,
+        outputNode(),
+        "bar",
+        resultStream,
+        DataSourceType.KSTREAM,
+        "Query1",
+        niceMock(KafkaTopicClient.class),
+        niceMock(Topology.class),
+        Collections.emptyMap());
+    sharedQuery = new SharedTransientQuery(
+        owner, niceMock(KafkaTopicClient.class), closed::add);
+  }
+
+  private QueuedQueryMetadata subscribe() {
+    return sharedQuery.subscribe("foo LIMIT 1", outputNode());
+  }
+
+  private static OutputNode outputNode() {
+    final OutputNode outputNode = niceMock(OutputNode.class);
+    replay(outputNode);
+    return outputNode;
+  }
+}
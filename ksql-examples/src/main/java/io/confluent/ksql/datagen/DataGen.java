@@ -49,7 +49,7 @@ public final class DataGen {
     }
   }
 
-  static void run(final String... args) throws IOException {
+  static void run(final String... args) throws IOException, InterruptedException {
     final Arguments arguments = new Arguments.Builder()
         .parseArgs(args)
         .build();
@@ -64,6 +64,20 @@ public final class DataGen {
         .getProducer(arguments.format, arguments.schemaRegistryUrl);
     final Properties props = getProperties(arguments);
 
+    if (arguments.threads > 0 || arguments.msgRate > 0) {
+      dataProducer.loadTopic(
+          props,
+          generator,
+          arguments.topicName,
+          arguments.keyName,
+          arguments.iterations,
+          Math.max(1, arguments.threads),
+          arguments.msgRate,
+          arguments.poolSize
+      );
+      return;
+    }
+
     dataProducer.populateTopic(
         props,
         generator,
@@ -100,6 +114,10 @@ public final class DataGen {
         + "key=<name of key column> "
         + "[iterations=<number of rows> (defaults to 1,000,000)] "
         + "[maxInterval=<Max time in ms between rows> (defaults to 500)] "
+        + "[threads=<number of producer threads; produces without pausing between rows>] "
+        + "[msgRate=<target rows per second across all threads; implies threads=1 if unset>] "
+        + "[poolSize=<number of distinct rows to produce under threads or msgRate> "
+        + "(defaults to 10,000)] "
         + "[propertiesFile=<file specifying Kafka client properties>]"
     );
   }
@@ -118,6 +136,9 @@ public final class DataGen {
     private final long maxInterval;
     private final String schemaRegistryUrl;
     private final InputStream propertiesFile;
+    private final int threads;
+    private final int msgRate;
+    private final int poolSize;
 
     Arguments(
         final boolean help,
@@ -129,7 +150,10 @@ public final class DataGen {
         final int iterations,
         final long maxInterval,
         final String schemaRegistryUrl,
-        final InputStream propertiesFile
+        final InputStream propertiesFile,
+        final int threads,
+        final int msgRate,
+        final int poolSize
     ) {
       this.help = help;
       this.bootstrapServer = bootstrapServer;
@@ -141,6 +165,9 @@ public final class DataGen {
       this.maxInterval = maxInterval;
       this.schemaRegistryUrl = schemaRegistryUrl;
       this.propertiesFile = propertiesFile;
+      this.threads = threads;
+      this.msgRate = msgRate;
+      this.poolSize = poolSize;
     }
 
     static class ArgumentParseException extends RuntimeException {
@@ -160,12 +187,20 @@ public final class DataGen {
               .put("format", (builder, argVal) -> builder.format = parseFormat(argVal))
               .put("topic", (builder, argVal) -> builder.topicName = argVal)
               .put("key", (builder, argVal) -> builder.keyName = argVal)
-              .put("iterations", (builder, argVal) -> builder.iterations = parseIterations(argVal))
+              .put("iterations",
+                  (builder, argVal) -> builder.iterations = parsePositiveInt("iterations", argVal))
               .put("maxInterval",
-                  (builder, argVal) -> builder.maxInterval = parseIterations(argVal))
+                  (builder, argVal) ->
+                      builder.maxInterval = parsePositiveInt("maxInterval", argVal))
               .put("schemaRegistryUrl", (builder, argVal) -> builder.schemaRegistryUrl = argVal)
               .put("propertiesFile",
                   (builder, argVal) -> builder.propertiesFile = toFileInputStream(argVal))
+              .put("threads",
+                  (builder, argVal) -> builder.threads = parsePositiveInt("threads", argVal))
+              .put("msgRate",
+                  (builder, argVal) -> builder.msgRate = parsePositiveInt("msgRate", argVal))
+              .put("poolSize",
+                  (builder, argVal) -> builder.poolSize = parsePositiveInt("poolSize", argVal))
               .build();
 
       private Quickstart quickstart;
@@ -180,6 +215,9 @@ public final class DataGen {
       private long maxInterval;
       private String schemaRegistryUrl;
       private InputStream propertiesFile;
+      private int threads;
+      private int msgRate;
+      private int poolSize;
 
       private Builder() {
         quickstart = null;
@@ -193,6 +231,9 @@ public final class DataGen {
         maxInterval = -1;
         schemaRegistryUrl = "http://localhost:8081";
         propertiesFile = null;
+        threads = 0;
+        msgRate = 0;
+        poolSize = 10000;
       }
 
       private enum Quickstart {
@@ -235,7 +276,7 @@ public final class DataGen {
 
       Arguments build() {
         if (help) {
-          return new Arguments(true, null, null, null, null, null, 0, -1, null, null);
+          return new Arguments(true, null, null, null, null, null, 0, -1, null, null, 0, 0, 0);
         }
 
         if (quickstart != null) {
@@ -263,7 +304,10 @@ public final class DataGen {
             iterations,
             maxInterval,
             schemaRegistryUrl,
-            propertiesFile
+            propertiesFile,
+            threads,
+            msgRate,
+            poolSize
         );
       }
 
@@ -356,22 +400,25 @@ public final class DataGen {
         }
       }
 
-      private static int parseIterations(final String iterationsString) {
+      private static int parsePositiveInt(final String argName, final String argVal) {
+        final int result;
         try {
-          final int result = Integer.valueOf(iterationsString, 10);
-          if (result <= 0) {
-            throw new ArgumentParseException(String.format(
-                "Invalid number of iterations in '%d'; must be a positive number",
-                result
-            ));
-          }
-          return Integer.valueOf(iterationsString, 10);
+          result = Integer.parseInt(argVal, 10);
         } catch (final NumberFormatException exception) {
           throw new ArgumentParseException(String.format(
-              "Invalid number of iterations in '%s'; must be a valid base 10 integer",
-              iterationsString
+              "Invalid %s in '%s'; must be a valid base 10 integer",
+              argName,
+              argVal
+          ));
+        }
+        if (result <= 0) {
+          throw new ArgumentParseException(String.format(
+              "Invalid %s in '%s'; must be a positive number",
+              argName,
+              argVal
           ));
         }
+        return result;
       }
     }
   }
@@ -20,6 +20,8 @@ import io.confluent.avro.random.generator.Generator;
 import io.confluent.connect.avro.AvroData;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.util.Pair;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
 import org.apache.avro.Schema;
@@ -44,21 +46,11 @@ public abstract class DataGenProducer {
       final long maxInterval
   ) {
     final Schema avroSchema = generator.schema();
-    if (avroSchema.getField(key) == null) {
-      throw new IllegalArgumentException("Key field does not exist:" + key);
-    }
-
     final AvroData avroData = new AvroData(1);
     final org.apache.kafka.connect.data.Schema ksqlSchema =
-        SchemaUtil.getOptionalSchema(avroData.toConnectSchema(avroSchema));
-
-    final Serializer<GenericRow> serializer = getSerializer(avroSchema, ksqlSchema, kafkaTopicName);
-
-    final KafkaProducer<String, GenericRow> producer = new KafkaProducer<>(
-        props,
-        new StringSerializer(),
-        serializer
-    );
+        getKsqlSchema(avroData, avroSchema, key);
+    final KafkaProducer<String, GenericRow> producer =
+        createProducer(props, avroSchema, ksqlSchema, kafkaTopicName);
 
     final SessionManager sessionManager = new SessionManager();
     final RowGenerator rowGenerator =
@@ -91,6 +83,71 @@ public abstract class DataGenProducer {
     producer.close();
   }
 
+  /**
+   * Produces rows as fast as possible or at a target rate, from several threads, for load
+   * testing. The rows are generated before producing starts, and then sent in turn, so
+   * time-based fields hold the time the rows were generated, not sent.
+   *
+   * @param msgRate the target number of messages per second, or a non-positive value to
+   *     produce as fast as possible.
+   * @param poolSize the number of distinct rows to generate up front.
+   */
+  public void loadTopic(
+      final Properties props,
+      final Generator generator,
+      final String kafkaTopicName,
+      final String key,
+      final int messageCount,
+      final int threads,
+      final int msgRate,
+      final int poolSize
+  ) throws InterruptedException {
+    final Schema avroSchema = generator.schema();
+    final AvroData avroData = new AvroData(1);
+    final org.apache.kafka.connect.data.Schema ksqlSchema =
+        getKsqlSchema(avroData, avroSchema, key);
+
+    final RowGenerator rowGenerator =
+        new RowGenerator(generator, avroData, avroSchema, ksqlSchema, new SessionManager(), key);
+    final int rowCount = Math.max(1, Math.min(poolSize, messageCount));
+    final List<Pair<String, GenericRow>> rows = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(rowGenerator.generateRow());
+    }
+
+    try (KafkaProducer<String, GenericRow> producer =
+        createProducer(props, avroSchema, ksqlSchema, kafkaTopicName)) {
+      new LoadGenerator(producer, kafkaTopicName, rows, threads, msgRate, System.out)
+          .run(messageCount);
+    }
+  }
+
+  private static org.apache.kafka.connect.data.Schema getKsqlSchema(
+      final AvroData avroData,
+      final Schema avroSchema,
+      final String key
+  ) {
+    if (avroSchema.getField(key) == null) {
+      throw new IllegalArgumentException("Key field does not exist:" + key);
+    }
+    return SchemaUtil.getOptionalSchema(avroData.toConnectSchema(avroSchema));
+  }
+
+  private KafkaProducer<String, GenericRow> createProducer(
+      final Properties props,
+      final Schema avroSchema,
+      final org.apache.kafka.connect.data.Schema ksqlSchema,
+      final String kafkaTopicName
+  ) {
+    final Serializer<GenericRow> serializer = getSerializer(avroSchema, ksqlSchema, kafkaTopicName);
+
+    return new KafkaProducer<>(
+        props,
+        new StringSerializer(),
+        serializer
+    );
+  }
+
   private static class ErrorLoggingCallback implements Callback {
 
     private final String topic;
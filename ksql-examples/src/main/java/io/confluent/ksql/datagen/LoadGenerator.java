@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.Pair;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * Produces rows to a topic from several threads as fast as the producer allows or, given a
+ * target rate, at that rate, reporting throughput and send latency as it goes.
+ *
+ * <p>Rows are taken in turn from a pool generated up front, so generating rows doesn't limit the
+ * rate. The threads share the one producer, which is thread safe and batches across them.
+ */
+class LoadGenerator {
+
+  private static final long REPORT_INTERVAL_SECONDS = 5;
+
+  private final Producer<String, GenericRow> producer;
+  private final String topic;
+  private final List<Pair<String, GenericRow>> rows;
+  private final int threads;
+  private final int msgRate;
+  private final PrintStream out;
+
+  /**
+   * @param msgRate the target number of messages per second across all threads, or a
+   *     non-positive value to produce as fast as possible.
+   */
+  LoadGenerator(
+      final Producer<String, GenericRow> producer,
+      final String topic,
+      final List<Pair<String, GenericRow>> rows,
+      final int threads,
+      final int msgRate,
+      final PrintStream out
+  ) {
+    this.producer = Objects.requireNonNull(producer, "producer");
+    this.topic = Objects.requireNonNull(topic, "topic");
+    this.rows = Objects.requireNonNull(rows, "rows");
+    this.threads = threads;
+    this.msgRate = msgRate;
+    this.out = Objects.requireNonNull(out, "out");
+    if (rows.isEmpty()) {
+      throw new IllegalArgumentException("rows cannot be empty");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+  }
+
+  /**
+   * Produces the given number of messages and waits for all of them to be acknowledged.
+   */
+  Stats run(final int messageCount) throws InterruptedException {
+    final Stats stats = new Stats();
+    final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r, "ksql-datagen-reporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    reporter.scheduleAtFixedRate(
+        () -> out.println(stats.report()),
+        REPORT_INTERVAL_SECONDS,
+        REPORT_INTERVAL_SECONDS,
+        TimeUnit.SECONDS);
+
+    final List<Thread> workers = new ArrayList<>(threads);
+    try {
+      for (int i = 0; i < threads; i++) {
+        final int count = messageCount / threads + (i < messageCount % threads ? 1 : 0);
+        final int offset = (int) ((long) rows.size() * i / threads);
+        final Thread worker = new Thread(
+            () -> produce(count, offset, stats), "ksql-datagen-producer-" + i);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+      }
+      for (final Thread worker : workers) {
+        worker.join();
+      }
+      producer.flush();
+    } finally {
+      workers.forEach(Thread::interrupt);
+      reporter.shutdownNow();
+    }
+
+    out.println("Finished: " + stats.report());
+    return stats;
+  }
+
+  private void produce(final int count, final int offset, final Stats stats) {
+    final TokenBucket bucket = msgRate > 0 ? new TokenBucket((double) msgRate / threads) : null;
+    try {
+      for (int i = 0; i < count; i++) {
+        if (bucket != null) {
+          bucket.acquire();
+        }
+
+        final Pair<String, GenericRow> row = rows.get((offset + i) % rows.size());
+        final long sendNanos = System.nanoTime();
+        producer.send(
+            new ProducerRecord<>(topic, row.getLeft(), row.getRight()),
+            (metadata, e) -> stats.onCompletion(System.nanoTime() - sendNanos, e));
+        stats.sent.increment();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final RuntimeException e) {
+      System.err.println("Error when sending message to topic: '" + topic + "'");
+      e.printStackTrace(System.err);
+    }
+  }
+
+  static final class Stats {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicBoolean loggedError = new AtomicBoolean();
+
+    long getSent() {
+      return sent.sum();
+    }
+
+    long getAcked() {
+      return acked.sum();
+    }
+
+    long getFailed() {
+      return failed.sum();
+    }
+
+    private void onCompletion(final long latencyNanos, final Exception e) {
+      if (e != null) {
+        failed.increment();
+        // Only log the first error, as a broken cluster would fail every send:
+        if (loggedError.compareAndSet(false, true)) {
+          System.err.println("Error when sending message: " + e.getMessage());
+          e.printStackTrace(System.err);
+        }
+        return;
+      }
+
+      acked.increment();
+      totalLatencyNanos.add(latencyNanos);
+      maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    String report() {
+      final double elapsedSeconds =
+          Math.max(1L, System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+      final long ackedCount = acked.sum();
+      final double meanLatencyMs = ackedCount == 0
+          ? 0.0
+          : totalLatencyNanos.sum() / (double) ackedCount / TimeUnit.MILLISECONDS.toNanos(1);
+      final double maxLatencyMs =
+          maxLatencyNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+
+      return String.format(
+          "%d sent, %d acked, %d failed in %.1f s (%.1f msgs/sec), "
+              + "latency %.2f ms mean, %.2f ms max",
+          sent.sum(), ackedCount, failed.sum(), elapsedSeconds,
+          ackedCount / elapsedSeconds, meanLatencyMs, maxLatencyMs);
+    }
+  }
+}
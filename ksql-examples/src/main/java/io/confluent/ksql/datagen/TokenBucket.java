@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces a single thread to a steady rate. Tokens accrue at the given rate, up to a tenth of a
+ * second's worth, and each message takes one.
+ *
+ * <p>A message that finds the bucket empty borrows its token and the thread sleeps off the
+ * debt. Any oversleep is paid back by the tokens that accrue meanwhile, so the rate holds on
+ * average even where the sleep is much coarser than the gap between messages.
+ */
+class TokenBucket {
+
+  private final LongSupplier clock;
+  private final double tokensPerNano;
+  private final double capacity;
+  private double tokens;
+  private long lastRefill;
+
+  TokenBucket(final double ratePerSecond) {
+    this(ratePerSecond, System::nanoTime);
+  }
+
+  TokenBucket(final double ratePerSecond, final LongSupplier clock) {
+    if (ratePerSecond <= 0) {
+      throw new IllegalArgumentException("rate must be positive: " + ratePerSecond);
+    }
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.capacity = Math.max(1.0, ratePerSecond / 10);
+    this.tokens = 1.0;
+    this.lastRefill = clock.getAsLong();
+  }
+
+  /**
+   * Waits, if need be, for the next message to be allowed.
+   */
+  void acquire() throws InterruptedException {
+    final long waitNanos = reserve();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  /**
+   * Takes a token for the next message.
+   *
+   * @return how long, in nanoseconds, to wait before sending it.
+   */
+  long reserve() {
+    final long now = clock.getAsLong();
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+    lastRefill = now;
+
+    tokens -= 1.0;
+    return tokens >= 0 ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+  }
+}
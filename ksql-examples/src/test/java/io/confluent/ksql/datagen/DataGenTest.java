@@ -56,6 +56,31 @@ public class DataGenTest {
         "topic=foo");
   }
 
+  @Test
+  public void shouldNameTheArgumentInNumberParseErrors() throws Exception {
+    expectedException.expect(DataGen.Arguments.ArgumentParseException.class);
+    expectedException.expectMessage("Invalid msgRate in '0'; must be a positive number");
+
+    DataGen.run(
+        "quickstart=orders",
+        "format=avro",
+        "topic=foo",
+        "msgRate=0");
+  }
+
+  @Test
+  public void shouldThrowOnNonNumericMaxInterval() throws Exception {
+    expectedException.expect(DataGen.Arguments.ArgumentParseException.class);
+    expectedException.expectMessage(
+        "Invalid maxInterval in 'soon'; must be a valid base 10 integer");
+
+    DataGen.run(
+        "quickstart=orders",
+        "format=avro",
+        "topic=foo",
+        "maxInterval=soon");
+  }
+
   @Test(expected = DataGen.Arguments.ArgumentParseException.class)
   public void shouldThrowOnUnknownQuickStart() throws Exception {
     DataGen.run(
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.delimited.KsqlDelimitedSerializer;
+import io.confluent.ksql.util.Pair;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class LoadGeneratorTest {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("id", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional().build();
+
+  private static final List<Pair<String, GenericRow>> ROWS = Arrays.asList(
+      Pair.of("a", new GenericRow("a")),
+      Pair.of("b", new GenericRow("b")),
+      Pair.of("c", new GenericRow("c")));
+
+  private final MockProducer<String, GenericRow> producer =
+      new MockProducer<>(true, new StringSerializer(), new KsqlDelimitedSerializer(SCHEMA));
+  private final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+  @Test
+  public void shouldProduceEveryMessageAcrossThreads() throws Exception {
+    // Given:
+    final LoadGenerator loadGenerator = new LoadGenerator(producer, "foo", ROWS, 4, 0, out);
+
+    // When:
+    final LoadGenerator.Stats stats = loadGenerator.run(1001);
+
+    // Then:
+    assertThat(producer.history().size(), is(1001));
+    assertThat(stats.getSent(), is(1001L));
+    assertThat(stats.getAcked(), is(1001L));
+    assertThat(stats.getFailed(), is(0L));
+  }
+
+  @Test
+  public void shouldProduceRowsFromThePool() throws Exception {
+    // Given:
+    final LoadGenerator loadGenerator = new LoadGenerator(producer, "foo", ROWS, 2, 0, out);
+
+    // When:
+    loadGenerator.run(6);
+
+    // Then:
+    final Set<String> keys = producer.history().stream()
+        .map(ProducerRecord::key)
+        .collect(Collectors.toSet());
+    assertThat(keys, equalTo(new HashSet<>(Arrays.asList("a", "b", "c"))));
+    assertThat(
+        producer.history().stream().allMatch(record -> record.topic().equals("foo")),
+        is(true));
+  }
+
+  @Test
+  public void shouldCountFailedSends() throws Exception {
+    // Given:
+    final MockProducer<String, GenericRow> failingProducer = new MockProducer<String, GenericRow>(
+        true, new StringSerializer(), new KsqlDelimitedSerializer(SCHEMA)) {
+      @Override
+      public synchronized Future<RecordMetadata> send(
+          final ProducerRecord<String, GenericRow> record,
+          final Callback callback) {
+        callback.onCompletion(null, new RuntimeException("Boom"));
+        return null;
+      }
+    };
+    final LoadGenerator loadGenerator =
+        new LoadGenerator(failingProducer, "foo", ROWS, 2, 0, out);
+
+    // When:
+    final LoadGenerator.Stats stats = loadGenerator.run(5);
+
+    // Then:
+    assertThat(stats.getSent(), is(5L));
+    assertThat(stats.getFailed(), is(5L));
+    assertThat(stats.getAcked(), is(0L));
+  }
+}
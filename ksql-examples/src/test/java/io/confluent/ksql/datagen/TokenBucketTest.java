@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.datagen;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+  private long now = 0;
+
+  @Test
+  public void shouldLetFirstMessageThroughStraightAway() {
+    // Given:
+    final TokenBucket bucket = new TokenBucket(10, () -> now);
+
+    // Then:
+    assertThat(bucket.reserve(), is(0L));
+  }
+
+  @Test
+  public void shouldWaitForNextTokenAtTheGivenRate() {
+    // Given:
+    final TokenBucket bucket = new TokenBucket(10, () -> now);
+    bucket.reserve();
+
+    // Then:
+    assertThat(bucket.reserve(), is(TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  public void shouldMakeUpForOversleeping() {
+    // Given:
+    final TokenBucket bucket = new TokenBucket(1000, () -> now);
+    bucket.reserve();
+    bucket.reserve();
+
+    // When:
+    now += TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Then:
+    for (int i = 0; i < 4; i++) {
+      assertThat(bucket.reserve(), is(0L));
+    }
+    assertThat(bucket.reserve(), is(TimeUnit.MILLISECONDS.toNanos(1)));
+  }
+
+  @Test
+  public void shouldOnlyBurstUpToATenthOfASecond() {
+    // Given:
+    final TokenBucket bucket = new TokenBucket(100, () -> now);
+
+    // When:
+    now += TimeUnit.SECONDS.toNanos(10);
+
+    // Then:
+    for (int i = 0; i < 10; i++) {
+      assertThat(bucket.reserve(), is(0L));
+    }
+    assertThat(bucket.reserve(), is(TimeUnit.MILLISECONDS.toNanos(10)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnNonPositiveRate() {
+    new TokenBucket(0, () -> now);
+  }
+}
@@ -33,25 +33,70 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * A metastore whose clones share its state until either is changed.
+ *
+ * <p>{@link #clone()} does not copy anything: the clone and the original share the topic map, the
+ * data source map and the function registry, and each copies one of them the first time it
+ * changes it. As planning a statement only reads most of the clone it is given, cloning the
+ * metastore costs the same however many topics, streams and tables it holds.
+ *
+ * <p>The {@link ReferentialIntegrityTableEntry} of a data source is never changed once it is in
+ * the data source map, it is replaced, so entries can be shared too.
+ */
 public final class MetaStoreImpl implements MetaStore, Cloneable {
 
-  private final Map<String, KsqlTopic> topicMap;
-  private final Map<String,
+  private Map<String, KsqlTopic> topicMap;
+  private Map<String,
       Pair<StructuredDataSource, ReferentialIntegrityTableEntry>> dataSourceMap;
-  private final FunctionRegistry functionRegistry;
+  private FunctionRegistry functionRegistry;
+
+  // Whether the above may be shared with a clone, i.e. must be copied before they are changed:
+  private boolean topicMapShared;
+  private boolean dataSourceMapShared;
+  private boolean functionRegistryShared;
 
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
-    this(new HashMap<>(), new HashMap<>(), functionRegistry);
+    this(new HashMap<>(), new HashMap<>(), functionRegistry, false);
   }
 
   private MetaStoreImpl(
       final Map<String, KsqlTopic> topicMap,
       final Map<String, Pair<StructuredDataSource, ReferentialIntegrityTableEntry>> dataSourceMap,
-      final FunctionRegistry functionRegistry
+      final FunctionRegistry functionRegistry,
+      final boolean shared
   ) {
-    this.topicMap = (topicMap != null) ? topicMap : new HashMap<>();
-    this.dataSourceMap = (dataSourceMap != null) ? dataSourceMap : new HashMap<>();
+    this.topicMap = topicMap;
+    this.dataSourceMap = dataSourceMap;
     this.functionRegistry = functionRegistry;
+    this.topicMapShared = shared;
+    this.dataSourceMapShared = shared;
+    this.functionRegistryShared = shared;
+  }
+
+  private Map<String, KsqlTopic> writableTopicMap() {
+    if (topicMapShared) {
+      topicMap = new HashMap<>(topicMap);
+      topicMapShared = false;
+    }
+    return topicMap;
+  }
+
+  private Map<String, Pair<StructuredDataSource, ReferentialIntegrityTableEntry>>
+      writableDataSourceMap() {
+    if (dataSourceMapShared) {
+      dataSourceMap = new HashMap<>(dataSourceMap);
+      dataSourceMapShared = false;
+    }
+    return dataSourceMap;
+  }
+
+  private FunctionRegistry writableFunctionRegistry() {
+    if (functionRegistryShared) {
+      functionRegistry = functionRegistry.copy();
+      functionRegistryShared = false;
+    }
+    return functionRegistry;
   }
 
   @Override
@@ -60,9 +105,9 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void putTopic(final KsqlTopic topic) {
+  public synchronized void putTopic(final KsqlTopic topic) {
     if (topicMap.get(topic.getName()) == null) {
-      topicMap.put(topic.getName(), topic);
+      writableTopicMap().put(topic.getName(), topic);
     } else {
       throw new KsqlException(
           "Cannot add the new topic. Another topic with the same name already exists: "
@@ -89,10 +134,10 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void putSource(final StructuredDataSource dataSource) {
+  public synchronized void putSource(final StructuredDataSource dataSource) {
 
     if (getSource(dataSource.getName()) == null) {
-      dataSourceMap.put(dataSource.getName(), new Pair<>(dataSource, new
+      writableDataSourceMap().put(dataSource.getName(), new Pair<>(dataSource, new
           ReferentialIntegrityTableEntry()));
     } else {
       throw new KsqlException(
@@ -102,15 +147,15 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void deleteTopic(final String topicName) {
+  public synchronized void deleteTopic(final String topicName) {
     if (!topicMap.containsKey(topicName)) {
       throw new KsqlException(String.format("No topic with name %s was registered.", topicName));
     }
-    topicMap.remove(topicName);
+    writableTopicMap().remove(topicName);
   }
 
   @Override
-  public void deleteSource(final String sourceName) {
+  public synchronized void deleteSource(final String sourceName) {
     if (!dataSourceMap.containsKey(sourceName)) {
       throw new KsqlException(String.format("No data source with name %s exists.", sourceName));
     }
@@ -130,7 +175,7 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
                         + "terminate them before dropping %s.",
                         sourceName, sourceForQueriesMessage, sinkForQueriesMessage, sourceName));
     }
-    dataSourceMap.remove(sourceName);
+    writableDataSourceMap().remove(sourceName);
   }
 
   @Override
@@ -148,7 +193,7 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
 
   @Override
   public Map<String, KsqlTopic> getAllKsqlTopics() {
-    return topicMap;
+    return Collections.unmodifiableMap(topicMap);
   }
 
   @Override
@@ -157,7 +202,7 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void updateForPersistentQuery(final String queryId,
+  public synchronized void updateForPersistentQuery(final String queryId,
                                        final Set<String> sourceNames,
                                        final Set<String> sinkNames) {
     addSourceNames(sourceNames, queryId);
@@ -167,27 +212,48 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
 
   private void addSourceNames(final Set<String> sourceNames, final String queryId) {
     for (final String sourceName: sourceNames) {
+      final Pair<StructuredDataSource, ReferentialIntegrityTableEntry> source =
+          dataSourceMap.get(sourceName);
       final ReferentialIntegrityTableEntry referentialIntegrityTableEntry =
-          dataSourceMap.get(sourceName).getRight();
+          source.getRight().clone();
       referentialIntegrityTableEntry.getSourceForQueries().add(queryId);
+      writableDataSourceMap().put(
+          sourceName, new Pair<>(source.getLeft(), referentialIntegrityTableEntry));
     }
   }
 
   private void addSinkNames(final Set<String> sinkNames, final String queryId) {
     for (final String sinkName: sinkNames) {
+      final Pair<StructuredDataSource, ReferentialIntegrityTableEntry> sink =
+          dataSourceMap.get(sinkName);
       final ReferentialIntegrityTableEntry referentialIntegrityTableEntry =
-          dataSourceMap.get(sinkName).getRight();
+          sink.getRight().clone();
       referentialIntegrityTableEntry.getSinkForQueries().add(queryId);
+      writableDataSourceMap().put(
+          sinkName, new Pair<>(sink.getLeft(), referentialIntegrityTableEntry));
     }
   }
 
   @Override
-  public void removePersistentQuery(final String queryId) {
-    for (final Pair<StructuredDataSource, ReferentialIntegrityTableEntry>
-        structuredDataSourceReferentialIntegrityTableEntryPair: dataSourceMap.values()) {
-      structuredDataSourceReferentialIntegrityTableEntryPair.getRight()
-          .removeQuery(queryId);
+  public synchronized void removePersistentQuery(final String queryId) {
+    final boolean referenced = dataSourceMap.values().stream()
+        .map(Pair::getRight)
+        .anyMatch(entry -> entry.getSourceForQueries().contains(queryId)
+            || entry.getSinkForQueries().contains(queryId));
+    if (!referenced) {
+      return;
     }
+
+    writableDataSourceMap().replaceAll((sourceName, source) -> {
+      if (!source.getRight().getSourceForQueries().contains(queryId)
+          && !source.getRight().getSinkForQueries().contains(queryId)) {
+        return source;
+      }
+      final ReferentialIntegrityTableEntry referentialIntegrityTableEntry =
+          source.getRight().clone();
+      referentialIntegrityTableEntry.removeQuery(queryId);
+      return new Pair<>(source.getLeft(), referentialIntegrityTableEntry);
+    });
   }
 
   private boolean isSafeToDrop(final String sourceName) {
@@ -213,17 +279,11 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public MetaStore clone() {
-    final Map<String, KsqlTopic> cloneTopicMap = new HashMap<>(topicMap);
-    final Map<String, Pair<StructuredDataSource, ReferentialIntegrityTableEntry>> cloneDsMap =
-        dataSourceMap
-        .entrySet()
-        .stream()
-        .collect(Collectors.toMap(
-            Map.Entry::getKey,
-            entry -> new Pair<>(entry.getValue().getLeft(), entry.getValue().getRight().clone())));
-    cloneDsMap.putAll(dataSourceMap);
-    return new MetaStoreImpl(cloneTopicMap, cloneDsMap, functionRegistry.copy());
+  public synchronized MetaStore clone() {
+    topicMapShared = true;
+    dataSourceMapShared = true;
+    functionRegistryShared = true;
+    return new MetaStoreImpl(topicMap, dataSourceMap, functionRegistry, true);
   }
 
   @Override
@@ -232,13 +292,13 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void addFunction(final KsqlFunction ksqlFunction) {
-    functionRegistry.addFunction(ksqlFunction);
+  public synchronized void addFunction(final KsqlFunction ksqlFunction) {
+    writableFunctionRegistry().addFunction(ksqlFunction);
   }
 
   @Override
-  public boolean addFunctionFactory(final UdfFactory factory) {
-    return functionRegistry.addFunctionFactory(factory);
+  public synchronized boolean addFunctionFactory(final UdfFactory factory) {
+    return writableFunctionRegistry().addFunctionFactory(factory);
   }
 
   public boolean isAggregate(final String functionName) {
@@ -251,8 +311,9 @@ public final class MetaStoreImpl implements MetaStore, Cloneable {
   }
 
   @Override
-  public void addAggregateFunctionFactory(final AggregateFunctionFactory aggregateFunctionFactory) {
-    functionRegistry.addAggregateFunctionFactory(aggregateFunctionFactory);
+  public synchronized void addAggregateFunctionFactory(
+      final AggregateFunctionFactory aggregateFunctionFactory) {
+    writableFunctionRegistry().addAggregateFunctionFactory(aggregateFunctionFactory);
   }
 
   @Override
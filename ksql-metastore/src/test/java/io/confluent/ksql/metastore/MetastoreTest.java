@@ -25,8 +25,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class MetastoreTest {
@@ -87,4 +90,38 @@ public class MetastoreTest {
     assertThat(structuredDataSource.getName(), equalTo("TEST2"));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldNotSeeChangesToCloneInOriginal() {
+    final MetaStore clone = metaStore.clone();
+    final StructuredDataSource orders = metaStore.getSource("ORDERS");
+    final KsqlTopic topic = new KsqlTopic("cloneTopic", "cloneTopic", new KsqlJsonTopicSerDe());
+
+    clone.putTopic(topic);
+    clone.putSource(new KsqlStream("sqlexpression", "cloneStream", orders.getSchema(),
+        orders.getKeyField(), orders.getTimestampExtractionPolicy(), topic));
+    clone.deleteSource("TEST2");
+    clone.updateForPersistentQuery("query_1", Collections.singleton("ORDERS"),
+        Collections.singleton("cloneStream"));
+
+    assertThat(metaStore.getTopic("cloneTopic"), nullValue());
+    assertThat(metaStore.getSource("cloneStream"), nullValue());
+    Assert.assertNotNull(metaStore.getSource("TEST2"));
+    assertThat(metaStore.getQueriesWithSource("ORDERS"), equalTo(Collections.emptySet()));
+    assertThat(clone.getQueriesWithSource("ORDERS"), equalTo(Collections.singleton("query_1")));
+  }
+
+  @Test
+  public void shouldNotSeeChangesToOriginalInClone() {
+    metaStore.updateForPersistentQuery("query_1", Collections.singleton("ORDERS"),
+        Collections.emptySet());
+    final MetaStore clone = metaStore.clone();
+
+    metaStore.removePersistentQuery("query_1");
+    metaStore.deleteSource("ORDERS");
+
+    Assert.assertNotNull(clone.getSource("ORDERS"));
+    assertThat(clone.getQueriesWithSource("ORDERS"), equalTo(Collections.singleton("query_1")));
+    assertThat(metaStore.getSource("ORDERS"), nullValue());
+  }
+
+}
@@ -23,7 +23,10 @@ import io.confluent.ksql.parser.rewrite.StatementRewriteForStruct;
 import io.confluent.ksql.parser.tree.Node;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.util.DataSourceExtractor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -43,6 +46,28 @@ import org.antlr.v4.runtime.misc.ParseCancellationException;
 public class KsqlParser {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
+  // Statements covering the common parts of the grammar, parsed by warmUp():
+  private static final String WARM_UP_STATEMENTS = ""
+      + "CREATE STREAM S (ID BIGINT, NAME VARCHAR, TAGS ARRAY<VARCHAR>, "
+      + "ATTRS MAP<VARCHAR, DOUBLE>, ADDRESS STRUCT<STREET VARCHAR, ZIP INT>) "
+      + "WITH (KAFKA_TOPIC='s', VALUE_FORMAT='JSON', KEY='ID');"
+      + "CREATE TABLE T (ID BIGINT, NAME VARCHAR) "
+      + "WITH (KAFKA_TOPIC='t', VALUE_FORMAT='AVRO', KEY='ID');"
+      + "CREATE STREAM S2 WITH (PARTITIONS=4) AS SELECT S.ID, UCASE(S.NAME) AS NAME, "
+      + "S.TAGS[0], S.ATTRS['A'] * 2.5, S.ADDRESS->STREET, T.NAME FROM S "
+      + "LEFT JOIN T ON S.ID = T.ID WHERE S.ID > 100 AND S.NAME LIKE '%X%' "
+      + "OR S.NAME IS NULL PARTITION BY NAME;"
+      + "CREATE TABLE T2 AS SELECT NAME, COUNT(*), SUM(ID), MAX(ID) FROM S "
+      + "WINDOW TUMBLING (SIZE 30 SECONDS) WHERE ID BETWEEN 1 AND 10 "
+      + "GROUP BY NAME HAVING COUNT(*) > 1;"
+      + "INSERT INTO S2 SELECT ID, CASE WHEN ID > 0 THEN 'A' ELSE 'B' END, "
+      + "CAST(ID AS VARCHAR) FROM S;"
+      + "SELECT * FROM S WINDOW HOPPING (SIZE 1 MINUTE, ADVANCE BY 10 SECONDS) LIMIT 10;"
+      + "SHOW STREAMS; LIST TABLES EXTENDED; SHOW QUERIES; SHOW TOPICS; SHOW PROPERTIES;"
+      + "DESCRIBE EXTENDED S; DESCRIBE FUNCTION UCASE; EXPLAIN CSAS_S2_0; TERMINATE CSAS_S2_0;"
+      + "SET 'auto.offset.reset'='earliest'; UNSET 'auto.offset.reset';"
+      + "DROP STREAM IF EXISTS S2 DELETE TOPIC; DROP TABLE T;";
+
   public static final class ParsedStatement {
     private final String statementText;
     private final SingleStatementContext statement;
@@ -79,6 +104,22 @@ public class KsqlParser {
     }
   }
 
+  // Parse trees by statement text, least recently used first, or null if they aren't cached:
+  private final Map<String, List<ParsedStatement>> parsedStatementCache;
+
+  public KsqlParser() {
+    this(0);
+  }
+
+  /**
+   * @param cacheSize the number of statement texts whose parse trees are cached, or 0 to parse
+   *     every statement afresh. The cached trees don't depend on the metastore, so they never
+   *     need invalidating: each use still builds its AST against the metastore it is given.
+   */
+  public KsqlParser(final int cacheSize) {
+    this.parsedStatementCache = cacheSize > 0 ? createCache(cacheSize) : null;
+  }
+
   public List<PreparedStatement> buildAst(
       final String sql,
       final MetaStore metaStore) {
@@ -109,6 +150,29 @@ public class KsqlParser {
   }
 
   public List<ParsedStatement> getStatements(final String sql) {
+    if (parsedStatementCache == null) {
+      return parseStatements(sql);
+    }
+
+    final List<ParsedStatement> cached = parsedStatementCache.get(sql);
+    if (cached != null) {
+      return cached;
+    }
+
+    final List<ParsedStatement> parsed = Collections.unmodifiableList(parseStatements(sql));
+    parsedStatementCache.put(sql, parsed);
+    return parsed;
+  }
+
+  /**
+   * Parses a set of statements covering the common parts of the grammar, so that the DFA cache
+   * ANTLR shares between all parsers is populated before the first user statement is parsed.
+   */
+  public void warmUp() {
+    parseStatements(WARM_UP_STATEMENTS);
+  }
+
+  private static List<ParsedStatement> parseStatements(final String sql) {
     try {
       final SqlBaseParser.StatementsContext statementsContext =
           (SqlBaseParser.StatementsContext) getParseTree(sql);
@@ -144,7 +208,7 @@ public class KsqlParser {
     }
   }
 
-  private ParserRuleContext getParseTree(final String sql) {
+  private static ParserRuleContext getParseTree(final String sql) {
 
     final SqlBaseLexer sqlBaseLexer = new SqlBaseLexer(
         new CaseInsensitiveStream(CharStreams.fromString(sql)));
@@ -186,6 +250,17 @@ public class KsqlParser {
     }
   };
 
+  private static Map<String, List<ParsedStatement>> createCache(final int cacheSize) {
+    return Collections.synchronizedMap(
+        new LinkedHashMap<String, List<ParsedStatement>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(
+              final Map.Entry<String, List<ParsedStatement>> eldest) {
+            return size() > cacheSize;
+          }
+        });
+  }
+
   private static String getStatementString(
       final SingleStatementContext singleStatementContext
   ) {
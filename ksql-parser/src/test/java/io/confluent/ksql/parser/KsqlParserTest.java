@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
@@ -34,6 +35,7 @@ import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.KsqlTopic;
 import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.exception.ParseFailedException;
 import io.confluent.ksql.parser.tree.AliasedRelation;
@@ -68,6 +70,7 @@ import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -1186,4 +1189,56 @@ public class KsqlParserTest {
     final String simpleQuery = "SELECT * FROM address, itemid;";
     KSQL_PARSER.buildAst(simpleQuery, metaStore);
   }
+
+  @Test
+  public void shouldReuseParseTreesOfCachedStatements() {
+    // Given:
+    final KsqlParser cachingParser = new KsqlParser(10);
+    final String statement = "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;";
+
+    // When:
+    final List<ParsedStatement> first = cachingParser.getStatements(statement);
+    final List<ParsedStatement> second = cachingParser.getStatements(statement);
+
+    // Then:
+    assertThat(second.get(0).getStatement(), is(sameInstance(first.get(0).getStatement())));
+    assertThat(cachingParser.buildAst(statement, metaStore).get(0).getStatement(),
+        instanceOf(Query.class));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedParseTrees() {
+    // Given:
+    final KsqlParser cachingParser = new KsqlParser(2);
+    final String statement1 = "SHOW STREAMS;";
+    final String statement2 = "SHOW TABLES;";
+    final List<ParsedStatement> first = cachingParser.getStatements(statement1);
+    cachingParser.getStatements(statement2);
+
+    // When:
+    cachingParser.getStatements(statement1);
+    cachingParser.getStatements("SHOW TOPICS;");
+
+    // Then:
+    assertThat(cachingParser.getStatements(statement1).get(0).getStatement(),
+        is(sameInstance(first.get(0).getStatement())));
+  }
+
+  @Test
+  public void shouldNotCacheParseTreesByDefault() {
+    // Given:
+    final String statement = "SHOW STREAMS;";
+
+    // When:
+    final List<ParsedStatement> first = KSQL_PARSER.getStatements(statement);
+    final List<ParsedStatement> second = KSQL_PARSER.getStatements(statement);
+
+    // Then:
+    assertThat(second.get(0).getStatement(), is(not(sameInstance(first.get(0).getStatement()))));
+  }
+
+  @Test
+  public void shouldWarmUp() {
+    new KsqlParser().warmUp();
+  }
 }
@@ -16,8 +16,11 @@
 
 package io.confluent.ksql.rest.client;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import io.confluent.ksql.rest.client.exception.KsqlRestClientException;
 import io.confluent.ksql.rest.client.properties.LocalProperties;
@@ -30,14 +33,14 @@ import io.confluent.ksql.rest.entity.ServerInfo;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.resources.Errors;
 import io.confluent.ksql.rest.util.JsonMapper;
+import io.confluent.ksql.util.RingBufferQueue;
 import io.confluent.rest.validation.JacksonMessageBodyProvider;
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -45,7 +48,6 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Properties;
-import java.util.Scanner;
 import java.util.function.Function;
 import javax.naming.AuthenticationException;
 import javax.ws.rs.client.Client;
@@ -54,7 +56,6 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
-import org.apache.commons.compress.utils.IOUtils;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
@@ -220,52 +221,38 @@ public class KsqlRestClient implements Closeable {
         Errors.toErrorCode(response.getStatus()), "The server returned an unexpected error.");
   }
 
+  /**
+   * The rows of a streamed query, read from the response by a daemon thread of its own.
+   *
+   * <p>The reader thread parses rows straight off the response's byte stream as it blocks on
+   * reading it, and hands them over to {@link #hasNext()}. A thread blocked in {@code hasNext()}
+   * is woken by {@link #close()}. A read already in progress can't be interrupted, so the
+   * connection is released once it returns, which the server's keep-alive newlines ensure is
+   * soon.
+   */
   public static final class QueryStream implements Closeable, Iterator<StreamedRow> {
 
+    private static final ObjectReader STREAMED_ROW_READER =
+        new ObjectMapper().readerFor(StreamedRow.class);
+    private static final StreamedRow END_OF_STREAM = StreamedRow.finalMessage("End of stream");
+    private static final int MAX_BUFFERED_ROWS = 100;
+
     private final Response response;
-    private final ObjectMapper objectMapper;
-    private final Scanner responseScanner;
-    private final InputStreamReader isr;
+    private final RingBufferQueue<StreamedRow> rows =
+        new RingBufferQueue<>(MAX_BUFFERED_ROWS, RingBufferQueue.FullPolicy.BLOCK);
+    private final Thread reader;
 
     private StreamedRow bufferedRow;
+    private boolean endOfStream = false;
+    private volatile IOException readError;
     private volatile boolean closed = false;
 
     private QueryStream(final Response response) {
       this.response = response;
-
-      this.objectMapper = new ObjectMapper();
-      this.isr = new InputStreamReader(
-          (InputStream) response.getEntity(),
-          StandardCharsets.UTF_8
-      );
-      this.responseScanner = new Scanner((buf) -> {
-        int wait = 1;
-        // poll the input stream's readiness between interruptable sleeps
-        // this ensures we cannot block indefinitely on read()
-        while (true) {
-          if (closed) {
-            throw closedIllegalStateException("hasNext()");
-          }
-          if (isr.ready()) {
-            break;
-          }
-          synchronized (this) {
-            if (closed) {
-              throw closedIllegalStateException("hasNext()");
-            }
-            try {
-              wait = java.lang.Math.min(wait * 2, 200);
-              wait(wait);
-            } catch (final InterruptedException e) {
-              // this is expected
-              // just check the closed flag
-            }
-          }
-        }
-        return isr.read(buf);
-      });
-
       this.bufferedRow = null;
+      this.reader = new Thread(this::readRows, "ksql-query-stream-reader");
+      reader.setDaemon(true);
+      reader.start();
     }
 
     @Override
@@ -278,21 +265,23 @@ public class KsqlRestClient implements Closeable {
         return true;
       }
 
-      while (responseScanner.hasNextLine()) {
-        final String responseLine = responseScanner.nextLine().trim();
-        if (!responseLine.isEmpty()) {
-          try {
-            bufferedRow = objectMapper.readValue(responseLine, StreamedRow.class);
-          } catch (final IOException exception) {
-            // TODO: Should the exception be handled somehow else?
-            // Swallowing it silently seems like a bad idea...
-            throw new RuntimeException(exception);
-          }
-          return true;
+      if (endOfStream) {
+        return false;
+      }
+
+      final StreamedRow row = takeRow();
+      if (row == END_OF_STREAM) {
+        endOfStream = true;
+        if (readError != null) {
+          // TODO: Should the exception be handled somehow else?
+          // Swallowing it silently seems like a bad idea...
+          throw new RuntimeException(readError);
         }
+        return false;
       }
 
-      return false;
+      bufferedRow = row;
+      return true;
     }
 
     @Override
@@ -316,18 +305,93 @@ public class KsqlRestClient implements Closeable {
         throw closedIllegalStateException("close()");
       }
 
-      synchronized (this) {
-        closed = true;
-        this.notifyAll();
+      closed = true;
+      // Wake up the reader if it's waiting to hand over a row, and hasNext() if it's waiting for
+      // one. If there's no room for the latter, hasNext() has rows to take and won't wait.
+      reader.interrupt();
+      rows.offer(END_OF_STREAM);
+    }
+
+    private StreamedRow takeRow() {
+      while (true) {
+        try {
+          final StreamedRow row = rows.take();
+          if (closed) {
+            throw closedIllegalStateException("hasNext()");
+          }
+          return row;
+        } catch (final InterruptedException e) {
+          // this is expected
+          // just check the closed flag
+          if (closed) {
+            throw closedIllegalStateException("hasNext()");
+          }
+        }
+      }
+    }
+
+    private void readRows() {
+      final InputStream input = new ClosableInputStream((InputStream) response.getEntity());
+      try (JsonParser parser = STREAMED_ROW_READER.getFactory().createParser(input)) {
+        // Rows are whitespace separated root level values, so keep-alive newlines are skipped.
+        // Reading them still fails once the stream is closed, which drops the connection:
+        while (!closed && parser.nextToken() != null) {
+          rows.put(STREAMED_ROW_READER.readValue(parser));
+        }
+      } catch (final JsonProcessingException e) {
+        readError = e;
+      } catch (final IOException | InterruptedException e) {
+        // The connection was closed, by either end, which just ends the stream.
+      } finally {
+        response.close();
+      }
+
+      if (!closed) {
+        try {
+          rows.put(END_OF_STREAM);
+        } catch (final InterruptedException e) {
+          // Closed, so nothing is waiting for the end of the stream.
+        }
       }
-      responseScanner.close();
-      response.close();
-      IOUtils.closeQuietly(isr);
     }
 
     private IllegalStateException closedIllegalStateException(final String methodName) {
       return new IllegalStateException("Cannot call " + methodName + " when QueryStream is closed");
     }
+
+    /**
+     * Fails every read once the stream is closed. Closing the response from close() would block
+     * on the reader's read, so the reader ends the connection itself when it next gets data,
+     * which is at most a keep-alive interval away.
+     */
+    private final class ClosableInputStream extends FilterInputStream {
+
+      private ClosableInputStream(final InputStream in) {
+        super(in);
+      }
+
+      @Override
+      public int read() throws IOException {
+        throwIfClosed();
+        final int result = super.read();
+        throwIfClosed();
+        return result;
+      }
+
+      @Override
+      public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        throwIfClosed();
+        final int result = super.read(buffer, offset, length);
+        throwIfClosed();
+        return result;
+      }
+
+      private void throwIfClosed() throws IOException {
+        if (closed) {
+          throw new IOException("QueryStream is closed");
+        }
+      }
+    }
   }
 
   public Object setProperty(final String property, final Object value) {
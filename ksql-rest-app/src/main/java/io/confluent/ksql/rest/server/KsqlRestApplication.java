@@ -285,6 +285,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     final KsqlConfig ksqlConfig = new KsqlConfig(restConfig.getKsqlConfigProperties());
 
     final KsqlEngine ksqlEngine = KsqlEngine.create(ksqlConfig);
+    ksqlEngine.warmUpParser();
     final KafkaTopicClient topicClient = ksqlEngine.getTopicClient();
     UdfLoader.newInstance(ksqlConfig, ksqlEngine.getMetaStore(), ksqlInstallDir).load();
 
@@ -24,7 +24,6 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -125,29 +124,47 @@ public class CommandStore implements Closeable {
     return commandConsumer.poll(Duration.ofMillis(Long.MAX_VALUE));
   }
 
+  /**
+   * Read all the commands written to the command topic before this call.
+   *
+   * <p>The end offsets of the command topic are captured up front, and the topic is read until
+   * they are reached. Commands written after that are picked up by {@link #getNewCommands()}.
+   *
+   * @return the prior commands
+   */
   RestoreCommands getRestoreCommands() {
     final RestoreCommands restoreCommands = new RestoreCommands();
 
     final Collection<TopicPartition> cmdTopicPartitions = getTopicPartitionsForTopic(commandTopic);
 
     commandConsumer.seekToBeginning(cmdTopicPartitions);
+    final Map<TopicPartition, Long> endOffsets = commandConsumer.endOffsets(cmdTopicPartitions);
 
-    log.debug("Reading prior command records");
+    log.debug("Reading prior command records up to offsets {}", endOffsets);
 
-    final Map<CommandId, ConsumerRecord<CommandId, Command>> commands = new LinkedHashMap<>();
-    ConsumerRecords<CommandId, Command> records =
-        commandConsumer.poll(POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
-    while (!records.isEmpty()) {
+    int count = 0;
+    while (!reachedEnd(endOffsets)) {
+      final ConsumerRecords<CommandId, Command> records =
+          commandConsumer.poll(POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
       log.debug("Received {} records from poll", records.count());
       for (final ConsumerRecord<CommandId, Command> record : records) {
         restoreCommands.addCommand(record.key(), record.value());
       }
-      records = commandConsumer.poll(POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
+      count += records.count();
     }
-    log.debug("Retrieved records:" + commands.size());
+    log.debug("Retrieved records:" + count);
     return restoreCommands;
   }
 
+  private boolean reachedEnd(final Map<TopicPartition, Long> endOffsets) {
+    for (final Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+      if (commandConsumer.position(endOffset.getKey()) < endOffset.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private Collection<TopicPartition> getTopicPartitionsForTopic(final String topic) {
     final List<PartitionInfo> partitionInfoList = commandConsumer.partitionsFor(topic);
 
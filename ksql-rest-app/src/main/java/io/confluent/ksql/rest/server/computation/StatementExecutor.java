@@ -40,6 +40,7 @@ import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryMetadata;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,7 @@ public class StatementExecutor {
   private final StatementParser statementParser;
   private final Map<CommandId, CommandStatus> statusStore;
   private final Map<CommandId, CommandStatusFuture> statusFutures;
+  private List<PersistentQueryMetadata> restoredQueries;
 
   public StatementExecutor(
       final KsqlConfig ksqlConfig,
@@ -76,25 +78,64 @@ public class StatementExecutor {
     this.statusFutures = new HashMap<>();
   }
 
+  /**
+   * Replay the prior commands from the command topic.
+   *
+   * <p>Statements are executed in order, as each may depend on the streams, tables and query ids
+   * created by those before it. The persistent queries that survive the replay are only started
+   * once it is complete, so queries terminated later in the replay are never started.
+   *
+   * @param restoreCommands the commands to replay
+   */
   void handleRestoration(final RestoreCommands restoreCommands) {
-    restoreCommands.forEach(
-        (commandId, command, terminatedQueries, wasDropped) -> {
-          log.info("Executing prior statement: '{}'", command);
-          try {
-            handleStatementWithTerminatedQueries(
-                command,
-                commandId,
-                terminatedQueries,
-                wasDropped
-            );
-          } catch (final Exception exception) {
-            log.warn(
-                "Failed to execute statement due to exception",
-                exception
-            );
+    restoredQueries = new ArrayList<>();
+    try {
+      restoreCommands.forEach(
+          (commandId, command, terminatedQueries, wasDropped) -> {
+            log.info("Executing prior statement: '{}'", command);
+            try {
+              handleStatementWithTerminatedQueries(
+                  command,
+                  commandId,
+                  terminatedQueries,
+                  wasDropped
+              );
+            } catch (final Exception exception) {
+              log.warn(
+                  "Failed to execute statement due to exception",
+                  exception
+              );
+            }
           }
-        }
-    );
+      );
+    } finally {
+      final List<PersistentQueryMetadata> queries = restoredQueries;
+      restoredQueries = null;
+      startRestoredQueries(queries);
+    }
+  }
+
+  private void startRestoredQueries(final List<PersistentQueryMetadata> queries) {
+    log.info("Starting {} restored queries", queries.size());
+    for (final PersistentQueryMetadata query : queries) {
+      // Skip any query terminated by a later statement in the replay:
+      if (ksqlEngine.getPersistentQuery(query.getQueryId()) == null) {
+        continue;
+      }
+      try {
+        query.start();
+      } catch (final Exception exception) {
+        log.warn("Failed to start restored query " + query.getQueryId(), exception);
+      }
+    }
+  }
+
+  private void start(final PersistentQueryMetadata query) {
+    if (restoredQueries != null) {
+      restoredQueries.add(query);
+    } else {
+      query.start();
+    }
   }
 
   /**
@@ -290,8 +331,7 @@ public class StatementExecutor {
       );
       for (final QueryMetadata queryMetadata : queryMetadataList) {
         if (queryMetadata instanceof PersistentQueryMetadata) {
-          final PersistentQueryMetadata persistentQueryMd = (PersistentQueryMetadata) queryMetadata;
-          persistentQueryMd.start();
+          start((PersistentQueryMetadata) queryMetadata);
         }
       }
     } else {
@@ -399,7 +439,7 @@ public class StatementExecutor {
         ksqlEngine.terminateQuery(queryId, false);
         return false;
       } else {
-        persistentQueryMd.start();
+        start(persistentQueryMd);
         return true;
       }
 
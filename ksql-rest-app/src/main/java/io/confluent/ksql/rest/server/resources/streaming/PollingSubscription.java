@@ -20,6 +20,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.connect.data.Schema;
 
 public abstract class PollingSubscription<T> implements Flow.Subscription {
@@ -29,25 +31,46 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
   private final Flow.Subscriber<T> subscriber;
   private final ListeningScheduledExecutorService exec;
   private final Schema schema;
+  private final boolean notifiedOfItems;
+  private final AtomicLong wakeUps = new AtomicLong();
+  private final AtomicBoolean waiting = new AtomicBoolean(false);
 
   private boolean needsSchema = true;
   private volatile boolean done = false;
   private Throwable exception = null;
   private boolean draining = false;
+  private volatile boolean cancelled = false;
   private volatile ListenableFuture future;
 
   public PollingSubscription(
       final ListeningScheduledExecutorService exec,
       final Flow.Subscriber<T> subscriber,
       final Schema schema
+  ) {
+    this(exec, subscriber, schema, false);
+  }
+
+  /**
+   * @param notifiedOfItems {@code true} if the subclass calls {@link #wakeUp()} whenever there
+   *     may be new items to poll. The subscription then waits to be woken when there are no
+   *     items, rather than polling again every {@value #BACKOFF_DELAY_MS} ms.
+   */
+  public PollingSubscription(
+      final ListeningScheduledExecutorService exec,
+      final Flow.Subscriber<T> subscriber,
+      final Schema schema,
+      final boolean notifiedOfItems
   ) {
     this.exec = exec;
     this.subscriber = subscriber;
     this.schema = schema;
+    this.notifiedOfItems = notifiedOfItems;
   }
 
   @Override
   public void cancel() {
+    cancelled = true;
+    waiting.set(false);
     if (future != null) {
       future.cancel(false);
     }
@@ -71,13 +94,14 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
     if (!draining) {
       future = exec.submit(() -> {
 
+        final long wakeUpsBeforePoll = wakeUps.get();
         if (done) {
           draining = true;
         }
         final T item = poll();
         if (item == null) {
           if (!draining) {
-            future = exec.schedule(() -> request(1), BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
+            waitForItems(wakeUpsBeforePoll);
           }
         } else {
           subscriber.onNext(item);
@@ -95,13 +119,40 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
   }
 
 
+  private void waitForItems(final long wakeUpsBeforePoll) {
+    if (!notifiedOfItems) {
+      future = exec.schedule(() -> request(1), BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
+      return;
+    }
+
+    waiting.set(true);
+
+    // A wake up between the poll and now found nothing waiting, so poll again on its behalf:
+    if (wakeUps.get() != wakeUpsBeforePoll && waiting.compareAndSet(true, false)) {
+      request(1);
+    }
+  }
+
+  /**
+   * Signals that there may be new items to poll, or that the subscription is done. Safe to call
+   * from any thread.
+   */
+  protected void wakeUp() {
+    wakeUps.incrementAndGet();
+    if (!cancelled && waiting.compareAndSet(true, false)) {
+      request(1);
+    }
+  }
+
   protected void setError(final Throwable e) {
     exception = e;
     done = true;
+    wakeUp();
   }
 
   protected void setDone() {
     done = true;
+    wakeUp();
   }
 
   abstract T poll();
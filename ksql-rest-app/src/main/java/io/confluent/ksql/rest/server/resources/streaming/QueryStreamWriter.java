@@ -26,12 +26,15 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.QueuedQueryMetadata;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.streams.KeyValue;
@@ -42,10 +45,16 @@ class QueryStreamWriter implements StreamingOutput {
 
   private static final Logger log = LoggerFactory.getLogger(QueryStreamWriter.class);
 
+  private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
   private final QueuedQueryMetadata queryMetadata;
   private final long disconnectCheckInterval;
   private final ObjectMapper objectMapper;
   private final KsqlEngine ksqlEngine;
+  private final int batchSize;
+  private final long lingerMs;
+  private final List<KeyValue<String, GenericRow>> batch = new ArrayList<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
   private volatile Exception streamsException;
   private volatile boolean limitReached = false;
 
@@ -71,8 +80,12 @@ class QueryStreamWriter implements StreamingOutput {
     this.disconnectCheckInterval = disconnectCheckInterval;
     this.queryMetadata = ((QueuedQueryMetadata) queryMetadata);
     this.queryMetadata.setLimitHandler(new LimitHandler());
-    this.queryMetadata.getKafkaStreams().setUncaughtExceptionHandler(new StreamsExceptionHandler());
+    this.queryMetadata.setUncaughtExceptionHandler(new StreamsExceptionHandler());
     this.ksqlEngine = ksqlEngine;
+
+    final KsqlConfig queryConfig = ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties);
+    this.batchSize = queryConfig.getInt(KsqlConfig.KSQL_QUERY_STREAM_BATCH_SIZE_CONFIG);
+    this.lingerMs = queryConfig.getLong(KsqlConfig.KSQL_QUERY_STREAM_LINGER_MS_CONFIG);
     queryMetadata.start();
   }
 
@@ -85,11 +98,13 @@ class QueryStreamWriter implements StreamingOutput {
             TimeUnit.MILLISECONDS
         );
         if (value != null) {
-          write(out, value.value);
+          batch.add(value);
+          fillBatch();
+          write(out, batch);
         } else {
           // If no new rows have been written, the user may have terminated the connection without
           // us knowing. Check by trying to write a single newline.
-          out.write("\n".getBytes(StandardCharsets.UTF_8));
+          out.write(NEW_LINE);
           out.flush();
         }
         drainAndThrowOnError(out);
@@ -99,7 +114,7 @@ class QueryStreamWriter implements StreamingOutput {
 
       if (limitReached) {
         objectMapper.writeValue(out, StreamedRow.finalMessage("Limit Reached"));
-        out.write("\n".getBytes(StandardCharsets.UTF_8));
+        out.write(NEW_LINE);
         out.flush();
       }
     } catch (final EOFException exception) {
@@ -119,21 +134,67 @@ class QueryStreamWriter implements StreamingOutput {
     }
   }
 
-  private void write(final OutputStream output, final GenericRow row) throws IOException {
-    objectMapper.writeValue(output, StreamedRow.row(row));
-    output.write("\n".getBytes(StandardCharsets.UTF_8));
-    output.flush();
+  /**
+   * Top up the current batch with any rows that are already queued, then, if a linger time is
+   * set, wait up to that long for more rows until the batch is full.
+   */
+  private void fillBatch() throws InterruptedException {
+    if (batch.size() >= batchSize) {
+      return;
+    }
+    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue = queryMetadata.getRowQueue();
+    rowQueue.drainTo(batch, batchSize - batch.size());
+    if (lingerMs <= 0) {
+      return;
+    }
+    final long deadline = System.currentTimeMillis() + lingerMs;
+    while (batch.size() < batchSize && !limitReached && streamsException == null) {
+      final long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return;
+      }
+      final KeyValue<String, GenericRow> value = rowQueue.poll(remaining, TimeUnit.MILLISECONDS);
+      if (value == null) {
+        return;
+      }
+      batch.add(value);
+      rowQueue.drainTo(batch, batchSize - batch.size());
+    }
+  }
+
+  /**
+   * Serialize the rows into the reusable buffer and hand them to the output with a single flush.
+   * The rows are removed from the list.
+   */
+  private void write(
+      final OutputStream output,
+      final List<KeyValue<String, GenericRow>> rows
+  ) throws IOException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    try {
+      for (final KeyValue<String, GenericRow> row : rows) {
+        objectMapper.writeValue(buffer, StreamedRow.row(row.value));
+        buffer.write(NEW_LINE);
+      }
+      buffer.writeTo(output);
+      output.flush();
+    } finally {
+      rows.clear();
+      buffer.reset();
+    }
   }
 
   private void outputException(final OutputStream out, final Throwable exception) {
     try {
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
+      out.write(NEW_LINE);
       if (exception.getCause() instanceof KsqlException) {
         objectMapper.writeValue(out, StreamedRow.error(exception.getCause()));
       } else {
         objectMapper.writeValue(out, StreamedRow.error(exception));
       }
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
+      out.write(NEW_LINE);
       out.flush();
     } catch (final IOException e) {
       log.debug("Client disconnected while attempting to write an error message");
@@ -150,10 +211,7 @@ class QueryStreamWriter implements StreamingOutput {
   private void drain(final OutputStream out) throws IOException {
     final List<KeyValue<String, GenericRow>> rows = Lists.newArrayList();
     queryMetadata.getRowQueue().drainTo(rows);
-
-    for (final KeyValue<String, GenericRow> row : rows) {
-      write(out, row.value);
-    }
+    write(out, rows);
   }
 
   private class StreamsExceptionHandler implements Thread.UncaughtExceptionHandler {
@@ -16,7 +16,6 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
-import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlEngine;
@@ -24,10 +23,10 @@ import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueuedQueryMetadata;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.apache.kafka.streams.KeyValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,25 +79,28 @@ public class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>>
         final Subscriber<Collection<StreamedRow>> subscriber,
         final QueuedQueryMetadata queryMetadata
     ) {
-      super(exec, subscriber, queryMetadata.getResultSchema());
+      super(exec, subscriber, queryMetadata.getResultSchema(), true);
       this.queryMetadata = queryMetadata;
 
       queryMetadata.setLimitHandler(this::setDone);
-      queryMetadata.getKafkaStreams().setUncaughtExceptionHandler(
-          (thread, e) -> setError(e)
-      );
+      queryMetadata.setQueuedHandler(this::wakeUp);
+      queryMetadata.setUncaughtExceptionHandler((thread, e) -> setError(e));
     }
 
     @Override
     public Collection<StreamedRow> poll() {
-      final List<KeyValue<String, GenericRow>> rows = Lists.newLinkedList();
+      final List<KeyValue<String, GenericRow>> rows =
+          new ArrayList<>(queryMetadata.getRowQueue().size());
       queryMetadata.getRowQueue().drainTo(rows);
       if (rows.isEmpty()) {
         return null;
-      } else {
-        return rows.stream().map(row -> StreamedRow.row(row.value))
-            .collect(Collectors.toCollection(Lists::newLinkedList));
       }
+
+      final List<StreamedRow> streamedRows = new ArrayList<>(rows.size());
+      for (final KeyValue<String, GenericRow> row : rows) {
+        streamedRows.add(StreamedRow.row(row.value));
+      }
+      return streamedRows;
     }
 
     @Override
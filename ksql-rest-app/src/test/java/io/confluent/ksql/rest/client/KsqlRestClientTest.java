@@ -39,11 +39,13 @@ import io.confluent.ksql.rest.server.mock.MockStreamedQueryResource;
 import io.confluent.ksql.rest.server.resources.Errors;
 import io.confluent.ksql.rest.server.utils.TestUtils;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.client.Client;
@@ -141,6 +143,33 @@ public class KsqlRestClientTest {
     }
   }
 
+  @Test
+  public void shouldReadEveryRowBeforeEndOfStream() throws Exception {
+    // Given:
+    final MockStreamedQueryResource sqr = mockApplication.getStreamedQueryResource();
+    final RestResponse<KsqlRestClient.QueryStream> queryResponse = ksqlRestClient.makeQueryRequest
+            ("Select *");
+    final MockStreamedQueryResource.TestStreamWriter writer = sqr.getWriters().get(0);
+    writer.enq("one");
+    writer.enq("two");
+    writer.finished();
+
+    // When:
+    final KsqlRestClient.QueryStream queryStream = queryResponse.getResponse();
+    final CompletableFuture<List<Object>> read = CompletableFuture.supplyAsync(() -> {
+      final List<Object> values = new ArrayList<>();
+      while (queryStream.hasNext()) {
+        values.add(queryStream.next().getRow().getColumns().get(0));
+      }
+      return values;
+    });
+
+    // Then:
+    assertThat(read.get(10, TimeUnit.SECONDS), is(ImmutableList.of("one", "two")));
+    assertThat(queryStream.hasNext(), is(false));
+    queryStream.close();
+  }
+
   @Test
   public void shouldInterruptScannerOnClose() throws InterruptedException {
     final MockStreamedQueryResource sqr = mockApplication.getStreamedQueryResource();
@@ -176,6 +205,25 @@ public class KsqlRestClientTest {
     }
   }
 
+  @Test
+  public void shouldDisconnectFromServerOnClose() throws Exception {
+    // Given:
+    final MockStreamedQueryResource sqr = mockApplication.getStreamedQueryResource();
+    final RestResponse<KsqlRestClient.QueryStream> queryResponse = ksqlRestClient.makeQueryRequest
+            ("Select *");
+    final MockStreamedQueryResource.TestStreamWriter writer = sqr.getWriters().get(0);
+
+    try {
+      // When:
+      queryResponse.getResponse().close();
+
+      // Then:
+      assertThat(writer.awaitDisconnect(10, TimeUnit.SECONDS), is(true));
+    } finally {
+      writer.finished();
+    }
+  }
+
   @Test
   public void testStatus() {
     // When:
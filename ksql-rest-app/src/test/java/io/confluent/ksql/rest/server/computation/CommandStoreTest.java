@@ -47,6 +47,7 @@ import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
@@ -62,6 +63,8 @@ import org.junit.runner.RunWith;
 public class CommandStoreTest {
 
   private static final String COMMAND_TOPIC = "command";
+  private static final TopicPartition COMMAND_TOPIC_PARTITION =
+      new TopicPartition(COMMAND_TOPIC, 0);
   @Mock(type = MockType.NICE)
   private Consumer<CommandId, Command> commandConsumer;
   @Mock(type = MockType.NICE)
@@ -86,10 +89,9 @@ public class CommandStoreTest {
         new ConsumerRecord<>("topic", 0, 0, createId, latestCommand))
     ));
 
-    EasyMock.expect(commandConsumer.partitionsFor(COMMAND_TOPIC)).andReturn(Collections.emptyList());
-
-    EasyMock.expect(commandConsumer.poll(anyObject())).andReturn(records)
-        .andReturn(new ConsumerRecords<>(Collections.emptyMap()));
+    givenCommandTopicEndOffset(3);
+    EasyMock.expect(commandConsumer.position(COMMAND_TOPIC_PARTITION)).andReturn(0L).andReturn(3L);
+    EasyMock.expect(commandConsumer.poll(anyObject())).andReturn(records);
     EasyMock.replay(commandConsumer);
 
     final CommandStore command = createCommandStore();
@@ -141,9 +143,9 @@ public class CommandStoreTest {
             "terminate query 'queryId'", Collections.emptyMap(), Collections.emptyMap()
     )))));
 
-    EasyMock.expect(commandConsumer.partitionsFor(COMMAND_TOPIC)).andReturn(Collections.emptyList());
-    EasyMock.expect(commandConsumer.poll(anyObject())).andReturn(records)
-        .andReturn(new ConsumerRecords<>(Collections.emptyMap()));
+    givenCommandTopicEndOffset(1);
+    EasyMock.expect(commandConsumer.position(COMMAND_TOPIC_PARTITION)).andReturn(0L).andReturn(1L);
+    EasyMock.expect(commandConsumer.poll(anyObject())).andReturn(records);
     EasyMock.replay(commandConsumer);
 
     final CommandStore commandStore = createCommandStore();
@@ -151,6 +153,53 @@ public class CommandStoreTest {
     assertThat(restoreCommands.terminatedQueries(), equalTo(Collections.singletonMap(new QueryId("queryId"), terminated)));
   }
 
+  @Test
+  public void shouldStopRestoringOnceEndOffsetIsReached() {
+    final CommandId createId = new CommandId(CommandId.Type.TABLE, "one", CommandId.Action.CREATE);
+    final ConsumerRecords<CommandId, Command> records = new ConsumerRecords<>(
+        Collections.singletonMap(COMMAND_TOPIC_PARTITION, Collections.singletonList(
+            new ConsumerRecord<>(COMMAND_TOPIC, 0, 0, createId, new Command(
+                "some statement", Collections.emptyMap(), Collections.emptyMap())))));
+
+    givenCommandTopicEndOffset(1);
+    EasyMock.expect(commandConsumer.position(COMMAND_TOPIC_PARTITION)).andReturn(0L).andReturn(1L);
+    EasyMock.expect(commandConsumer.poll(anyObject())).andReturn(records).once();
+    EasyMock.replay(commandConsumer);
+
+    final List<Pair<CommandId, Command>> commands = getPriorCommands(createCommandStore());
+
+    assertThat(commands.size(), equalTo(1));
+    EasyMock.verify(commandConsumer);
+  }
+
+  @Test
+  public void shouldKeepPollingUntilEndOffsetIsReached() {
+    final CommandId createId = new CommandId(CommandId.Type.TABLE, "one", CommandId.Action.CREATE);
+    final ConsumerRecords<CommandId, Command> records = new ConsumerRecords<>(
+        Collections.singletonMap(COMMAND_TOPIC_PARTITION, Collections.singletonList(
+            new ConsumerRecord<>(COMMAND_TOPIC, 0, 0, createId, new Command(
+                "some statement", Collections.emptyMap(), Collections.emptyMap())))));
+
+    givenCommandTopicEndOffset(1);
+    EasyMock.expect(commandConsumer.position(COMMAND_TOPIC_PARTITION))
+        .andReturn(0L).andReturn(0L).andReturn(1L);
+    EasyMock.expect(commandConsumer.poll(anyObject()))
+        .andReturn(new ConsumerRecords<>(Collections.emptyMap()))
+        .andReturn(records);
+    EasyMock.replay(commandConsumer);
+
+    final List<Pair<CommandId, Command>> commands = getPriorCommands(createCommandStore());
+
+    assertThat(commands.size(), equalTo(1));
+  }
+
+  private void givenCommandTopicEndOffset(final long endOffset) {
+    EasyMock.expect(commandConsumer.partitionsFor(COMMAND_TOPIC)).andReturn(
+        Collections.singletonList(new PartitionInfo(COMMAND_TOPIC, 0, null, null, null)));
+    EasyMock.expect(commandConsumer.endOffsets(Collections.singleton(COMMAND_TOPIC_PARTITION)))
+        .andReturn(Collections.singletonMap(COMMAND_TOPIC_PARTITION, endOffset));
+  }
+
   private CommandStore createCommandStore() {
     return createCommandStore(new CommandIdAssigner(new MetaStoreImpl(new InternalFunctionRegistry())));
   }
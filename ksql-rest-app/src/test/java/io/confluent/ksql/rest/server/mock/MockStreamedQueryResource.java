@@ -26,7 +26,9 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -52,13 +54,21 @@ public class MockStreamedQueryResource {
   public List<TestStreamWriter> getWriters() { return writers; }
 
   public class TestStreamWriter implements StreamingOutput {
+    private static final long KEEP_ALIVE_MS = 100;
+
     BlockingQueue<String> dataq = new LinkedBlockingQueue<>();
     ObjectMapper objectMapper = JsonMapper.INSTANCE.mapper;
+    private final CountDownLatch disconnected = new CountDownLatch(1);
 
     public void enq(final String data) throws InterruptedException { dataq.put(data); }
 
     public void finished() throws InterruptedException { dataq.put(""); }
 
+    public boolean awaitDisconnect(final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+      return disconnected.await(timeout, unit);
+    }
+
     private void writeRow(final String data, final OutputStream out) throws IOException {
       final List<Object> rowColumns = new java.util.LinkedList<Object>();
       rowColumns.add(data);
@@ -70,20 +80,33 @@ public class MockStreamedQueryResource {
 
     @Override
     public void write(final OutputStream out) throws IOException, WebApplicationException {
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
-      out.flush();
-      while (true) {
-        final String data;
-        try {
-          data = dataq.take();
-        } catch (final InterruptedException e) {
-          throw new RuntimeException("take interrupted");
+      try {
+        writeKeepAlive(out);
+        while (true) {
+          final String data;
+          try {
+            data = dataq.poll(KEEP_ALIVE_MS, TimeUnit.MILLISECONDS);
+          } catch (final InterruptedException e) {
+            throw new RuntimeException("take interrupted");
+          }
+          if (data == null) {
+            writeKeepAlive(out);
+            continue;
+          }
+          if (data.equals("")) {
+            break;
+          }
+          writeRow(data, out);
         }
-        if (data.equals("")) {
-          break;
-        }
-        writeRow(data, out);
+      } catch (final IOException e) {
+        disconnected.countDown();
+        throw e;
       }
     }
+
+    private void writeKeepAlive(final OutputStream out) throws IOException {
+      out.write("\n".getBytes(StandardCharsets.UTF_8));
+      out.flush();
+    }
   }
 }
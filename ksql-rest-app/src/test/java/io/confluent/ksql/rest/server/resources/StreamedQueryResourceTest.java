@@ -183,6 +183,8 @@ public class StreamedQueryResourceTest {
     final Map<String, Object> requestStreamsProperties = Collections.emptyMap();
 
     final KsqlConfig mockKsqlConfig = mock(KsqlConfig.class);
+    expect(mockKsqlConfig.cloneWithPropertyOverwrite(requestStreamsProperties))
+        .andReturn(new KsqlConfig(Collections.emptyMap()));
     final KsqlEngine mockKsqlEngine = mock(KsqlEngine.class);
     final KafkaTopicClient mockKafkaTopicClient = mock(KafkaTopicClientImpl.class);
     expect(mockKsqlEngine.getTopicClient()).andReturn(mockKafkaTopicClient);
@@ -204,7 +206,7 @@ public class StreamedQueryResourceTest {
     final StatementParser mockStatementParser = mock(StatementParser.class);
     expect(mockStatementParser.parseSingleStatement(queryString)).andReturn(mock(Query.class));
 
-    replay(mockKsqlEngine, mockStatementParser, mockOutputNode);
+    replay(mockKsqlConfig, mockKsqlEngine, mockStatementParser, mockOutputNode);
 
     final StreamedQueryResource testResource = new StreamedQueryResource(
         mockKsqlConfig, mockKsqlEngine, mockStatementParser, DISCONNECT_CHECK_INTERVAL);
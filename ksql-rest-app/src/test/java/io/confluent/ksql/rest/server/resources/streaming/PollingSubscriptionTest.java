@@ -29,10 +29,12 @@ import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscription;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
@@ -275,6 +277,50 @@ public class PollingSubscriptionTest {
     assertEquals(ImmutableList.of(), testSubscriber.elements);
   }
 
+  @Test
+  public void testWaitsToBeWokenUpWhenNotifiedOfItems() throws Exception {
+    final TestSubscriber testSubscriber = new TestSubscriber();
+    final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    final AtomicInteger polls = new AtomicInteger();
+    final PollingSubscription<String> subscription = new PollingSubscription<String>(
+        MoreExecutors.listeningDecorator(exec),
+        testSubscriber,
+        SchemaBuilder.OPTIONAL_STRING_SCHEMA,
+        true
+    ) {
+      @Override
+      String poll() {
+        polls.incrementAndGet();
+        return queue.poll();
+      }
+
+      @Override
+      void close() {
+      }
+    };
+
+    testSubscriber.onSubscribe(subscription);
+    final long deadline = System.currentTimeMillis() + 1000;
+    while (polls.get() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+
+    // no new items, so no polling:
+    Thread.sleep(250);
+    assertEquals(1, polls.get());
+
+    queue.add("a");
+    subscription.wakeUp();
+    queue.add("b");
+    subscription.setDone();
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertNull(testSubscriber.error);
+    assertEquals(ImmutableList.of("a", "b"), testSubscriber.elements);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testExpectsNEqualsOne() {
     final TestSubscriber testSubscriber = new TestSubscriber() {
@@ -16,19 +16,23 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.newCapture;
 import static org.easymock.EasyMock.niceMock;
 import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlEngine;
 import io.confluent.ksql.planner.plan.OutputNode;
@@ -43,6 +47,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -103,8 +108,6 @@ public class QueryStreamWriterTest {
 
     final KafkaStreams kStreams = niceMock(KafkaStreams.class);
 
-    kStreams.setUncaughtExceptionHandler(capture(ehCapture));
-    expectLastCall();
     kStreams.setStateListener(anyObject());
     expectLastCall();
     expect(kStreams.state()).andReturn(State.RUNNING);
@@ -118,6 +121,8 @@ public class QueryStreamWriterTest {
 
     queryMetadata.setLimitHandler(capture(limitHandlerCapture));
     expectLastCall().once();
+    queryMetadata.setUncaughtExceptionHandler(capture(ehCapture));
+    expectLastCall();
 
     replay(kStreams);
   }
@@ -183,7 +188,34 @@ public class QueryStreamWriterTest {
         containsString("Row3")));
   }
 
+  @Test
+  public void shouldWriteBatchOfQueuedRowsWithSingleFlush() throws Exception {
+    // Given:
+    expect(queryMetadata.isRunning()).andReturn(true).andReturn(false);
+    expect(rowQueue.poll(anyLong(), anyObject()))
+        .andReturn(new KeyValue<>("no used", new GenericRow(ImmutableList.of("Row1"))))
+        .once();
+    expect(rowQueue.drainTo(capture(drainCapture), eq(2))).andAnswer(rows("Row2", "Row3"));
+
+    createWriter(ImmutableMap.of(KsqlConfig.KSQL_QUERY_STREAM_BATCH_SIZE_CONFIG, 3));
+
+    // When:
+    writer.write(out);
+
+    // Then:
+    final List<String> lines = getOutput(out);
+    assertThat(lines, hasItems(
+        containsString("Row1"),
+        containsString("Row2"),
+        containsString("Row3")));
+    assertThat(((FlushCountingOutputStream) out).flushes, is(1));
+  }
+
   private void createWriter() throws Exception {
+    createWriter(Collections.emptyMap());
+  }
+
+  private void createWriter(final Map<String, Object> overriddenProperties) throws Exception {
     replay(queryMetadata, ksqlEngine, rowQueue);
 
     writer = new QueryStreamWriter(
@@ -191,11 +223,11 @@ public class QueryStreamWriterTest {
         ksqlEngine,
         1000,
         "a KSQL statement",
-        Collections.emptyMap(),
+        overriddenProperties,
         objectMapper
         );
 
-    out = new ByteArrayOutputStream();
+    out = new FlushCountingOutputStream();
     limitHandler = limitHandlerCapture.getValue();
   }
 
@@ -216,6 +248,15 @@ public class QueryStreamWriterTest {
     };
   }
 
+  private static final class FlushCountingOutputStream extends ByteArrayOutputStream {
+    private int flushes;
+
+    @Override
+    public void flush() {
+      flushes++;
+    }
+  }
+
   private static List<String> getOutput(final ByteArrayOutputStream out) {
     final String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
     return Arrays.stream(lines)
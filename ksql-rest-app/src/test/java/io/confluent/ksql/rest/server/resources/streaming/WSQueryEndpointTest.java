@@ -170,6 +170,8 @@ public class WSQueryEndpointTest {
     expect(queryMetadata.getResultSchema()).andReturn(schema).anyTimes();
     queryMetadata.setLimitHandler(anyObject());
     expectLastCall().once();
+    queryMetadata.setQueuedHandler(anyObject());
+    expectLastCall().once();
     queryMetadata.registerQueryStateListener(anyObject());
     expectLastCall();
     expect(kafkaStreams.state()).andReturn(State.RUNNING).anyTimes();
@@ -179,7 +181,7 @@ public class WSQueryEndpointTest {
     queryMetadata.start();
     expectLastCall();
 
-    kafkaStreams.setUncaughtExceptionHandler(anyObject());
+    queryMetadata.setUncaughtExceptionHandler(anyObject());
     expectLastCall().once();
     kafkaStreams.start();
     expectLastCall().once();
@@ -18,11 +18,16 @@ package io.confluent.ksql.serde;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.binary.KsqlBinaryDeserializer;
+import io.confluent.ksql.serde.binary.KsqlBinarySerializer;
+import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Schema;
 
 
@@ -43,4 +48,30 @@ public abstract class KsqlTopicSerDe {
       KsqlConfig ksqlConfig,
       boolean isInternal,
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory);
+
+  /**
+   * Returns a serde whose deserializer only decodes the columns in {@code requiredColumns}, which
+   * are field names without any alias. All other columns of the deserialized row are null.
+   */
+  public abstract Serde<GenericRow> getGenericRowSerde(
+      Schema schemaMaybeWithSource,
+      KsqlConfig ksqlConfig,
+      boolean isInternal,
+      Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      Set<String> requiredColumns);
+
+  /**
+   * Whether rows of an internal topic, i.e. a repartition topic or state store changelog, should
+   * use the compact binary format rather than the format of the source topic.
+   */
+  protected static boolean useBinaryFormat(final KsqlConfig ksqlConfig, final boolean isInternal) {
+    return isInternal
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG);
+  }
+
+  protected static Serde<GenericRow> getBinaryGenericRowSerde(final Schema schema) {
+    return Serdes.serdeFrom(
+        new ThreadLocalSerializer(() -> new KsqlBinarySerializer(schema)),
+        new KsqlBinaryDeserializer(schema));
+  }
 }
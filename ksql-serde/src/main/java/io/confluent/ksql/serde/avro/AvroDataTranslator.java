@@ -22,11 +22,14 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.connect.ConnectDataTranslator;
 import io.confluent.ksql.serde.connect.DataTranslator;
 import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.SchemaUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -39,11 +42,25 @@ public class AvroDataTranslator implements DataTranslator {
   private final Schema avroCompatibleSchema;
 
   public AvroDataTranslator(final Schema ksqlSchema) {
+    this(ksqlSchema, SchemaUtil.getFieldNamesWithNoAlias(ksqlSchema));
+  }
+
+  /**
+   * Creates a translator that only translates the named columns of the rows it reads, and leaves
+   * all other columns null.
+   */
+  public AvroDataTranslator(final Schema ksqlSchema, final Set<String> requiredColumns) {
     this.ksqlSchema = ksqlSchema;
     this.avroCompatibleSchema = buildAvroCompatibleSchema(
         ksqlSchema,
         new TypeNameGenerator());
-    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema);
+    final Set<String> requiredFields = new HashSet<>();
+    for (final Field field : ksqlSchema.fields()) {
+      if (requiredColumns.contains(SchemaUtil.getFieldNameWithNoAlias(field))) {
+        requiredFields.add(avroCompatibleSchema.fields().get(field.index()).name());
+      }
+    }
+    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema, requiredFields);
   }
 
   @Override
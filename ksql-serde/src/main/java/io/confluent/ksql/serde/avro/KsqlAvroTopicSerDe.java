@@ -32,6 +32,7 @@ import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
 
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.kafka.common.serialization.Deserializer;
@@ -67,6 +68,20 @@ public class KsqlAvroTopicSerDe extends KsqlTopicSerDe {
       final KsqlConfig ksqlConfig,
       final boolean isInternal,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory) {
+    return getGenericRowSerde(schemaMaybeWithSource, ksqlConfig, isInternal,
+        schemaRegistryClientFactory, SchemaUtil.getFieldNamesWithNoAlias(schemaMaybeWithSource));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredColumns) {
+    if (useBinaryFormat(ksqlConfig, isInternal)) {
+      return getBinaryGenericRowSerde(schemaMaybeWithSource);
+    }
     final Schema schema = isInternal
         ? schemaMaybeWithSource : SchemaUtil.getSchemaWithNoAlias(schemaMaybeWithSource);
     final Serializer<GenericRow> genericRowSerializer = new ThreadLocalSerializer(
@@ -76,7 +91,7 @@ public class KsqlAvroTopicSerDe extends KsqlTopicSerDe {
     final Deserializer<GenericRow> genericRowDeserializer = new ThreadLocalDeserializer(
         () -> new KsqlConnectDeserializer(
             getAvroConverter(schemaRegistryClientFactory.get(), ksqlConfig),
-            new AvroDataTranslator(schema))
+            new AvroDataTranslator(schema, requiredColumns))
     );
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
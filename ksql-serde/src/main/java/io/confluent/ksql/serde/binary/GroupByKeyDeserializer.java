@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
+import java.util.Map;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Deserializes group by keys written by {@link GroupByKeySerializer}.
+ */
+public class GroupByKeyDeserializer implements Deserializer<GroupByKey> {
+
+  private final KsqlBinaryDeserializer rowDeserializer;
+
+  public GroupByKeyDeserializer(final Schema keySchema) {
+    this.rowDeserializer = new KsqlBinaryDeserializer(keySchema);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public GroupByKey deserialize(final String topic, final byte[] bytes) {
+    final GenericRow row = rowDeserializer.deserialize(topic, bytes);
+    return row == null ? null : new GroupByKey(row.getColumns());
+  }
+
+  @Override
+  public void close() {
+  }
+}
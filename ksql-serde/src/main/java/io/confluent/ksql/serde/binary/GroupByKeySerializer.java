@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.GroupByKey;
+import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
+import java.util.Map;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Serializes group by keys in the binary row format of {@link KsqlBinarySerializer}, with one
+ * field per grouping column. Equal keys always serialize to the same bytes, so the result can be
+ * used as a repartition topic and state store key.
+ */
+public class GroupByKeySerializer implements Serializer<GroupByKey> {
+
+  private final Serializer<GenericRow> rowSerializer;
+
+  /**
+   * @param keySchema a struct schema with a field for each grouping column, in grouping order.
+   */
+  public GroupByKeySerializer(final Schema keySchema) {
+    this.rowSerializer = new ThreadLocalSerializer(() -> new KsqlBinarySerializer(keySchema));
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GroupByKey key) {
+    if (key == null) {
+      return null;
+    }
+    return rowSerializer.serialize(topic, new GenericRow(key.getValues()));
+  }
+
+  @Override
+  public void close() {
+    rowSerializer.close();
+  }
+}
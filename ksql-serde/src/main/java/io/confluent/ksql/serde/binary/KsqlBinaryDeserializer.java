@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.ByteUtils;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Deserializes rows written by {@link KsqlBinarySerializer}.
+ */
+public class KsqlBinaryDeserializer implements Deserializer<GenericRow> {
+
+  private final Schema schema;
+
+  public KsqlBinaryDeserializer(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final List<Object> columns = readFields(buffer, schema.fields());
+      if (buffer.hasRemaining()) {
+        throw new SerializationException(
+            buffer.remaining() + " unexpected bytes after the last column");
+      }
+      return new GenericRow(columns);
+    } catch (final Exception e) {
+      throw new SerializationException("Error deserializing binary message", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static List<Object> readFields(final ByteBuffer buffer, final List<Field> fields) {
+    final int count = ByteUtils.readUnsignedVarint(buffer);
+    if (count != fields.size()) {
+      throw new SerializationException("Message has " + count
+          + " columns but the schema has " + fields.size() + " fields");
+    }
+
+    final byte[] nulls = new byte[(count + 7) / 8];
+    buffer.get(nulls);
+
+    final List<Object> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if ((nulls[i / 8] & (1 << (i % 8))) != 0) {
+        values.add(null);
+      } else {
+        values.add(readValue(buffer, fields.get(i).schema()));
+      }
+    }
+    return values;
+  }
+
+  private static Object readNullableValue(final ByteBuffer buffer, final Schema valueSchema) {
+    if (buffer.get() == 0) {
+      return null;
+    }
+    return readValue(buffer, valueSchema);
+  }
+
+  private static Object readValue(final ByteBuffer buffer, final Schema valueSchema) {
+    switch (valueSchema.type()) {
+      case INT32:
+        return ByteUtils.readVarint(buffer);
+      case INT64:
+        return ByteUtils.readVarlong(buffer);
+      case FLOAT64:
+        return buffer.getDouble();
+      case BOOLEAN:
+        return buffer.get() != 0;
+      case STRING:
+        final int length = ByteUtils.readUnsignedVarint(buffer);
+        final String value = new String(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+      case ARRAY:
+        final int size = ByteUtils.readUnsignedVarint(buffer);
+        final List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readNullableValue(buffer, valueSchema.valueSchema()));
+        }
+        return list;
+      case MAP:
+        final int entries = ByteUtils.readUnsignedVarint(buffer);
+        final Map<Object, Object> map = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+          final Object key = readNullableValue(buffer, valueSchema.keySchema());
+          map.put(key, readNullableValue(buffer, valueSchema.valueSchema()));
+        }
+        return map;
+      case STRUCT:
+        final List<Object> fieldValues = readFields(buffer, valueSchema.fields());
+        final Struct struct = new Struct(valueSchema);
+        for (int i = 0; i < fieldValues.size(); i++) {
+          struct.put(valueSchema.fields().get(i), fieldValues.get(i));
+        }
+        return struct;
+      default:
+        throw new SerializationException("Unsupported type: " + valueSchema.type());
+    }
+  }
+}
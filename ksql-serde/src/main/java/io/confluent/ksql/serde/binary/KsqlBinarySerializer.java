@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.ByteUtils;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Serializes rows into the compact binary format used for internal topics.
+ *
+ * <p>The format is positional and driven by the schema, so no field names or types are written:
+ * <ul>
+ *   <li>A row, or struct, is the number of fields as a varint, a bitmap of the fields that are
+ *   null, and then the value of each field that is not null.</li>
+ *   <li>Ints and bigints are zig-zag varints, doubles are 8 bytes and booleans 1 byte.</li>
+ *   <li>Strings are the varint length of their UTF-8 encoding followed by the encoded bytes.</li>
+ *   <li>Arrays are the varint element count followed by each element, and maps the varint entry
+ *   count followed by each key and value, in the order of their serialized keys. Elements, keys
+ *   and values are each preceded by a byte that is zero if they are null.</li>
+ * </ul>
+ *
+ * <p>Instances reuse an internal buffer and are not thread safe.
+ */
+public class KsqlBinarySerializer implements Serializer<GenericRow> {
+
+  private static final int INITIAL_BUFFER_SIZE = 256;
+
+  private final Schema schema;
+  private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+  public KsqlBinarySerializer(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      buffer.clear();
+      writeFields(schema.fields(), data.getColumns());
+      return Arrays.copyOf(buffer.array(), buffer.position());
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing binary message", e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private void writeFields(final List<Field> fields, final List<?> values) {
+    if (values.size() != fields.size()) {
+      throw new SerializationException("Row has " + values.size()
+          + " columns but the schema has " + fields.size() + " fields");
+    }
+
+    final byte[] nulls = new byte[(fields.size() + 7) / 8];
+    for (int i = 0; i < fields.size(); i++) {
+      if (values.get(i) == null) {
+        nulls[i / 8] |= 1 << (i % 8);
+      }
+    }
+
+    ensureRemaining(5 + nulls.length);
+    ByteUtils.writeUnsignedVarint(fields.size(), buffer);
+    buffer.put(nulls);
+
+    for (int i = 0; i < fields.size(); i++) {
+      if (values.get(i) != null) {
+        writeValue(fields.get(i).schema(), values.get(i));
+      }
+    }
+  }
+
+  private void writeNullableValue(final Schema valueSchema, final Object value) {
+    ensureRemaining(1);
+    if (value == null) {
+      buffer.put((byte) 0);
+      return;
+    }
+    buffer.put((byte) 1);
+    writeValue(valueSchema, value);
+  }
+
+  private void writeValue(final Schema valueSchema, final Object value) {
+    switch (valueSchema.type()) {
+      case INT32:
+        ensureRemaining(5);
+        ByteUtils.writeVarint((Integer) value, buffer);
+        return;
+      case INT64:
+        ensureRemaining(10);
+        ByteUtils.writeVarlong((Long) value, buffer);
+        return;
+      case FLOAT64:
+        ensureRemaining(8);
+        buffer.putDouble(((Number) value).doubleValue());
+        return;
+      case BOOLEAN:
+        ensureRemaining(1);
+        buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+        return;
+      case STRING:
+        final byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(5 + bytes.length);
+        ByteUtils.writeUnsignedVarint(bytes.length, buffer);
+        buffer.put(bytes);
+        return;
+      case ARRAY:
+        final List<?> list = (List<?>) value;
+        ensureRemaining(5);
+        ByteUtils.writeUnsignedVarint(list.size(), buffer);
+        for (final Object element : list) {
+          writeNullableValue(valueSchema.valueSchema(), element);
+        }
+        return;
+      case MAP:
+        final Map<?, ?> map = (Map<?, ?>) value;
+        ensureRemaining(5);
+        ByteUtils.writeUnsignedVarint(map.size(), buffer);
+        writeMapEntries(valueSchema, map);
+        return;
+      case STRUCT:
+        final Struct struct = (Struct) value;
+        final List<Field> fields = valueSchema.fields();
+        final Object[] fieldValues = new Object[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+          fieldValues[i] = struct.get(fields.get(i).name());
+        }
+        writeFields(fields, Arrays.asList(fieldValues));
+        return;
+      default:
+        throw new SerializationException("Unsupported type: " + valueSchema.type());
+    }
+  }
+
+  /**
+   * Writes the entries of a map ordered by their serialized keys, so that equal maps serialize
+   * to the same bytes whatever their iteration order. Grouping keys rely on this.
+   */
+  private void writeMapEntries(final Schema mapSchema, final Map<?, ?> map) {
+    final int start = buffer.position();
+    final int[] keyEnds = new int[map.size()];
+    final int[] entryEnds = new int[map.size()];
+    int entry = 0;
+    for (final Map.Entry<?, ?> mapEntry : map.entrySet()) {
+      writeNullableValue(mapSchema.keySchema(), mapEntry.getKey());
+      keyEnds[entry] = buffer.position() - start;
+      writeNullableValue(mapSchema.valueSchema(), mapEntry.getValue());
+      entryEnds[entry] = buffer.position() - start;
+      entry++;
+    }
+    if (map.size() < 2) {
+      return;
+    }
+
+    final byte[] entries = Arrays.copyOfRange(buffer.array(), start, buffer.position());
+    final Integer[] order = new Integer[map.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (left, right) -> compareUnsigned(
+        entries, entryStart(entryEnds, left), keyEnds[left],
+        entryStart(entryEnds, right), keyEnds[right]));
+
+    buffer.position(start);
+    for (final int i : order) {
+      final int entryStart = entryStart(entryEnds, i);
+      buffer.put(entries, entryStart, entryEnds[i] - entryStart);
+    }
+  }
+
+  private static int entryStart(final int[] entryEnds, final int entry) {
+    return entry == 0 ? 0 : entryEnds[entry - 1];
+  }
+
+  private static int compareUnsigned(
+      final byte[] bytes,
+      final int leftStart,
+      final int leftEnd,
+      final int rightStart,
+      final int rightEnd
+  ) {
+    final int length = Math.min(leftEnd - leftStart, rightEnd - rightStart);
+    for (int i = 0; i < length; i++) {
+      final int result =
+          Integer.compare(bytes[leftStart + i] & 0xff, bytes[rightStart + i] & 0xff);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(leftEnd - leftStart, rightEnd - rightStart);
+  }
+
+  private void ensureRemaining(final int bytes) {
+    if (buffer.remaining() >= bytes) {
+      return;
+    }
+    final int required = buffer.position() + bytes;
+    final ByteBuffer larger =
+        ByteBuffer.allocate(Math.max(required, buffer.capacity() * 2));
+    buffer.flip();
+    larger.put(buffer);
+    buffer = larger;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.kafka.connect.data.Date;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -35,9 +36,27 @@ public class ConnectDataTranslator implements DataTranslator {
   private static final String PATH_SEPARATOR = "->";
 
   private final Schema schema;
+  private final List<Field> rowFields;
 
   public ConnectDataTranslator(final Schema schema) {
     this.schema = schema;
+    this.rowFields = schema.type() == Schema.Type.STRUCT ? schema.fields() : null;
+  }
+
+  /**
+   * Creates a translator that only translates the fields of the row schema that are named in
+   * {@code requiredFields}, and leaves all other fields of the rows it reads null.
+   */
+  public ConnectDataTranslator(final Schema schema, final Set<String> requiredFields) {
+    this.schema = schema;
+    this.rowFields = new ArrayList<>();
+    if (schema.type() == Schema.Type.STRUCT) {
+      for (final Field field : schema.fields()) {
+        if (requiredFields.contains(field.name())) {
+          rowFields.add(field);
+        }
+      }
+    }
   }
 
   @Override
@@ -47,10 +66,15 @@ public class ConnectDataTranslator implements DataTranslator {
       throw new KsqlException("Schema for a KSQL row should be a struct");
     }
 
-    final Struct rowStruct = (Struct) toKsqlValue(schema, connectSchema, connectData, "");
-    if (rowStruct == null) {
+    if (connectSchema == null) {
+      return null;
+    }
+    validateSchema("", schema, connectSchema);
+    if (connectData == null) {
       return null;
     }
+    final Struct rowStruct =
+        toKsqlStruct(schema, rowFields, connectSchema, (Struct) connectData, "");
 
     // streams are expensive, so we don't use them from serdes. build the row using forEach
     final List<Object> fields = new ArrayList<>(schema.fields().size());
@@ -194,7 +218,8 @@ public class ConnectDataTranslator implements DataTranslator {
             schema.keySchema(), connectSchema.keySchema(),
             schema.valueSchema(), connectSchema.valueSchema(), (Map) convertedValue, pathStr);
       case STRUCT:
-        return toKsqlStruct(schema, connectSchema, (Struct) convertedValue, pathStr);
+        return toKsqlStruct(
+            schema, schema.fields(), connectSchema, (Struct) convertedValue, pathStr);
       case STRING:
         // use String.valueOf to convert various int types and Boolean to string
         return String.valueOf(convertedValue);
@@ -239,6 +264,7 @@ public class ConnectDataTranslator implements DataTranslator {
   }
 
   private Struct toKsqlStruct(final Schema schema,
+                              final List<Field> fields,
                               final Schema connectSchema,
                               final Struct connectStruct,
                               final String pathStr) {
@@ -246,7 +272,7 @@ public class ConnectDataTranslator implements DataTranslator {
     final Struct ksqlStruct = new Struct(schema);
     final Map<String, Field> caseInsensitiveFieldMap =
         getCaseInsensitiveFieldMap(connectSchema);
-    schema.fields().forEach(field -> {
+    fields.forEach(field -> {
       final String fieldNameUppercase = field.name().toUpperCase();
       // TODO: should we throw an exception if this is not true? this means the schema changed
       //       or the user declared the source with a schema incompatible with the registry schema
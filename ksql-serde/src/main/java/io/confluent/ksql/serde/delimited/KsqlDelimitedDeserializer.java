@@ -18,23 +18,40 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.SchemaUtil;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 
 public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
 
   private final Schema schema;
+  private final boolean[] requiredColumns;
 
   public KsqlDelimitedDeserializer(final Schema schema) {
+    this(schema, SchemaUtil.getFieldNamesWithNoAlias(schema));
+  }
+
+  /**
+   * Creates a deserializer that only parses the values of the named columns and leaves all
+   * other columns null.
+   */
+  public KsqlDelimitedDeserializer(final Schema schema, final Set<String> requiredColumns) {
     this.schema = schema;
+    this.requiredColumns = new boolean[schema.fields().size()];
+    for (final Field field : schema.fields()) {
+      this.requiredColumns[field.index()] =
+          requiredColumns.contains(SchemaUtil.getFieldNameWithNoAlias(field));
+    }
   }
 
   @Override
@@ -70,7 +87,7 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
         );
       }
       for (int i = 0; i < csvRecord.size(); i++) {
-        if (csvRecord.get(i) == null) {
+        if (csvRecord.get(i) == null || !requiredColumns[i]) {
           columns.add(null);
         } else {
           columns.add(enforceFieldType(schema.fields().get(i).schema(), csvRecord.get(i)));
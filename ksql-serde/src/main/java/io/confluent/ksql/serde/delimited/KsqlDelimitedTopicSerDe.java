@@ -21,8 +21,10 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.SchemaUtil;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.kafka.common.serialization.Deserializer;
@@ -44,12 +46,27 @@ public class KsqlDelimitedTopicSerDe extends KsqlTopicSerDe {
       final KsqlConfig ksqlConfig,
       final boolean isInternal,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory) {
+    return getGenericRowSerde(schema, ksqlConfig, isInternal, schemaRegistryClientFactory,
+        SchemaUtil.getFieldNamesWithNoAlias(schema));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredColumns) {
+    if (useBinaryFormat(ksqlConfig, isInternal)) {
+      return getBinaryGenericRowSerde(schema);
+    }
     final Map<String, Object> serdeProps = new HashMap<>();
 
     final Serializer<GenericRow> genericRowSerializer = new KsqlDelimitedSerializer(schema);
     genericRowSerializer.configure(serdeProps, false);
 
-    final Deserializer<GenericRow> genericRowDeserializer = new KsqlDelimitedDeserializer(schema);
+    final Deserializer<GenericRow> genericRowDeserializer =
+        new KsqlDelimitedDeserializer(schema, requiredColumns);
     genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
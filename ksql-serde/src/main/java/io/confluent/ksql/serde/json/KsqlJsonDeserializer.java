@@ -16,43 +16,74 @@
 
 package io.confluent.ksql.serde.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
-import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.data.Struct;
-import org.apache.kafka.connect.json.JsonConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Deserializes JSON objects into rows by streaming through the document.
+ *
+ * <p>Each field name is looked up, case insensitively, in a table of the schema's fields that is
+ * built once. Only the values of fields in the schema are converted; the values of all other
+ * fields, including nested objects and arrays, are skipped without being materialized.
+ */
 public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
   private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonSerializer.class);
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private final Schema schema;
-  private final JsonConverter jsonConverter;
+  private final Map<String, Field> rowFields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+  private final Map<Schema, Map<String, Field>> fieldsByName = new IdentityHashMap<>();
 
   /**
    * Default constructor needed by Kafka
    */
   public KsqlJsonDeserializer(final Schema schema, final boolean isInternal) {
+    this(schema, isInternal, SchemaUtil.getFieldNamesWithNoAlias(schema));
+  }
+
+  /**
+   * Creates a deserializer that only converts the values of the named columns. The values of all
+   * other columns are skipped like those of unknown fields, and left null.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final Set<String> requiredColumns
+  ) {
     // If this is a Deserializer for an internal topic in the streams app
     if (isInternal) {
       this.schema = schema;
     } else {
       this.schema = SchemaUtil.getSchemaWithNoAlias(schema);
     }
-    jsonConverter = new JsonConverter();
-    jsonConverter.configure(Collections.singletonMap("schemas.enable", false), false);
+    for (final Field field : this.schema.fields()) {
+      if (requiredColumns.contains(SchemaUtil.getFieldNameWithNoAlias(field))) {
+        rowFields.put(field.name(), field);
+        buildFieldTables(field.schema());
+      }
+    }
   }
 
   @Override
@@ -73,105 +104,189 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private GenericRow getGenericRow(final byte[] rowJsonBytes) {
-    final SchemaAndValue schemaAndValue = jsonConverter.toConnectData("topic", rowJsonBytes);
-    final Map<String, Object> valueMap = (Map) schemaAndValue.value();
-    if (valueMap == null) {
+  private GenericRow getGenericRow(final byte[] rowJsonBytes) throws IOException {
+    if (rowJsonBytes == null) {
       return null;
     }
+    try (JsonParser parser = JSON_FACTORY.createParser(rowJsonBytes)) {
+      final JsonToken token = parser.nextToken();
+      if (token == null || token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      expectToken(parser, JsonToken.START_OBJECT);
 
-    final Map<String, String> caseInsensitiveFieldNameMap =
-        getCaseInsensitiveFieldNameMap(valueMap, true);
+      final List<Object> columns =
+          new ArrayList<>(Collections.nCopies(schema.fields().size(), null));
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final Field field = rowFields.get(columnName(parser.getCurrentName()));
+        parser.nextToken();
+        if (field == null) {
+          parser.skipChildren();
+        } else {
+          columns.set(field.index(), readValue(parser, field.schema()));
+        }
+      }
+      return new GenericRow(columns);
+    }
+  }
 
-    final List<Object> columns = new ArrayList(schema.fields().size());
-    for (final Field field : schema.fields()) {
-      final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
-      columns.add(enforceFieldType(field.schema(), columnVal));
+  private static String columnName(final String fieldName) {
+    if (!fieldName.startsWith("@")) {
+      return fieldName;
     }
-    return new GenericRow(columns);
+    if (fieldName.length() == 1) {
+      throw new KsqlException("Field name cannot be '@'.");
+    }
+    return fieldName.substring(1);
   }
 
   // This is a temporary requirement until we can ensure that the types that Connect JSON
   // convertor creates are supported in KSQL.
-  @SuppressWarnings("unchecked")
-  private Object enforceFieldType(final Schema fieldSchema, final Object columnVal) {
-    if (columnVal == null) {
+  private Object readValue(final JsonParser parser, final Schema fieldSchema) throws IOException {
+    final JsonToken token = parser.getCurrentToken();
+    if (token == JsonToken.VALUE_NULL) {
       return null;
     }
     switch (fieldSchema.type()) {
       case BOOLEAN:
-        return SerdeUtils.toBoolean(columnVal);
+        if (token.isBoolean()) {
+          return token == JsonToken.VALUE_TRUE;
+        }
+        return SerdeUtils.toBoolean(readUntypedValue(parser));
       case INT32:
-        return SerdeUtils.toInteger(columnVal);
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return (int) parser.getLongValue();
+        }
+        return SerdeUtils.toInteger(readUntypedValue(parser));
       case INT64:
-        return SerdeUtils.toLong(columnVal);
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getLongValue();
+        }
+        return SerdeUtils.toLong(readUntypedValue(parser));
       case FLOAT64:
-        return SerdeUtils.toDouble(columnVal);
+        if (token.isNumeric()) {
+          return parser.getDoubleValue();
+        }
+        return SerdeUtils.toDouble(readUntypedValue(parser));
       case STRING:
-        return columnVal.toString();
+        if (token == JsonToken.VALUE_STRING) {
+          return parser.getText();
+        }
+        return readUntypedValue(parser).toString();
       case ARRAY:
-        return enforceFieldTypeForArray(fieldSchema, (List<?>) columnVal);
+        return readArray(parser, fieldSchema);
       case MAP:
-        return enforceFieldTypeForMap(fieldSchema, (Map<String, Object>) columnVal);
+        return readMap(parser, fieldSchema);
       case STRUCT:
-        return enforceFieldTypeForStruct(fieldSchema, (Map<String, Object>) columnVal);
+        return readStruct(parser, fieldSchema);
       default:
         throw new KsqlException("Type is not supported: " + fieldSchema.type());
     }
   }
 
-  private List<?> enforceFieldTypeForArray(final Schema fieldSchema, final List<?> arrayList) {
-    final List<Object> array = new ArrayList<>(arrayList.size());
-    for (final Object item : arrayList) {
-      array.add(enforceFieldType(fieldSchema.valueSchema(), item));
+  private List<?> readArray(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expectToken(parser, JsonToken.START_ARRAY);
+    final List<Object> array = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      array.add(readValue(parser, fieldSchema.valueSchema()));
     }
     return array;
   }
 
-  private Map<String, Object> enforceFieldTypeForMap(
-      final Schema fieldSchema,
-      final Map<String, ?> columnMap) {
+  private Map<String, Object> readMap(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expectToken(parser, JsonToken.START_OBJECT);
     final Map<String, Object> ksqlMap = new HashMap<>();
-    for (final Map.Entry<String, ?> e : columnMap.entrySet()) {
-      ksqlMap.put(
-          enforceFieldType(Schema.OPTIONAL_STRING_SCHEMA, e.getKey()).toString(),
-          enforceFieldType(fieldSchema.valueSchema(), e.getValue())
-      );
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = parser.getCurrentName();
+      parser.nextToken();
+      ksqlMap.put(key, readValue(parser, fieldSchema.valueSchema()));
     }
     return ksqlMap;
   }
 
-  private Struct enforceFieldTypeForStruct(
-      final Schema fieldSchema,
-      final Map<String, ?> structMap) {
+  private Struct readStruct(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expectToken(parser, JsonToken.START_OBJECT);
+    final Map<String, Field> fields = fieldsByName.get(fieldSchema);
     final Struct columnStruct = new Struct(fieldSchema);
-    final Map<String, String> caseInsensitiveStructFieldNameMap =
-        getCaseInsensitiveFieldNameMap(structMap, false);
-    fieldSchema.fields()
-        .forEach(
-            field -> columnStruct.put(field.name(),
-                enforceFieldType(
-                    field.schema(), structMap.get(
-                        caseInsensitiveStructFieldNameMap.get(field.name().toUpperCase())
-                    ))));
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final Field field = fields.get(parser.getCurrentName());
+      parser.nextToken();
+      if (field == null) {
+        parser.skipChildren();
+      } else {
+        columnStruct.put(field, readValue(parser, field.schema()));
+      }
+    }
     return columnStruct;
   }
 
-  private Map<String, String> getCaseInsensitiveFieldNameMap(final Map<String, ?> map,
-                                                             final boolean omitAt) {
-    final Map<String, String> keyMap = new HashMap<>();
-    for (final Map.Entry<String, ?> entry : map.entrySet()) {
-      if (omitAt && entry.getKey().startsWith("@")) {
-        if (entry.getKey().length() == 1) {
-          throw new KsqlException("Field name cannot be '@'.");
+  /**
+   * Read the current value without a schema, into the same types the Connect JSON converter
+   * would produce, for values that need converting to the column's type.
+   */
+  private static Object readUntypedValue(final JsonParser parser) throws IOException {
+    switch (parser.getCurrentToken()) {
+      case VALUE_NULL:
+        return null;
+      case VALUE_TRUE:
+        return true;
+      case VALUE_FALSE:
+        return false;
+      case VALUE_NUMBER_INT:
+        return parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_STRING:
+        return parser.getText();
+      case START_ARRAY:
+        final List<Object> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          list.add(readUntypedValue(parser));
         }
-        keyMap.put(entry.getKey().toUpperCase().substring(1), entry.getKey());
-      } else {
-        keyMap.put(entry.getKey().toUpperCase(), entry.getKey());
-      }
+        return list;
+      case START_OBJECT:
+        final Map<String, Object> map = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String key = parser.getCurrentName();
+          parser.nextToken();
+          map.put(key, readUntypedValue(parser));
+        }
+        return map;
+      default:
+        throw new KsqlException("Unexpected JSON token: " + parser.getCurrentToken());
+    }
+  }
+
+  private static void expectToken(final JsonParser parser, final JsonToken expected) {
+    if (parser.getCurrentToken() != expected) {
+      throw new KsqlException(
+          "Expected " + expected + " but found " + parser.getCurrentToken());
+    }
+  }
+
+  private void buildFieldTables(final Schema fieldSchema) {
+    switch (fieldSchema.type()) {
+      case STRUCT:
+        if (fieldsByName.containsKey(fieldSchema)) {
+          return;
+        }
+        final Map<String, Field> fields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        fieldSchema.fields().forEach(field -> fields.put(field.name(), field));
+        fieldsByName.put(fieldSchema, fields);
+        fieldSchema.fields().forEach(field -> buildFieldTables(field.schema()));
+        return;
+      case ARRAY:
+        buildFieldTables(fieldSchema.valueSchema());
+        return;
+      case MAP:
+        buildFieldTables(fieldSchema.valueSchema());
+        return;
+      default:
+        break;
     }
-    return keyMap;
   }
 
   @Override
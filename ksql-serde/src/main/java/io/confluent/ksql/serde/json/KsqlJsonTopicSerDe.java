@@ -21,8 +21,10 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.SchemaUtil;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.apache.kafka.common.serialization.Deserializer;
@@ -42,6 +44,18 @@ public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
   public Serde<GenericRow> getGenericRowSerde(final Schema schema, final KsqlConfig ksqlConfig,
       final boolean isInternal,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory) {
+    return getGenericRowSerde(schema, ksqlConfig, isInternal, schemaRegistryClientFactory,
+        SchemaUtil.getFieldNamesWithNoAlias(schema));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(final Schema schema, final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredColumns) {
+    if (useBinaryFormat(ksqlConfig, isInternal)) {
+      return getBinaryGenericRowSerde(schema);
+    }
     final Map<String, Object> serdeProps = new HashMap<>();
     serdeProps.put("JsonPOJOClass", GenericRow.class);
 
@@ -49,7 +63,7 @@ public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
     genericRowSerializer.configure(serdeProps, false);
 
     final Deserializer<GenericRow> genericRowDeserializer = new KsqlJsonDeserializer(schema,
-        isInternal);
+        isInternal, requiredColumns);
     genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
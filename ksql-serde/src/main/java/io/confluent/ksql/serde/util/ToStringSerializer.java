@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serializes any object as the UTF-8 encoding of its string form. Strings are serialized exactly
+ * as by {@link org.apache.kafka.common.serialization.StringSerializer}, so keys of other types,
+ * such as {@link io.confluent.ksql.GroupByKey}, can be written to topics that have string keys.
+ */
+public class ToStringSerializer implements Serializer<Object> {
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final Object data) {
+    if (data == null) {
+      return null;
+    }
+    return data.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GroupByKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class GroupByKeySerializerTest {
+
+  private static final Schema KEY_SCHEMA = SchemaBuilder.struct()
+      .field("KEY0", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("KEY1", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  private final GroupByKeySerializer serializer = new GroupByKeySerializer(KEY_SCHEMA);
+  private final GroupByKeyDeserializer deserializer = new GroupByKeyDeserializer(KEY_SCHEMA);
+
+  @Test
+  public void shouldRoundTripKey() {
+    final GroupByKey key = new GroupByKey(Arrays.asList("item_1", 1511897796092L));
+
+    final GroupByKey result = deserializer.deserialize("t1", serializer.serialize("t1", key));
+
+    assertThat(result, equalTo(key));
+  }
+
+  @Test
+  public void shouldRoundTripNullValues() {
+    final GroupByKey key = new GroupByKey(Arrays.asList(null, 10L));
+
+    final GroupByKey result = deserializer.deserialize("t1", serializer.serialize("t1", key));
+
+    assertThat(result, equalTo(key));
+  }
+
+  @Test
+  public void shouldNotMixUpValuesContainingTheSeparator() {
+    final Schema stringKeySchema = SchemaBuilder.struct()
+        .field("KEY0", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("KEY1", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    final GroupByKeySerializer stringKeySerializer = new GroupByKeySerializer(stringKeySchema);
+    final GroupByKey first = new GroupByKey(Arrays.asList("a|+|b", "c"));
+    final GroupByKey second = new GroupByKey(Arrays.asList("a", "b|+|c"));
+
+    assertThat(first.toString(), equalTo(second.toString()));
+    assertThat(stringKeySerializer.serialize("t1", first),
+        not(equalTo(stringKeySerializer.serialize("t1", second))));
+  }
+
+  @Test
+  public void shouldBeSmallerThanStringKey() {
+    final GroupByKey key = new GroupByKey(Arrays.asList("item_1", 1511897796092L));
+
+    assertThat(serializer.serialize("t1", key).length,
+        lessThan(key.toString().getBytes(StandardCharsets.UTF_8).length));
+  }
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    assertThat(serializer.serialize("t1", null), nullValue());
+    assertThat(deserializer.deserialize("t1", null), nullValue());
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.json.KsqlJsonSerializer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+public class KsqlBinarySerializerTest {
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("NUMBER", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("SHIPPED", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  private final KsqlBinarySerializer serializer = new KsqlBinarySerializer(ORDER_SCHEMA);
+  private final KsqlBinaryDeserializer deserializer = new KsqlBinaryDeserializer(ORDER_SCHEMA);
+
+  @Test
+  public void shouldRoundTripRow() {
+    final Map<String, Double> map = new HashMap<>();
+    map.put("key1", 100.0);
+    map.put("key2", null);
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1511897796092L, -1, "item_é", 10.5, true, Arrays.asList(100.0, null, -3.25),
+        map, new Struct(ADDRESS_SCHEMA).put("NUMBER", 221L).put("STREET", "Baker St")));
+
+    final GenericRow result = deserializer.deserialize("t1", serializer.serialize("t1", row));
+
+    assertThat(result, equalTo(row));
+  }
+
+  @Test
+  public void shouldRoundTripNullColumns() {
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, 1, null, null, false, null, null, new Struct(ADDRESS_SCHEMA).put("NUMBER", 1L)));
+
+    final GenericRow result = deserializer.deserialize("t1", serializer.serialize("t1", row));
+
+    assertThat(result, equalTo(row));
+  }
+
+  @Test
+  public void shouldRoundTripRowsLargerThanTheInitialBuffer() {
+    final char[] chars = new char[10_000];
+    Arrays.fill(chars, 'x');
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1L, 2, new String(chars), 1.0, true, Collections.nCopies(1000, 1.0),
+        Collections.emptyMap(), null));
+
+    final GenericRow first = deserializer.deserialize("t1", serializer.serialize("t1", row));
+    final GenericRow second = deserializer.deserialize("t1", serializer.serialize("t1", row));
+
+    assertThat(first, equalTo(row));
+    assertThat(second, equalTo(row));
+  }
+
+  @Test
+  public void shouldBeSmallerThanJson() {
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1511897796092L, 1, "item_1", 10.0, true, Arrays.asList(100.0),
+        Collections.singletonMap("key1", 100.0), null));
+
+    final byte[] binary = serializer.serialize("t1", row);
+    final byte[] json = new KsqlJsonSerializer(ORDER_SCHEMA).serialize("t1", row);
+
+    assertThat(binary.length, lessThan(json.length));
+  }
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    assertThat(serializer.serialize("t1", null), nullValue());
+    assertThat(deserializer.deserialize("t1", null), nullValue());
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfRowDoesNotMatchSchema() {
+    serializer.serialize("t1", new GenericRow(Arrays.asList(1L, 2)));
+  }
+
+  @Test
+  public void shouldSerializeEqualMapsToTheSameBytes() {
+    final Map<String, Double> map = new LinkedHashMap<>();
+    final Map<String, Double> reordered = new LinkedHashMap<>();
+    for (int i = 0; i < 20; i++) {
+      map.put("key" + i, (double) i);
+      reordered.put("key" + (19 - i), (double) (19 - i));
+    }
+
+    final byte[] bytes = serializer.serialize("t1", rowWithMap(map));
+    final byte[] reorderedBytes = serializer.serialize("t1", rowWithMap(reordered));
+
+    assertThat(reorderedBytes, equalTo(bytes));
+    assertThat(deserializer.deserialize("t1", bytes), equalTo(rowWithMap(map)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnLongInIntColumn() {
+    serializer.serialize("t1", new GenericRow(Arrays.asList(
+        1L, 1L << 40, null, null, null, null, null, null)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnDoubleInBigintColumn() {
+    serializer.serialize("t1", new GenericRow(Arrays.asList(
+        1.5, 1, null, null, null, null, null, null)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfMessageDoesNotMatchSchema() {
+    final Schema otherSchema = SchemaBuilder.struct()
+        .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+    final byte[] bytes = new KsqlBinarySerializer(otherSchema)
+        .serialize("t1", new GenericRow(Collections.singletonList(1L)));
+
+    deserializer.deserialize("t1", bytes);
+  }
+
+  private static GenericRow rowWithMap(final Map<String, Double> map) {
+    return new GenericRow(Arrays.asList(1L, 1, null, null, null, null, map, null));
+  }
+}
@@ -20,7 +20,9 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
+import java.util.Arrays;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Assert;
@@ -71,4 +73,15 @@ public class KsqlDelimitedDeserializerTest {
     Assert.assertNull(genericRow.getColumns().get(3));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // ORDERUNITS would fail to parse if it were not skipped
+    final String rowString = "1511897796092,1,item_1,not_a_double\r\n";
+
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema, ImmutableSet.of("ORDERID", "ITEMID"));
+
+    final GenericRow genericRow = deserializer.deserialize("", rowString.getBytes());
+    assertThat(genericRow.getColumns(), equalTo(Arrays.asList(null, 1L, "item_1", null)));
+  }
 }
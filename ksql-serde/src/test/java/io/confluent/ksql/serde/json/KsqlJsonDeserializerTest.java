@@ -21,13 +21,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -143,4 +147,84 @@ public class KsqlJsonDeserializerTest {
     assertThat(genericRow, equalTo(expected));
 
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldSkipFieldsNotInSchema() {
+    final String json = "{\"ignored\":{\"a\":[1,{\"b\":[]}],\"ordertime\":5},"
+        + "\"ORDERTIME\":1511897796092,\"other\":[[{}]],\"itemid\":\"Item_1\"}";
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(orderSchema, false);
+
+    final GenericRow genericRow = deserializer.deserialize("", json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(genericRow, equalTo(new GenericRow(Arrays.asList(
+        1511897796092L, null, "Item_1", null, null, null))));
+  }
+
+  @Test
+  public void shouldCoerceValuesToColumnTypes() {
+    final String json = "{\"ordertime\":\"10\",\"orderid\":3,\"itemid\":42,"
+        + "\"orderunits\":7,\"arraycol\":[\"1.5\",2],\"mapcol\":{\"k\":\"3\"}}";
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(orderSchema, false);
+
+    final GenericRow genericRow = deserializer.deserialize("", json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(genericRow, equalTo(new GenericRow(Arrays.asList(
+        10L, 3L, "42", 7.0, Arrays.asList(1.5, 2.0), Collections.singletonMap("k", 3.0)))));
+  }
+
+  @Test
+  public void shouldDeserializeNestedStructCaseInsensitively() {
+    final Schema addressSchema = SchemaBuilder.struct()
+        .field("NUMBER", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+    final Schema schema = SchemaBuilder.struct()
+        .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("ADDRESS", addressSchema)
+        .build();
+    final String json =
+        "{\"id\":1,\"Address\":{\"number\":221,\"zip\":{\"x\":1},\"Street\":\"Baker\"}}";
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(schema, false);
+
+    final GenericRow genericRow = deserializer.deserialize("", json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(genericRow, equalTo(new GenericRow(Arrays.asList(
+        1L, new Struct(addressSchema).put("NUMBER", 221L).put("STREET", "Baker")))));
+  }
+
+  @Test
+  public void shouldReturnNullForJsonNull() {
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(orderSchema, false);
+
+    Assert.assertNull(deserializer.deserialize("", "null".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfFieldNameIsOnlyAt() {
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(orderSchema, false);
+
+    deserializer.deserialize("", "{\"@\":1}".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfNotAnObject() {
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(orderSchema, false);
+
+    deserializer.deserialize("", "[1,2]".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema, false, ImmutableSet.of("ORDERID", "MAPCOL"));
+    final String json = "{\"ordertime\":1,\"orderid\":2,\"itemid\":\"item\","
+        + "\"arraycol\":[1.0],\"mapcol\":{\"key1\":10.0}}";
+
+    final GenericRow genericRow =
+        deserializer.deserialize("", json.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(genericRow.getColumns(), equalTo(Arrays.asList(
+        null, 2L, null, null, null, Collections.singletonMap("key1", 10.0))));
+  }
+}